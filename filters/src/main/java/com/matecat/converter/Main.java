@@ -1,6 +1,8 @@
 package com.matecat.converter;
 
 import com.matecat.converter.server.MatecatConverterServer;
+import com.matecat.converter.server.WarmUp;
+import com.matecat.converter.server.jobs.JobManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,10 +22,14 @@ public class Main {
 		// Init the server
 		MatecatConverterServer server = new MatecatConverterServer();
 
+		// Convert the sample documents; until then the server is not ready
+		WarmUp.start();
+
 		// Shutdown gracefully when receiving SIGTERM or similar
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
 			LOGGER.info("Shutdown signal received, stopping the server...");
 			server.stop();
+			JobManager.shutdown();
 			LOGGER.info("Server stopped successfully. Good bye!");
 		}));
 	}
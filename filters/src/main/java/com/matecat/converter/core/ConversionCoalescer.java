@@ -0,0 +1,184 @@
+package com.matecat.converter.core;
+
+import com.matecat.converter.core.util.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Coalescer of identical conversions
+ *
+ * When a conversion is requested while an identical one is already running (same key), it doesn't run again:
+ * the request waits for the running conversion and receives its result. The result is linked (or copied, if
+ * links are not supported) into the folder of every waiting request, so each project keeps owning its files and
+ * can be closed independently.
+ *
+ * Identical conversions fail in the same way, so errors are shared as well.
+ */
+public class ConversionCoalescer {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversionCoalescer.class);
+
+    // Size of the buffer used to hash the files
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    // Running conversions, by key
+    private static final Map<String, List<Follower>> IN_FLIGHT = new HashMap<>();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private ConversionCoalescer() {}
+
+
+    /**
+     * Run a conversion, unless an identical one is already running
+     * @param key Key identifying the conversion, see getKey
+     * @param outputFolder Folder where the result must be placed
+     * @param conversion Conversion, returning its result
+     * @return Result of the conversion, in the output folder
+     * @throws Exception Error of the conversion
+     */
+    public static File run(String key, File outputFolder, Callable<File> conversion) throws Exception {
+        if (!Config.coalesceConversions)
+            return conversion.call();
+
+        Follower follower = null;
+        synchronized (IN_FLIGHT) {
+            List<Follower> followers = IN_FLIGHT.get(key);
+            if (followers == null) {
+                IN_FLIGHT.put(key, new ArrayList<>());
+            } else {
+                follower = new Follower(outputFolder);
+                followers.add(follower);
+            }
+        }
+
+        // Another request is running the same conversion
+        if (follower != null) {
+            LOGGER.info("Waiting for the identical conversion in progress");
+            try {
+                return follower.result.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+            }
+        }
+
+        // Run the conversion, and share its outcome
+        File result;
+        try {
+            result = conversion.call();
+        } catch (Throwable e) {
+            for (Follower waiting : removeFollowers(key))
+                waiting.result.completeExceptionally(e);
+            throw e;
+        }
+        for (Follower waiting : removeFollowers(key)) {
+            try {
+                waiting.result.complete(link(result, waiting.outputFolder));
+            } catch (IOException e) {
+                waiting.result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Build the key of a conversion from its input and its params
+     * @param file Input file; its name is part of the key, since it ends up in the result
+     * @param params Params affecting the result
+     * @return Key
+     */
+    public static String getKey(File file, Object... params) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+                byte[] buffer = new byte[HASH_BUFFER_SIZE];
+                while (inputStream.read(buffer) != -1) {
+                    // Just reading, to update the digest
+                }
+            }
+            digest.update(file.getName().getBytes(StandardCharsets.UTF_8));
+            for (Object param : params)
+                digest.update(("\n" + param).getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest())
+                key.append(String.format("%02x", b));
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always supported
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * Get the number of requests waiting for a running conversion
+     * @return Waiting requests, or -1 if the conversion is not running
+     */
+    static int getWaitingCount(String key) {
+        synchronized (IN_FLIGHT) {
+            List<Follower> followers = IN_FLIGHT.get(key);
+            return followers == null ? -1 : followers.size();
+        }
+    }
+
+
+    /**
+     * Remove a finished conversion; from now on identical conversions will run again
+     */
+    private static List<Follower> removeFollowers(String key) {
+        synchronized (IN_FLIGHT) {
+            return IN_FLIGHT.remove(key);
+        }
+    }
+
+
+    /**
+     * Place the result of the conversion into the folder of a waiting request
+     */
+    private static File link(File result, File outputFolder) throws IOException {
+        File target = new File(outputFolder, result.getName());
+        try {
+            Files.createLink(target.toPath(), result.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(result.toPath(), target.toPath());
+        }
+        return target;
+    }
+
+
+    /**
+     * Request waiting for an identical conversion
+     */
+    private static class Follower {
+
+        private final File outputFolder;
+        private final CompletableFuture<File> result = new CompletableFuture<>();
+
+        Follower(File outputFolder) {
+            this.outputFolder = outputFolder;
+        }
+    }
+
+}
@@ -0,0 +1,299 @@
+package com.matecat.converter.core;
+
+import com.matecat.converter.core.metrics.Metrics;
+import com.matecat.converter.core.util.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Memory-weighted admission of the conversions
+ *
+ * The number of conversions a server can run at the same time depends on their documents: a few big spreadsheets
+ * can exhaust the heap that easily serves hundreds of small files. Every conversion is given a cost, the heap it
+ * is expected to need, and it runs only when enough of the memory budget is free; otherwise it waits, for at most
+ * Config.memoryAdmissionMaxWait seconds. The budget is a share of the maximum heap (-Xmx), see
+ * Config.memoryAdmissionHeapShare.
+ *
+ * The cost is the size of the input file times the heap used per byte by its format, plus a fixed cost. The heap
+ * per byte is a conservative guess by format. With Config.memoryAdmissionLearning it is then measured on the
+ * conversions running alone, when the heap retained by the collections during the conversion can be attributed to
+ * them: the peak usage of the heap can't be used, as it counts the garbage not collected yet.
+ *
+ * A document costing more than the whole budget is admitted alone.
+ */
+public class MemoryAdmission {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryAdmission.class);
+
+    // Heap needed by any conversion, for the pipelines and the buffers
+    static final long BASE_COST = 2 * 1024 * 1024;
+
+    // Heap per byte assumed before measuring it, for the zipped formats and for the others
+    private static final double ZIPPED_HEAP_PER_BYTE = 40;
+    private static final double DEFAULT_HEAP_PER_BYTE = 10;
+    private static final Set<Format> ZIPPED_FORMATS = Collections.unmodifiableSet(EnumSet.of(
+            Format.DOCX, Format.DOCM, Format.DOTX, Format.DOTM,
+            Format.XLSX, Format.XLSM, Format.XLTX, Format.XLTM,
+            Format.PPTX, Format.PPTM, Format.PPSX, Format.PPSM, Format.POTX, Format.POTM,
+            Format.ODT, Format.OTT, Format.ODS, Format.OTS, Format.ODP, Format.OTP,
+            Format.IDML, Format.ARCHIVE));
+
+    // Measured heap per byte, weight of the last measure and its limits
+    private static final double EWMA_ALPHA = 0.3;
+    private static final double MIN_HEAP_PER_BYTE = 1;
+    private static final double MAX_HEAP_PER_BYTE = 1000;
+
+    // Smaller documents are not measured: their peak is dominated by the fixed costs
+    static final long MIN_MEASURED_SIZE = 64 * 1024;
+
+    // Permits are KB of heap
+    private static final int PERMIT_SIZE = 1024;
+
+    // Budget, in permits
+    private static final int BUDGET;
+    private static final Semaphore PERMITS;
+    static {
+        long budget = Runtime.getRuntime().maxMemory() / 100 * Config.memoryAdmissionHeapShare / PERMIT_SIZE;
+        BUDGET = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budget));
+        PERMITS = new Semaphore(BUDGET, true);
+    }
+
+    // Heap per byte, by format
+    static final Map<Format, Double> HEAP_PER_BYTE = new ConcurrentHashMap<>();
+
+    // Conversions running, and conversions started so far
+    private static final Object LOCK = new Object();
+    private static int active = 0;
+    private static long started = 0;
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private MemoryAdmission() {}
+
+
+    /**
+     * Run a conversion once there is enough memory for it
+     * @param file Input file of the conversion
+     * @param conversion Conversion
+     * @return Result of the conversion
+     * @throws MemoryUnavailableException If the memory has not been available for Config.memoryAdmissionMaxWait seconds
+     * @throws E Error of the conversion
+     */
+    public static <T, E extends Exception> T run(File file, Metrics.Task<T, E> conversion) throws E {
+        if (!Config.memoryAdmission)
+            return conversion.run();
+        return run(file, conversion, Config.memoryAdmissionLearning);
+    }
+
+
+    /**
+     * Run a conversion once there is enough memory for it
+     * @param file Input file of the conversion
+     * @param conversion Conversion
+     * @param learn True to measure the heap used by the conversion
+     * @return Result of the conversion
+     */
+    static <T, E extends Exception> T run(File file, Metrics.Task<T, E> conversion, boolean learn) throws E {
+
+        Format format = getFormat(file);
+        long size = file.length();
+        int permits = getPermits(format, size);
+        acquire(permits, file.getName());
+        try {
+            // The heap can be attributed to the conversion only if it runs alone
+            boolean alone;
+            long startedBefore;
+            long retainedBefore = 0, collectionsBefore = 0;
+            synchronized (LOCK) {
+                alone = active++ == 0;
+                startedBefore = started++;
+                if (alone  &&  learn) {
+                    retainedBefore = getRetainedHeap();
+                    collectionsBefore = getCollections();
+                }
+            }
+            boolean success = false;
+            try {
+                T result = conversion.run();
+                success = true;
+                return result;
+            } finally {
+                long retained = 0;
+                synchronized (LOCK) {
+                    active--;
+                    alone &= started == startedBefore + 1;
+                    // Without collections during the conversion, there is nothing retained to measure
+                    alone &= learn  &&  getCollections() > collectionsBefore;
+                    if (alone)
+                        retained = getRetainedHeap();
+                }
+                if (alone && success && size >= MIN_MEASURED_SIZE && format != null)
+                    measure(format, size, retained - retainedBefore);
+            }
+        } finally {
+            PERMITS.release(permits);
+        }
+    }
+
+
+    /**
+     * Estimate the heap a conversion needs
+     * @param format Format of the input file, null if unknown
+     * @param size Size of the input file
+     * @return Estimated heap, in bytes
+     */
+    public static long getCost(Format format, long size) {
+        return BASE_COST + (long) (size * getHeapPerByte(format));
+    }
+
+
+    /**
+     * Get the heap used per byte of input
+     * @param format Format of the input file, null if unknown
+     * @return Measured heap per byte, or the initial guess if not measured yet
+     */
+    public static double getHeapPerByte(Format format) {
+        Double measured = format != null ? HEAP_PER_BYTE.get(format) : null;
+        if (measured != null)
+            return measured;
+        return ZIPPED_FORMATS.contains(format) ? ZIPPED_HEAP_PER_BYTE : DEFAULT_HEAP_PER_BYTE;
+    }
+
+
+    /**
+     * Get the memory budget
+     * @return Budget, in bytes
+     */
+    public static long getBudget() {
+        return (long) BUDGET * PERMIT_SIZE;
+    }
+
+
+    /**
+     * Get the memory reserved by the running conversions
+     * @return Reserved memory, in bytes
+     */
+    public static long getReserved() {
+        return (long) (BUDGET - PERMITS.availablePermits()) * PERMIT_SIZE;
+    }
+
+
+    /**
+     * Get the number of conversions waiting for memory
+     * @return Waiting conversions
+     */
+    public static int getQueueLength() {
+        return PERMITS.getQueueLength();
+    }
+
+
+    /**
+     * Record the heap used by a conversion run alone
+     * @param format Format of the input file
+     * @param size Size of the input file
+     * @param used Heap retained by the conversion
+     */
+    static void measure(Format format, long size, long used) {
+        if (used <= 0)
+            return;
+        double measured = Math.min(MAX_HEAP_PER_BYTE, Math.max(MIN_HEAP_PER_BYTE, (double) used / size));
+        HEAP_PER_BYTE.compute(format, (key, current) ->
+                current == null ? measured : EWMA_ALPHA * measured + (1 - EWMA_ALPHA) * current);
+        LOGGER.debug("Measured {} bytes of heap per byte converting {}", measured, format);
+    }
+
+
+    private static int getPermits(Format format, long size) {
+        long permits = (getCost(format, size) + PERMIT_SIZE - 1) / PERMIT_SIZE;
+        // A document bigger than the whole budget waits for all the others to finish
+        return (int) Math.min(BUDGET, permits);
+    }
+
+
+    private static void acquire(int permits, String filename) {
+        if (PERMITS.tryAcquire(permits))
+            return;
+        LOGGER.info("Not enough memory to convert {} now: waiting for {}KB", filename, permits);
+        try {
+            if (!PERMITS.tryAcquire(permits, Config.memoryAdmissionMaxWait, TimeUnit.SECONDS))
+                throw new MemoryUnavailableException("The server doesn't have enough free memory to convert "
+                        + filename + " now, please retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MemoryUnavailableException("Interrupted while waiting for the memory to convert " + filename);
+        }
+    }
+
+
+    private static Format getFormat(File file) {
+        try {
+            return Format.getFormat(file);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Get the heap retained after the last collection of every heap pool: unlike the current or the peak usage,
+     * it doesn't count the garbage
+     * @return Sum of the usages after the collections of the heap pools
+     */
+    private static long getRetainedHeap() {
+        long retained = 0;
+        for (MemoryPoolMXBean pool : getHeapPools()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null)
+                retained += usage.getUsed();
+        }
+        return retained;
+    }
+
+
+    private static long getCollections() {
+        long collections = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            collections += Math.max(0, collector.getCollectionCount());
+        return collections;
+    }
+
+
+    private static List<MemoryPoolMXBean> getHeapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP && pool.isValid())
+                pools.add(pool);
+        return pools;
+    }
+
+
+    /**
+     * Exception thrown when a conversion waited too long for its memory
+     */
+    public static class MemoryUnavailableException extends RuntimeException {
+        public MemoryUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+}
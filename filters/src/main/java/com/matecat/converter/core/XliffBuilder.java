@@ -1,29 +1,26 @@
 package com.matecat.converter.core;
 
 import com.matecat.converter.core.okapiclient.OkapiPack;
+import com.matecat.converter.core.util.Config;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.util.Base64;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Xliff builder
@@ -78,161 +75,368 @@ public class XliffBuilder {
         // Retrieve the filename
         String filename = pack.getOriginalFile().getName();
 
-        // Encode the files we are going to insert into the xlf
-        String encodedManifest = encodeFile(pack.getManifest());
-        String encodedFile = encodeFile(pack.getOriginalFile());
-
         // Insert the filename, the encoded manifest and the encoded file into the xlf
-        File xlf = pack.getXlf();
         String outputPath = pack.getPackFolder().getParentFile().getPath() + File.separator + filename + ".xlf";
-        return createXliff(outputPath, xlf, filename, originalFormat, filter, encodedFile, encodedManifest);
+        try (InputStream xlf = new FileInputStream(pack.getXlf())) {
+            return createXliff(outputPath, xlf, filename, originalFormat, filter, pack.getOriginalFile(),
+                    () -> openFile(pack.getManifest()));
+        } catch (IOException e) {
+            throw new RuntimeException("It was not possible to read the xliff of the pack", e);
+        }
 
     }
 
 
     /**
-     * Encode the file
+     * Contents of a file to embed into the XLIFF, opened only when written
+     */
+    @FunctionalInterface
+    private interface Contents {
+        ReadableByteChannel open() throws IOException;
+    }
+
+
+    /**
+     * Open a file to embed into the XLIFF
      * @param input File to be encoded
-     * @return Encoded file
+     * @return Channel reading the file
      */
-    private static String encodeFile(File input) {
-        String output;
+    private static ReadableByteChannel openFile(File input) {
         try {
-            byte[] bytes = Files.readAllBytes(input.toPath());
-            output = Base64.getEncoder().encodeToString(bytes);
+            return FileChannel.open(input.toPath(), StandardOpenOption.READ);
         } catch (IOException e) {
-            //e.printStackTrace();
-            throw new RuntimeException("It was not possible to encode the file " + input.getName());
+            throw new RuntimeException("It was not possible to encode the file " + input.getName(), e);
         }
-        return output;
     }
 
 
     /**
      * Create a new Xliff
+     *
+     * The base xliff is streamed to the output, and the file elements of the original file and the manifest are
+     * inserted right after its root start tag. The output is the same, byte by byte, that the base xliff parsed
+     * into a DOM and serialized back would be.
+     *
      * @param outputPath Path where the new Xliff should be saved
-     * @param baseXLF Base xliff
+     * @param baseXlfContent Base xliff
      * @param filename Original file's filename
      * @param originalFormat Original file's format, before any conversion
-     * @param encodedFile Encoded original file's contents
-     * @param encodedManifest Encoded manifest   @return Xliff generated
+     * @param originalFile Original file's contents
+     * @param manifest Manifest's contents
+     * @return Xliff generated
      */
-    private static File createXliff(String outputPath, final File baseXLF, String filename, Format originalFormat, Class filter, String encodedFile, String encodedManifest) {
-
-        File output = null;
-
-        try (InputStream baseXlfContent = new FileInputStream(baseXLF)) {
-
-            // Parse the XML document
-            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            Document document = documentBuilder.parse(baseXlfContent);
-            Element root = document.getDocumentElement();
-
-            // Add a leading underscore to all <ex> ids.
-            // This because sometimes Trados fails opening these XLIFFs
-            // generated by MateCat with a very cryptic error like "index was
-            // out of range", and we found that just making <ex> ids different
-            // from <bx> ids in the same TU fixes the issue. Adding this
-            // leading underscores does the job. It is removed in XliffProcessor
-            // when we recreate the original Okapi XLIFF.
-            NodeList exElements = document.getElementsByTagName("ex");
-            for (int i = 0; i < exElements.getLength(); i++) {
-                Element exElement = (Element) exElements.item(i);
-                exElement.setAttribute("id", "_" + exElement.getAttribute("id"));
+    private static File createXliff(String outputPath, final InputStream baseXlfContent, String filename, Format originalFormat, Class filter, File originalFile, Contents manifest) {
+
+        File output = new File(outputPath);
+
+        try (XmlSerializer serializer = new XmlSerializer(new FileOutputStream(output))) {
+
+            XMLStreamReader reader = XmlSerializer.createReader(baseXlfContent);
+
+            // The languages are in the first file element: what comes before it is held until they are known
+            StringWriter held = new StringWriter();
+            XmlSerializer heldSerializer = new XmlSerializer(held);
+            boolean inserted = false;
+
+            serializer.copyEvent(reader);
+            while (reader.hasNext()) {
+                reader.next();
+                boolean rootStarted = serializer.getDepth() > 0;
+
+                if (rootStarted  &&  !inserted) {
+                    if (XmlSerializer.isStartElement(reader, "file")) {
+                        String sourceLanguage = getAttribute(reader, "source-language");
+                        String targetLanguage = getAttribute(reader, "target-language");
+
+                        // Add the original file, then the manifest
+                        writeFileElement(serializer, filename, originalFormat, filter, sourceLanguage, targetLanguage, () -> openFile(originalFile));
+                        writeFileElement(serializer, OkapiPack.MANIFEST_FILENAME, null, filter, sourceLanguage, targetLanguage, manifest);
+                        heldSerializer.flush();
+                        serializer.writeRaw(held.toString());
+                        inserted = true;
+                    } else {
+                        // The held serializer is outside of the root, where it would drop the text
+                        if (reader.isCharacters()  ||  reader.isWhiteSpace())
+                            heldSerializer.writeCharacters(reader.getText());
+                        else
+                            copyEvent(reader, heldSerializer);
+                        continue;
+                    }
+                }
+
+                copyEvent(reader, serializer);
             }
 
-            // Retrieve the source and target language
-            Element sampleFile = (Element) document.getElementsByTagName("file").item(0);
-            String sourceLanguage = sampleFile.getAttribute("source-language");
-            String targetLanguage = sampleFile.getAttribute("target-language");
-
-            // Add the original file
-            Element manifestNode = createFileElement(document, sourceLanguage, targetLanguage,
-                    "manifest.rkm", null, filter, encodedManifest);
-            root.insertBefore(manifestNode, root.getFirstChild());
-
-            // Add the original file
-            Element originalFileNode = createFileElement(document, sourceLanguage, targetLanguage,
-                    filename, originalFormat, filter, encodedFile);
-            root.insertBefore(originalFileNode, root.getFirstChild());
-
-            // Save the file
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            DOMSource domSource = new DOMSource(document);
-            StreamResult streamResult = new StreamResult(outputPath);
-            transformer.transform(domSource, streamResult);
-
-            // Instantiate the output file
-            output = new File(outputPath);
-
-            // Check that the file has been correctly created
-            if (!output.exists()) {
-                throw new RuntimeException("The output Xliff could not been created");
+            if (!inserted)
+                throw new RuntimeException("The xliff doesn't contain any file element");
+
+        } catch (XMLStreamException | IOException e) {
+            throw new RuntimeException("The output Xliff could not been created", e);
+        }
+
+        // Check that the file has been correctly created
+        if (!output.exists())
+            throw new RuntimeException("The output Xliff could not been created");
+        return output;
+
+    }
+
+
+    /**
+     * Build the XLIFF of an archive split into sub-documents, from the packs of its entries
+     *
+     * The original archive is the first file element, followed by the manifest and the work files of every
+     * entry, in the order of the packs.
+     *
+     * @param archive Archive
+     * @param packs Packs of the translatable entries, in the order of the archive
+     * @param originalFormat Original format, if the file was converted before processing it
+     * @return New XLIFF generated combining the inputs
+     *
+     * @see com.matecat.converter.core.okapiclient.ArchiveSplitter
+     */
+    public static File buildFromArchivePacks(final File archive, final List<OkapiPack> packs, Format originalFormat, Class filter) {
+
+        // Check the inputs that are not empty
+        if (archive == null)
+            throw new IllegalArgumentException("The archive cannot be null");
+        if (packs == null  ||  packs.isEmpty())
+            throw new IllegalArgumentException("The packs cannot be empty");
+
+        // Obtain the original format if it's null
+        if (originalFormat == null)
+            originalFormat = Format.getFormat(archive);
+
+        String outputPath = archive.getParentFile().getPath() + File.separator + archive.getName() + ".xlf";
+
+        try (XmlSerializer serializer = new XmlSerializer(new FileOutputStream(outputPath))) {
+
+            String rootName = null;
+            String sourceLanguage = null, targetLanguage = null;
+
+            for (OkapiPack pack : packs) {
+                try (InputStream input = new FileInputStream(pack.getXlf())) {
+                    XMLStreamReader reader = XmlSerializer.createReader(input);
+                    int depth = 0;
+                    boolean manifestWritten = false;
+
+                    while (reader.hasNext()) {
+                        reader.next();
+                        if (reader.isEndElement()) {
+                            depth--;
+                            continue;
+                        }
+                        if (!reader.isStartElement())
+                            continue;
+
+                        // The root of the first xliff is the root of the new one, starting with the original archive
+                        if (depth++ == 0) {
+                            if (rootName == null) {
+                                rootName = XmlSerializer.getName(reader.getName());
+                                serializer.writeDeclaration(false);
+                                serializer.writeStartElement(rootName, XmlSerializer.getAttributes(reader));
+                            }
+                            continue;
+                        }
+
+                        if (!XmlSerializer.isStartElement(reader, "file"))
+                            continue;
+
+                        // Retrieve the source and target language
+                        if (sourceLanguage == null) {
+                            sourceLanguage = getAttribute(reader, "source-language");
+                            targetLanguage = getAttribute(reader, "target-language");
+                            writeFileElement(serializer, archive.getName(), originalFormat, filter,
+                                    sourceLanguage, targetLanguage, () -> openFile(archive));
+                        }
+
+                        // Add the manifest, then the work files of the entry
+                        if (!manifestWritten) {
+                            writeFileElement(serializer, OkapiPack.MANIFEST_FILENAME, null, filter,
+                                    sourceLanguage, targetLanguage, () -> openFile(pack.getManifest()));
+                            manifestWritten = true;
+                        }
+                        copyElement(reader, serializer);
+                        depth--;
+                    }
+
+                    // The manifest of an entry without work files
+                    if (!manifestWritten  &&  sourceLanguage != null)
+                        writeFileElement(serializer, OkapiPack.MANIFEST_FILENAME, null, filter,
+                                sourceLanguage, targetLanguage, () -> openFile(pack.getManifest()));
+                }
             }
 
-        } catch (ParserConfigurationException | TransformerException | IOException | SAXException pce) {
-            pce.printStackTrace();
+            if (rootName == null)
+                throw new RuntimeException("The xliffs of the packs are empty");
+            serializer.writeEndElement(rootName);
+
+        } catch (XMLStreamException | IOException e) {
+            throw new RuntimeException("The output Xliff could not been created", e);
         }
 
-        // Return the outputted file
+        // Check that the file has been correctly created
+        File output = new File(outputPath);
+        if (!output.exists())
+            throw new RuntimeException("The output Xliff could not been created");
         return output;
 
     }
 
 
     /**
-     * Create a file element which contains a encoded file
-     * @param document XML's document
+     * Copy the current event of a reader, adding a leading underscore to all <ex> ids.
+     * This because sometimes Trados fails opening these XLIFFs
+     * generated by MateCat with a very cryptic error like "index was
+     * out of range", and we found that just making <ex> ids different
+     * from <bx> ids in the same TU fixes the issue. Adding this
+     * leading underscores does the job. It is removed in XliffProcessor
+     * when we recreate the original Okapi XLIFF.
+     * @param reader Reader of the base xliff
+     * @param serializer Serializer of the new xliff
+     */
+    private static void copyEvent(XMLStreamReader reader, XmlSerializer serializer) throws IOException {
+        if (!XmlSerializer.isStartElement(reader, "ex")) {
+            serializer.copyEvent(reader);
+            return;
+        }
+        List<Map.Entry<String, String>> attributes = XmlSerializer.getAttributes(reader);
+        Map.Entry<String, String> id = null;
+        for (Map.Entry<String, String> attribute : attributes)
+            if (attribute.getKey().equals("id"))
+                id = attribute;
+        if (id != null)
+            id.setValue("_" + id.getValue());
+        else
+            attributes.add(new AbstractMap.SimpleEntry<>("id", "_"));
+        serializer.writeStartElement("ex", attributes);
+    }
+
+
+    /**
+     * Copy the element starting at the current event of a reader, with the <ex> ids prefixed
+     * @param reader Reader of the base xliff, on a start element; it is left on its end element
+     * @param serializer Serializer of the new xliff
+     */
+    private static void copyElement(XMLStreamReader reader, XmlSerializer serializer) throws XMLStreamException, IOException {
+        int depth = 0;
+        while (true) {
+            if (reader.isStartElement())
+                depth++;
+            else if (reader.isEndElement())
+                depth--;
+            copyEvent(reader, serializer);
+            if (depth == 0)
+                return;
+            reader.next();
+        }
+    }
+
+
+    private static String getAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+
+
+    /**
+     * Write the file elements containing the original file and the manifest, encoded. They are the same
+     * inserted into the Okapi XLIFF by build, and they are written before it when the XLIFF is generated in
+     * a single pass.
+     * @param output Output of the XLIFF
+     * @param originalFile Original file, after conversions
+     * @param manifest Manifest contents
+     * @param originalFormat Original file's format, before any conversion
+     * @param filter Filter class
      * @param sourceLanguage Source language
      * @param targetLanguage Target language
-     * @param filename Filename of the file we are storing
-     * @param originalFormat Original file's format, before any conversion
-     * @param encodedFile Encoded contents of the file we are storing  @return New file element
+     * @throws IOException If the original file can't be read or the output written
      */
-    private static Element createFileElement(Document document, String sourceLanguage, String targetLanguage,
-                                             String filename, Format originalFormat, Class filter, String encodedFile) {
+    public static void writeFileElements(OutputStream output, File originalFile, byte[] manifest, Format originalFormat,
+                                         Class filter, String sourceLanguage, String targetLanguage) throws IOException {
+        if (originalFormat == null)
+            originalFormat = Format.getFormat(originalFile);
+        String filename = originalFile.getName();
+
+        try (XmlSerializer serializer = new XmlSerializer(new CloseShieldOutputStream(output))) {
+            writeFileElement(serializer, filename, originalFormat, filter, sourceLanguage, targetLanguage,
+                    () -> openFile(originalFile));
+            writeFileElement(serializer, OkapiPack.MANIFEST_FILENAME, null, filter, sourceLanguage, targetLanguage,
+                    () -> Channels.newChannel(new ByteArrayInputStream(manifest)));
+        }
+    }
 
-        // Process filename and original format
+
+    /**
+     * Get the filename stored in the file element: if the file was converted, the extension of the original format
+     */
+    private static String getFilename(String filename, Format originalFormat) {
         Format format = Format.getFormat(filename);
         if (originalFormat != null  &&  originalFormat != format)  {
             String basename = FilenameUtils.getBaseName(filename);
             filename = String.format("%s.%s", basename,originalFormat);
         }
+        return filename;
+    }
 
-        // Create the new file element which will contain the original file
-        Element originalFileNode = document.createElement("file");
+
+    /**
+     * Get the tool id of the file elements, with the version of the filters if available
+     */
+    private static String getToolId() {
         String toolId = "matecat-converter";
         if (FILTERS_VERSION != null) {
             toolId += " " + FILTERS_VERSION;
         } else {
             LOGGER.warn("Can't write Filters version in XLIFF (version available only when running from a jar)");
         }
-        originalFileNode.setAttribute("tool-id", toolId);
-        originalFileNode.setAttribute("filter", filter.getCanonicalName());
-        originalFileNode.setAttribute("original", filename);
-        originalFileNode.setAttribute("datatype", "x-" + format);
-        originalFileNode.setAttribute("source-language", sourceLanguage);
-        originalFileNode.setAttribute("target-language", targetLanguage);
+        return toolId;
+    }
+
+
+    /**
+     * Write a file element which contains a encoded file
+     * @param serializer Serializer of the new xliff
+     * @param filename Filename of the file we are storing
+     * @param originalFormat Original file's format, before any conversion
+     * @param sourceLanguage Source language
+     * @param targetLanguage Target language
+     * @param contents Contents of the file we are storing, encoded while written
+     */
+    private static void writeFileElement(XmlSerializer serializer, String filename, Format originalFormat, Class filter,
+                                         String sourceLanguage, String targetLanguage, Contents contents) throws IOException {
+
+        // Process filename and original format
+        Format format = Format.getFormat(filename);
+        filename = getFilename(filename, originalFormat);
+
+        // File element which contains the file
+        List<Map.Entry<String, String>> attributes = new ArrayList<>();
+        attributes.add(new AbstractMap.SimpleEntry<>("tool-id", getToolId()));
+        attributes.add(new AbstractMap.SimpleEntry<>("filter", filter.getCanonicalName()));
+        attributes.add(new AbstractMap.SimpleEntry<>("original", filename));
+        attributes.add(new AbstractMap.SimpleEntry<>("datatype", "x-" + format));
+        attributes.add(new AbstractMap.SimpleEntry<>("source-language", sourceLanguage));
+        attributes.add(new AbstractMap.SimpleEntry<>("target-language", targetLanguage));
+        serializer.writeStartElement("file", attributes);
 
         // Header
-        Element headerElement = document.createElement("header");
-        Element referenceElement = document.createElement("reference");
-        Element internalFileElement = document.createElement("internal-file");
-        internalFileElement.setAttribute("form", "base64");
-        internalFileElement.appendChild(document.createTextNode(encodedFile));
-        referenceElement.appendChild(internalFileElement);
-        headerElement.appendChild(referenceElement);
-
-        // Add the skeleton to the file, and the file to the document
-        originalFileNode.appendChild(headerElement);
-
-        // Add empty body
-        Element bodyElement = document.createElement("body");
-        originalFileNode.appendChild(bodyElement);
-
-        // Return the new node
-        return originalFileNode;
+        serializer.writeStartElement("header", Collections.emptyList());
+        serializer.writeStartElement("reference", Collections.emptyList());
+        serializer.writeStartElement("internal-file",
+                Collections.singletonList(new AbstractMap.SimpleEntry<>("form", "base64")));
+        try (ReadableByteChannel channel = contents.open()) {
+            serializer.writeBase64(channel, Config.xliffBase64LineLength);
+        }
+        serializer.writeEndElement("internal-file");
+        serializer.writeEndElement("reference");
+        serializer.writeEndElement("header");
+
+        // Empty body
+        serializer.writeStartElement("body", Collections.emptyList());
+        serializer.writeEndElement("body");
+
+        serializer.writeEndElement("file");
 
     }
 
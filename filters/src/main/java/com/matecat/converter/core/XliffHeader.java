@@ -0,0 +1,135 @@
+package com.matecat.converter.core;
+
+import org.apache.commons.io.input.BoundedInputStream;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Xliff header
+ *
+ * The attributes of the first file element of an xliff: in the xliffs generated by XliffBuilder, the one embedding
+ * the original file. They are read scanning only the beginning of the xliff, up to MAX_PREFIX_SIZE bytes, so that
+ * the filter and the languages are known without parsing documents that can be hundreds of MB.
+ */
+public class XliffHeader {
+
+    // The first file element must start within these bytes
+    static final int MAX_PREFIX_SIZE = 64 * 1024;
+
+    private static final Pattern PRODUCER_CONVERTER_VERSION_PATTERN = Pattern.compile("matecat-converter(\\s+([^\"]+))?");
+
+    private final Map<String, String> attributes;
+
+
+    private XliffHeader(Map<String, String> attributes) {
+        this.attributes = attributes;
+    }
+
+
+    /**
+     * Read the header of an xliff
+     * @param xlf Xliff
+     * @return Header
+     * @throws RuntimeException If the xliff can't be read, or it doesn't start with a file element
+     */
+    public static XliffHeader read(File xlf) {
+        try (InputStream input = new BoundedInputStream(new FileInputStream(xlf), MAX_PREFIX_SIZE)) {
+            XMLStreamReader reader = XmlSerializer.createReader(input);
+            while (reader.hasNext()) {
+                reader.next();
+                if (XmlSerializer.isStartElement(reader, "file")) {
+                    Map<String, String> attributes = new HashMap<>();
+                    for (Map.Entry<String, String> attribute : XmlSerializer.getAttributes(reader))
+                        attributes.put(attribute.getKey(), attribute.getValue());
+                    return new XliffHeader(attributes);
+                }
+            }
+        } catch (XMLStreamException | IOException e) {
+            // The prefix ended before the first file element, or the xliff is malformed
+            throw new RuntimeException("Exception reading the header of the xliff " + xlf.getName(), e);
+        }
+        throw new RuntimeException("The xliff " + xlf.getName() + " doesn't contain any file element");
+    }
+
+
+    /**
+     * Get the class of the filter which generated the xliff
+     * @return Filter class name, null if missing
+     */
+    public String getFilter() {
+        return attributes.get("filter");
+    }
+
+
+    /**
+     * Get the tool id
+     * @return Tool id, empty if missing
+     */
+    public String getToolId() {
+        return getAttribute("tool-id");
+    }
+
+
+    /**
+     * Get the version of the converter which generated the xliff
+     * @return Version, null if missing or if the xliff was generated by another tool
+     */
+    public String getProducerVersion() {
+        Matcher matcher = PRODUCER_CONVERTER_VERSION_PATTERN.matcher(getToolId());
+        return matcher.find() ? matcher.group(2) : null;
+    }
+
+
+    /**
+     * Check if the xliff was generated by the converter
+     * @return True if the tool id is the one of the converter
+     */
+    public boolean isProducedByConverter() {
+        return PRODUCER_CONVERTER_VERSION_PATTERN.matcher(getToolId()).find();
+    }
+
+
+    public Locale getSourceLanguage() {
+        return new Locale(getAttribute("source-language"));
+    }
+
+
+    public Locale getTargetLanguage() {
+        return new Locale(getAttribute("target-language"));
+    }
+
+
+    /**
+     * Get the name of the original file
+     * @return Filename, with the extension of the original format
+     */
+    public String getOriginal() {
+        return getAttribute("original");
+    }
+
+
+    /**
+     * Get the datatype, x-{FORMAT (after conversions)} in the xliffs generated by XliffBuilder
+     * @return Datatype, empty if missing
+     */
+    public String getDatatype() {
+        return getAttribute("datatype");
+    }
+
+
+    private String getAttribute(String name) {
+        return attributes.getOrDefault(name, "");
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.matecat.converter.core;
 
+import com.matecat.converter.core.metrics.Metrics;
+import com.matecat.converter.core.okapiclient.ArchiveSplitter;
 import com.matecat.converter.core.okapiclient.OkapiClient;
 import com.matecat.converter.core.okapiclient.OkapiPack;
 import com.matecat.converter.core.util.Config;
@@ -10,28 +12,20 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.stream.XMLInputFactory;
+
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Scanner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,7 +43,7 @@ public class XliffProcessor {
     private static Logger LOGGER = LoggerFactory.getLogger(XliffProcessor.class);
 
     private static final String CONVERTER_VERSION = XliffBuilder.class.getPackage().getImplementationVersion();
-    private static final Pattern PRODUCER_CONVERTER_VERSION_PATTERN = Pattern.compile("matecat-converter(\\s+([^\"]+))?");
+    private static final Pattern RELATIVE_INPUT_PATH_PATTERN = Pattern.compile(" relativeInputPath *= *\"(.+?)\"");
 
     // File we are processing
     private File xlf;
@@ -57,13 +51,13 @@ public class XliffProcessor {
     // Embedded pack
     private OkapiPack pack;
 
+    // Embedded packs of the entries, if it is an archive split into sub-documents
+    private File archive;
+    private List<OkapiPack> entryPacks;
+
     // Inner properties
-    private String originalFilename = null;
+    private XliffHeader header;
     private Format originalFormat;
-    private Locale sourceLanguage, targetLanguage;
-
-    private boolean filterExtracted = false;
-    private String filter;
 
 
     /**
@@ -86,14 +80,23 @@ public class XliffProcessor {
     }
 
 
+    /**
+     * Get the header of the XLF, read once
+     * @return Header
+     */
+    private XliffHeader getHeader() {
+        if (header == null)
+            header = XliffHeader.read(xlf);
+        return header;
+    }
+
+
     /**
      * Get source language
      * @return Source language
      */
     public Locale getSourceLanguage() {
-        if (sourceLanguage == null)
-            extractLanguages();
-        return sourceLanguage;
+        return getHeader().getSourceLanguage();
     }
 
 
@@ -102,72 +105,16 @@ public class XliffProcessor {
      * @return Target language
      */
     public Locale getTargetLanguage() {
-        if (targetLanguage == null)
-            extractLanguages();
-        return targetLanguage;
-    }
-
-
-    public String getFilter() {
-        if (filterExtracted) return filter;
-
-        filter = extractFilter();
-        filterExtracted = true;
-        return filter;
-    }
-
-    private String extractFilter() {
-        InputStream inputStream = null;
-        XMLStreamReader sax = null;
-        try {
-            inputStream = new FileInputStream(xlf);
-            sax = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
-
-            // Default value is null
-            String filter = null;
-
-            // Look for a <file> tag in the first 1000 chars
-            while (sax.hasNext() && sax.getLocation().getCharacterOffset() < 1000) {
-                int event = sax.next();
-
-                if (event == XMLStreamConstants.START_ELEMENT && sax.getLocalName().equals("file")) {
-                    filter = sax.getAttributeValue(null, "filter");
-                    break;
-                }
-            }
-
-            return filter;
-        }
-        catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        finally {
-            try {
-                if (sax != null) sax.close();
-            } catch (XMLStreamException ignored) {}
-            IOUtils.closeQuietly(inputStream);
-        }
+        return getHeader().getTargetLanguage();
     }
 
 
     /**
-     * Extract language from the XLF
+     * Get the filter which generated the XLF
+     * @return Filter class name, null if missing
      */
-    private void extractLanguages() {
-        try (InputStream inputStream = new FileInputStream(xlf)) {
-            // Parse the XML document
-            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            Document document = documentBuilder.parse(inputStream);
-            Element firstFile = (Element) document.getElementsByTagName("file").item(0);
-
-            // Extract the languages
-            this.sourceLanguage = new Locale(firstFile.getAttribute("source-language"));
-            this.targetLanguage = new Locale(firstFile.getAttribute("target-language"));
-        }
-        catch (ParserConfigurationException | SAXException | IOException e) {
-            throw new RuntimeException("Exception extracting source/target languages from MateCat xliff", e);
-        }
+    public String getFilter() {
+        return getHeader().getFilter();
     }
 
 
@@ -178,11 +125,11 @@ public class XliffProcessor {
     public File getOriginalFile() throws Exception {
 
         // Reconstruct the pack
-        if (pack == null)
+        if (pack == null  &&  entryPacks == null)
             reconstructPack();
 
         // Get the original file
-        File originalFile = pack.getOriginalFile();
+        File originalFile = entryPacks != null ? archive : pack.getOriginalFile();
 
         // If it does not have its original format, try to convert it
         originalFile = convertToOriginalFormat(originalFile, originalFormat);
@@ -201,11 +148,12 @@ public class XliffProcessor {
     public File getDerivedFile() {
 
         // Reconstruct the pack
-        if (pack == null)
+        if (pack == null  &&  entryPacks == null)
             reconstructPack();
 
         // Generate the derived file
-        File derivedFile = OkapiClient.generateDerivedFile(pack);
+        File derivedFile = Metrics.time(Metrics.DERIVED_FILE_GENERATION, originalFormat,
+                () -> entryPacks != null ? generateDerivedArchive() : OkapiClient.generateDerivedFile(pack));
 
         // If it does not have its original format, try to convert it
         derivedFile = convertToOriginalFormat(derivedFile, originalFormat);
@@ -216,6 +164,18 @@ public class XliffProcessor {
     }
 
 
+    /**
+     * Generate the derived archive, merging the entries concurrently
+     * @return Derived archive, in the done folder of the pack like the other derived files
+     */
+    private File generateDerivedArchive() {
+        File packFolder = archive.getParentFile().getParentFile();
+        String derivedFilename = FilenameUtils.getBaseName(archive.getName()) + ".out." + FilenameUtils.getExtension(archive.getName());
+        File derivedArchive = new File(packFolder.getPath() + File.separator + OkapiPack.DONE_DIRECTORY_NAME + File.separator + derivedFilename);
+        return ArchiveSplitter.generateDerivedFile(archive, entryPacks, derivedArchive);
+    }
+
+
     /**
      * Try to convert a file to its original format
      * @param file File
@@ -226,7 +186,9 @@ public class XliffProcessor {
         Format currentFormat = Format.getFormat(file);
         if (Config.winConvEnabled && currentFormat != originalFormat && !Format.isOCRFormat(originalFormat)) {
             try {
-                file = WinConverterRouter.convert(file, originalFormat);
+                File inputFile = file;
+                file = Metrics.time(Metrics.WIN_CONVERSION, originalFormat,
+                        () -> WinConverterRouter.convert(inputFile, originalFormat));
             } catch (Exception e) {
                 throw new RuntimeException("Exception while using WinConverterRouter.convert", e);
             }
@@ -236,9 +198,28 @@ public class XliffProcessor {
 
 
     /**
-     * Reconstruct the original Okapi result pack from the embedded files
+     * Reconstruct the original Okapi result pack from the embedded files, recording the duration
      */
     private void reconstructPack() {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            parsePack();
+            success = true;
+        } finally {
+            // The original format is known once the XLIFF has been parsed
+            Metrics.observe(Metrics.PACK_RECONSTRUCTION, originalFormat, success, System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * Reconstruct the original Okapi result pack from the embedded files
+     *
+     * The xliff is read in a single pass: the embedded files are decoded to disk while they are read, and the
+     * translated file elements are copied to the work xliff.
+     */
+    private void parsePack() {
 
         try (InputStream inputStream = new FileInputStream(xlf)) {
 
@@ -248,78 +229,276 @@ public class XliffProcessor {
                 FileUtils.cleanDirectory(packFolder);
             else
                 packFolder.mkdir();
+            File originalFolder = new File(packFolder.getPath() + File.separator + OkapiPack.ORIGINAL_DIRECTORY_NAME);
+            originalFolder.mkdir();
+            File manifestFile = new File(packFolder.getPath() + File.separator + OkapiPack.MANIFEST_FILENAME);
+
+            XMLStreamReader reader = XmlSerializer.createReader(inputStream);
+
+            // What the xliff contains besides the file elements of the original file and the manifest, until the
+            // manifest: it goes into the work xliff
+            StringWriter prolog = new StringWriter(), held = new StringWriter();
+            XmlSerializer prologSerializer = new XmlSerializer(prolog), heldSerializer = new XmlSerializer(held);
+            String rootName = null;
+            List<Map.Entry<String, String>> rootAttributes = null;
+
+            XliffHeader header = getHeader();
+            Map<String, String> manifestElement = null;
+            File originalFile = null;
+
+            while (manifestElement == null  &&  reader.hasNext()) {
+                reader.next();
 
-            // Parse the XML document
-            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            Document document = documentBuilder.parse(inputStream);
+                if (rootName == null) {
+                    if (reader.isStartElement()) {
+                        rootName = XmlSerializer.getName(reader.getName());
+                        rootAttributes = XmlSerializer.getAttributes(reader);
+                    } else {
+                        prologSerializer.copyEvent(reader);
+                    }
+                }
+
+                else if (XmlSerializer.isStartElement(reader, "file")) {
+                    Map<String, String> fileElement = getAttributes(reader);
+
+                    // Reconstruct the original file, described by the header: its name is in the manifest, that follows
+                    if (originalFile == null) {
+                        originalFile = new File(originalFolder.getPath() + File.separator + getFilename(header));
+                        decodeFileElement(reader, new FileOutputStream(originalFile));
+                    }
+
+                    // Reconstruct the manifest
+                    else {
+                        if (!fileElement.getOrDefault("original", "").equals(OkapiPack.MANIFEST_FILENAME))
+                            throw new RuntimeException("The xlf is corrupted: it does not contain a manifest");
+                        manifestElement = fileElement;
+                        reconstructManifest(reader, manifestElement, manifestFile);
+                    }
+                }
+
+                else if (reader.isEndElement()) {
+                    throw new RuntimeException("The xlf is corrupted: it does not contain a manifest");
+                }
+
+                // The held serializer is outside of the root, where it would drop the text
+                else if (reader.isCharacters()  ||  reader.isWhiteSpace()) {
+                    heldSerializer.writeCharacters(reader.getText());
+                }
 
-            NodeList fileElements = document.getElementsByTagName("file");
-            Element originalFileElement = (Element) fileElements.item(0);
-            Element manifestElement = (Element) fileElements.item(1);
+                else if (reader.isStartElement()) {
+                    copyElement(reader, heldSerializer);
+                }
 
-            // Reconstruct the manifest
-            String originalFilename = reconstructManifest(packFolder, manifestElement);
+                else {
+                    copyEvent(reader, heldSerializer);
+                }
+            }
 
-            checkProducerVersion(originalFileElement);
+            if (manifestElement == null)
+                throw new RuntimeException("The xlf is corrupted: it does not contain a manifest");
 
-            reconstructOriginalFile(packFolder, originalFileElement, originalFilename);
+            checkProducerVersion(header);
 
-            extractOriginalFormat(originalFileElement);
+            extractOriginalFormat(header);
 
-            // Extract the languages
-            this.sourceLanguage = new Locale(originalFileElement.getAttribute("source-language"));
-            this.targetLanguage = new Locale(originalFileElement.getAttribute("target-language"));
+            // Archives split into sub-documents are reconstructed entry by entry
+            String relativeInputPath = getRelativeInputPath(manifestFile);
+            if (isSplitArchive(header, relativeInputPath)) {
+                parseSplitArchive(reader, originalFile, manifestFile, relativeInputPath, rootName, rootAttributes);
+                return;
+            }
 
-            // Reconstruct the original xlf
-            reconstructOriginalXlf(packFolder, document, originalFileElement, manifestElement, originalFilename);
+            // Extract source filename from manifest
+            // Originally this class used to extract the original filename
+            // from the "original" attribute of the first <file> element in
+            // the XLIFF. Unfortunately some bugs in the encoding of the
+            // filename in the HTTP communication caused many XLIFFs to be
+            // created with corrupted text inside the "original" attribute.
+            // So the pack was reconstructed using the "original" attribute,
+            // but Okapi could not find the files because the filenames
+            // in the manifest were different. To solve this bug I ignore
+            // the "original" attribute and extract it directly from manifest.
+            // TODO: remove the "original" attribute and rethink class design
+            String originalFilename = relativeInputPath != null ? relativeInputPath : originalFile.getName();
+            if (!originalFilename.equals(originalFile.getName()))
+                Files.move(originalFile.toPath(), new File(originalFolder.getPath() + File.separator + originalFilename).toPath());
+
+            // Reconstruct the original xlf, made of the rest of the xliff
+            try (XmlSerializer serializer = createWorkXlf(packFolder, originalFilename)) {
+                prologSerializer.flush();
+                serializer.writeRaw(prolog.toString());
+                serializer.writeStartElement(rootName, rootAttributes);
+                heldSerializer.flush();
+                serializer.writeRaw(held.toString());
+                while (reader.hasNext()) {
+                    reader.next();
+                    copyEvent(reader, serializer);
+                }
+            }
 
             // Generate the pack (which will check the extracted files)
             this.pack = new OkapiPack(packFolder);
 
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (XMLStreamException | IOException e) {
             throw new RuntimeException("Exception extracting Okapi pack from MateCat xliff", e);
         }
 
     }
 
     /**
-     * Checks the tool-id attribute of the provided <file> element, extracts
+     * Check if the xlf has been built from an archive split into sub-documents, see ArchiveSplitter: in this case
+     * the manifest following the archive is the one of its first entry
+     * @param header Header of the xlf, the file element containing the original file
+     * @param relativeInputPath Path of the document referenced by the manifest following it
+     * @return True if it is a split archive
+     */
+    private static boolean isSplitArchive(XliffHeader header, String relativeInputPath) {
+        if (!header.getDatatype().equals("x-" + Format.ARCHIVE))
+            return false;
+        try {
+            return relativeInputPath != null  &&  Format.getFormat(relativeInputPath) != Format.ARCHIVE;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Reconstruct the packs of the entries of an archive split into sub-documents
+     *
+     * The archive is saved in the pack, and every manifest, followed by the work files of its entry, becomes the
+     * pack of the entry in the entries folder.
+     * @param reader Reader of the xliff, after the manifest of the first entry
+     * @param archive Archive, reconstructed in the pack
+     * @param firstManifest Manifest of the first entry, reconstructed in the pack
+     * @param firstRelativeInputPath Path of the first entry, in its manifest
+     * @param rootName Name of the root element of the xliff
+     * @param rootAttributes Attributes of the root element of the xliff
+     */
+    private void parseSplitArchive(XMLStreamReader reader, File archive, File firstManifest, String firstRelativeInputPath,
+                                   String rootName, List<Map.Entry<String, String>> rootAttributes) throws XMLStreamException, IOException {
+
+        List<String> entries = ArchiveSplitter.getEntries(archive);
+
+        // Output folder of the entries
+        File entriesFolder = new File(xlf.getParentFile().getPath() + File.separator + ArchiveSplitter.ENTRIES_DIRECTORY_NAME);
+        if (entriesFolder.exists())
+            FileUtils.cleanDirectory(entriesFolder);
+
+        // Every manifest is followed by the work files of its entry
+        List<OkapiPack> entryPacks = new ArrayList<>();
+        File entryPackFolder = createEntryPackFolder(entriesFolder, 0, entries.size());
+        Files.move(firstManifest.toPath(), new File(entryPackFolder, OkapiPack.MANIFEST_FILENAME).toPath());
+        XmlSerializer entryXlf = startEntry(archive, entries.get(0), entryPackFolder, firstRelativeInputPath, rootName, rootAttributes);
+
+        try {
+            int depth = 1;
+            while (reader.hasNext()  &&  depth > 0) {
+                reader.next();
+                if (reader.isEndElement())
+                    depth--;
+                else if (!reader.isStartElement())
+                    continue;
+
+                else if (!XmlSerializer.isStartElement(reader, "file"))
+                    depth++;
+
+                // The next entry
+                else if (getAttributes(reader).getOrDefault("original", "").equals(OkapiPack.MANIFEST_FILENAME)) {
+                    entryXlf.writeEndElement(rootName);
+                    entryXlf.close();
+                    entryPacks.add(new OkapiPack(entryPackFolder));
+
+                    entryPackFolder = createEntryPackFolder(entriesFolder, entryPacks.size(), entries.size());
+                    File manifest = new File(entryPackFolder, OkapiPack.MANIFEST_FILENAME);
+                    reconstructManifest(reader, getAttributes(reader), manifest);
+                    entryXlf = startEntry(archive, entries.get(entryPacks.size()), entryPackFolder,
+                            getRelativeInputPath(manifest), rootName, rootAttributes);
+                }
+
+                // The work xlf of the entry is made of its file elements only
+                else {
+                    copyElement(reader, entryXlf);
+                }
+            }
+            entryXlf.writeEndElement(rootName);
+        } finally {
+            entryXlf.close();
+        }
+        entryPacks.add(new OkapiPack(entryPackFolder));
+
+        if (entries.size() != entryPacks.size())
+            throw new RuntimeException("The xlf does not match the archive: "
+                    + entryPacks.size() + " sub-documents for " + entries.size() + " entries");
+
+        this.archive = archive;
+        this.entryPacks = entryPacks;
+
+    }
+
+
+    private static File createEntryPackFolder(File entriesFolder, int entry, int entries) {
+        if (entry >= entries)
+            throw new RuntimeException("The xlf does not match the archive: more sub-documents than the "
+                    + entries + " entries");
+        File entryPackFolder = new File(entriesFolder.getPath() + File.separator + entry + File.separator + OkapiPack.PACK_FILENAME);
+        entryPackFolder.mkdirs();
+        return entryPackFolder;
+    }
+
+
+    /**
+     * Start the pack of an entry of a split archive, once its manifest has been reconstructed
+     * @return Serializer of the work xlf of the entry, after the root start tag
+     */
+    private static XmlSerializer startEntry(File archive, String entry, File entryPackFolder, String entryFilename,
+                                            String rootName, List<Map.Entry<String, String>> rootAttributes) throws IOException {
+        if (entryFilename == null)
+            entryFilename = FilenameUtils.getName(entry);
+
+        // The original entry is read from the archive
+        ArchiveSplitter.extractEntry(archive, entry, new File(entryPackFolder.getPath() + File.separator
+                + OkapiPack.ORIGINAL_DIRECTORY_NAME + File.separator + entryFilename));
+
+        XmlSerializer serializer = createWorkXlf(entryPackFolder, entryFilename);
+        serializer.writeStartElement(rootName, rootAttributes);
+        return serializer;
+    }
+
+
+    /**
+     * Checks the tool-id attribute of the header, extracts
      * the XLIFF producer converter version and logs some warnings if the
      * producer version does not match the version of this server.
      */
-    private static void checkProducerVersion(Element file) {
-        final String toolId = file.getAttribute("tool-id");
-        if (toolId != null) {
-            final Matcher matcher = PRODUCER_CONVERTER_VERSION_PATTERN.matcher(toolId);
-            if (matcher.find()) {
-                final String xliffVersion = matcher.group(2);
-                if (xliffVersion == null) {
-                    LOGGER.warn("Missing producer version in input XLIFF");
+    private static void checkProducerVersion(XliffHeader header) {
+        if (header.isProducedByConverter()) {
+            final String xliffVersion = header.getProducerVersion();
+            if (xliffVersion == null) {
+                LOGGER.warn("Missing producer version in input XLIFF");
+            } else {
+                if (CONVERTER_VERSION == null) {
+                    LOGGER.warn("XLIFF producer version is " + xliffVersion + ", but server version is unknown (version available only when running from a jar)");
+                } else if (!xliffVersion.equals(CONVERTER_VERSION)) {
+                    LOGGER.warn("Converters versions mismatch: " + xliffVersion + " (XLIFF) vs " + CONVERTER_VERSION + " (server)");
                 } else {
-                    if (CONVERTER_VERSION == null) {
-                        LOGGER.warn("XLIFF producer version is " + xliffVersion + ", but server version is unknown (version available only when running from a jar)");
-                    } else if (!xliffVersion.equals(CONVERTER_VERSION)) {
-                        LOGGER.warn("Converters versions mismatch: " + xliffVersion + " (XLIFF) vs " + CONVERTER_VERSION + " (server)");
-                    } else {
-                        // In this last condition converters versions match,
-                        // so everything is perfect!
-                    }
+                    // In this last condition converters versions match,
+                    // so everything is perfect!
                 }
-            } else {
-                LOGGER.warn("Bad tool-id attribute");
             }
+        } else {
+            LOGGER.warn("Bad tool-id attribute");
         }
     }
 
 
     /**
      * Extract the original format from the embedded information
-     * @param fileElement XML element from the file
+     * @param header Header of the xlf
      */
-    private void extractOriginalFormat(Element fileElement) {
+    private void extractOriginalFormat(XliffHeader header) {
         try {
-            String filename = fileElement.getAttribute("original");
+            String filename = header.getOriginal();
             this.originalFormat = Format.getFormat(filename);
         }
         catch (Exception e1) {
@@ -330,18 +509,18 @@ public class XliffProcessor {
 
     /**
      * Get the original filename from the embedded information
-     * @param fileElement XML element from the file
+     * @param header Header of the xlf
      * @return Filename
      */
-    private String getFilename(Element fileElement) {
+    private static String getFilename(XliffHeader header) {
 
         // Filename
-        String filename = fileElement.getAttribute("original");
+        String filename = header.getOriginal();
 
         // Replace the extension of the file for the one it was converted to
         // Datatype structure is:  datatype="x-{FORMAT (after conversions)}"
         try {
-            String datatype = fileElement.getAttribute("datatype");
+            String datatype = header.getDatatype();
             String convertedExtension = datatype.substring(2);
             filename = FilenameUtils.getBaseName(filename) + "." + convertedExtension;
         }
@@ -354,63 +533,58 @@ public class XliffProcessor {
 
 
     /**
-     * Extract the original file and save it in the pack
-     * @param packFolder Pack's folder
-     * @param fileElement XML element containing the file
+     * Get the attributes of the element the reader is on
+     * @param reader Reader of the xliff, on a start element
+     * @return Attributes, by name
      */
-    private void reconstructOriginalFile(File packFolder, Element fileElement, String originalFilename) {
+    private static Map<String, String> getAttributes(XMLStreamReader reader) {
+        Map<String, String> attributes = new HashMap<>();
+        for (Map.Entry<String, String> attribute : XmlSerializer.getAttributes(reader))
+            attributes.put(attribute.getKey(), attribute.getValue());
+        return attributes;
+    }
 
-        try {
 
-            // Filename
-            if (originalFilename == null) {
-                originalFilename = getFilename(fileElement);
+    /**
+     * Decode the file embedded into a file element, streaming it
+     * @param reader Reader of the xliff, on the start of the file element; it is left on its end
+     * @param output Output of the decoded file, closed when done
+     */
+    private static void decodeFileElement(XMLStreamReader reader, OutputStream output) throws XMLStreamException, IOException {
+        try (OutputStream out = output) {
+            int depth = 1;
+            while (depth > 0) {
+                reader.next();
+                if (XmlSerializer.isStartElement(reader, "internal-file")) {
+                    TextInputStream text = new TextInputStream(reader);
+                    try (InputStream decoder = Base64.getMimeDecoder().wrap(text)) {
+                        IOUtils.copy(decoder, out);
+                    }
+                    // The decoder stops at the padding
+                    text.skipToEnd();
+                } else if (reader.isStartElement()) {
+                    depth++;
+                } else if (reader.isEndElement()) {
+                    depth--;
+                }
             }
-
-            // Contents
-            Element internalFileElement = (Element) fileElement.getElementsByTagName("internal-file").item(0);
-            String encodedFile = internalFileElement.getTextContent().trim();
-            byte[] originalFileBytes = Base64.getDecoder().decode(encodedFile);
-
-            // Create original folder
-            File originalFolder = new File(packFolder.getPath() + File.separator + OkapiPack.ORIGINAL_DIRECTORY_NAME);
-            if (originalFolder.exists())
-                FileUtils.cleanDirectory(originalFolder);
-            else
-                originalFolder.mkdir();
-
-            // Reconstruct the original file
-            File originalFile = new File(originalFolder.getPath() + File.separator + originalFilename);
-            originalFile.createNewFile();
-            FileUtils.writeByteArrayToFile(originalFile, originalFileBytes);
-
-        }
-        catch (Exception e) {
-            throw new RuntimeException("Exception extracting original file from MateCat xliff", e);
         }
     }
 
 
     /**
      * Reconstruct the manifest and save it in the pack
-     * @param packFolder Pack's folder
-     * @param manifestElement XML element containing the manifest
+     * @param reader Reader of the xliff, on the start of the file element containing the manifest
+     * @param manifestElement Attributes of the file element containing the manifest
+     * @param manifestFile Manifest file to write
      */
-    private String reconstructManifest(File packFolder, Element manifestElement) {
+    private static void reconstructManifest(XMLStreamReader reader, Map<String, String> manifestElement, File manifestFile) {
 
         try {
 
-            // Check that it's the manifest
-            if (!manifestElement.getAttribute("original").equals(OkapiPack.MANIFEST_FILENAME))
-                throw new RuntimeException("The xlf is corrupted: it does not contain a manifest");
-
             // Extract language
-            String targetLanguage = manifestElement.getAttribute("target-language");
+            String targetLanguage = manifestElement.getOrDefault("target-language", "");
 
-            // Manifest contents
-            Element internalFileElement = (Element) manifestElement.getElementsByTagName("internal-file").item(0);
-            String encodedManifest = internalFileElement.getTextContent().trim();
-            String manifest = new String(Base64.getDecoder().decode(encodedManifest), StandardCharsets.UTF_8);
             // MateCAT caches produced XLIFFs and reuses them to save
             // file conversions, updating just the source and target
             // languages when needed.
@@ -425,28 +599,8 @@ public class XliffProcessor {
             // identical to the original, without translations.
             // To fix this I replace the target in the manifest with
             // the one defined in the XLIFF.
-            manifest = manifest.replaceFirst("(<manifest [^>]* ?target=\")[^\"]+\"", "$1" + targetLanguage + "\"");
-
-            // Extract source filename from manifest
-            // Originally this class used to extract the original filename
-            // from the "original" attribute of the first <file> element in
-            // the XLIFF. Unfortunately some bugs in the encoding of the
-            // filename in the HTTP communication caused many XLIFFs to be
-            // created with corrupted text inside the "original" attribute.
-            // So the pack was reconstructed using the "original" attribute,
-            // but Okapi could not find the files because the filenames
-            // in the manifest were different. To solve this bug I ignore
-            // the "original" attribute and extract it directly from manifest.
-            // TODO: remove the "original" attribute and rethink class design
-            Matcher matcher = Pattern.compile(" relativeInputPath *= *\"(.+?)\"").matcher(manifest);
-            String originalFilename = (matcher.find() ? StringEscapeUtils.unescapeXml(matcher.group(1)) : null);
-
-            // Reconstruct the manifest file
-            File manifestFile = new File(packFolder.getPath() + File.separator + OkapiPack.MANIFEST_FILENAME);
-            manifestFile.createNewFile();
-            FileUtils.writeStringToFile(manifestFile, manifest, StandardCharsets.UTF_8);
+            decodeFileElement(reader, new ManifestTargetOutputStream(new FileOutputStream(manifestFile), targetLanguage));
 
-            return originalFilename;
         }
         catch (Exception e) {
             throw new RuntimeException("Exception extracting Okapi manifest from MateCat xliff", e);
@@ -455,74 +609,224 @@ public class XliffProcessor {
 
 
     /**
-     * Reconstruct the original XLF used to derive this XLF; and save it into the work folder
-     * inside the pack
-     *
-     * This is done by simply removing the file and manifest XML elements.
+     * Get the path of the document referenced by a manifest
+     * @param manifest Manifest file
+     * @return Relative input path of the first document, null if not found
+     */
+    private static String getRelativeInputPath(File manifest) throws IOException {
+        try (Scanner scanner = new Scanner(manifest, StandardCharsets.UTF_8.name())) {
+            String match = scanner.findWithinHorizon(RELATIVE_INPUT_PATH_PATTERN, 0);
+            return match != null ? StringEscapeUtils.unescapeXml(scanner.match().group(1)) : null;
+        }
+    }
+
+
+    /**
+     * Create the work xliff of a pack, the Okapi XLF the xliff was derived from
      * @param packFolder Pack's folder
-     * @param document XML document
-     * @param fileElement XML element containing the file
-     * @param manifestElement XML element containing the manifest
+     * @param originalFilename Filename of the original file
+     * @return Serializer of the work xliff, after the XML declaration
      */
-    private void reconstructOriginalXlf(File packFolder, Document document, Element fileElement, Element manifestElement, String originalFilename) {
+    private static XmlSerializer createWorkXlf(File packFolder, String originalFilename) throws IOException {
+
+        // Create work folder
+        File workFolder = new File(packFolder.getPath() + File.separator + OkapiPack.WORK_DIRECTORY_NAME);
+        if (workFolder.exists())
+            FileUtils.cleanDirectory(workFolder);
+        else
+            workFolder.mkdir();
+
+        String xlfOutputPath = workFolder.getPath() + File.separator + originalFilename + ".xlf";
+        XmlSerializer serializer = new XmlSerializer(new FileOutputStream(xlfOutputPath));
+        serializer.writeRaw("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        return serializer;
+    }
 
-        try {
 
-            // Get root
-            Element root = document.getDocumentElement();
+    /**
+     * Copy the current event of a reader, removing the leading underscore added to all the <ex> ids by the
+     * XliffBuilder (see the comment there for more background)
+     * @param reader Reader of the xliff
+     * @param serializer Serializer of the work xliff
+     */
+    private static void copyEvent(XMLStreamReader reader, XmlSerializer serializer) throws IOException {
+        if (!XmlSerializer.isStartElement(reader, "ex")) {
+            serializer.copyEvent(reader);
+            return;
+        }
+        List<Map.Entry<String, String>> attributes = XmlSerializer.getAttributes(reader);
+        for (Map.Entry<String, String> attribute : attributes)
+            if (attribute.getKey().equals("id")  &&  attribute.getValue().startsWith("_"))
+                attribute.setValue(attribute.getValue().substring(1));
+        serializer.writeStartElement("ex", attributes);
+    }
+
+
+    /**
+     * Copy the element starting at the current event of a reader, with the <ex> ids restored
+     * @param reader Reader of the xliff, on a start element; it is left on its end element
+     * @param serializer Serializer of the work xliff
+     */
+    private static void copyElement(XMLStreamReader reader, XmlSerializer serializer) throws XMLStreamException, IOException {
+        int depth = 0;
+        while (true) {
+            if (reader.isStartElement())
+                depth++;
+            else if (reader.isEndElement())
+                depth--;
+            copyEvent(reader, serializer);
+            if (depth == 0)
+                return;
+            reader.next();
+        }
+    }
+
+
+    /**
+     * Stream reading the text of the element a reader is on, until its end: the base64 contents of an
+     * internal-file element, read without holding them all
+     */
+    private static class TextInputStream extends InputStream {
 
-            // Filename
-            if (originalFilename == null) {
-                originalFilename = getFilename(fileElement);
+        private final XMLStreamReader reader;
+        private final char[] buffer = new char[8192];
+        private int position = 0, length = 0;
+        private int textOffset = 0;
+        private boolean ended = false;
+
+        TextInputStream(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int count) throws IOException {
+            if (count == 0)
+                return 0;
+            if (position == length  &&  !fill())
+                return -1;
+            int read = Math.min(count, length - position);
+            for (int i = 0; i < read; i++) {
+                char c = buffer[position++];
+                // Base64 is ASCII: anything else is ignored by the decoder, like the line breaks
+                bytes[offset + i] = c < 128 ? (byte) c : (byte) ' ';
             }
+            return read;
+        }
 
-            // Obtain the original xlf
-            root.removeChild(fileElement);
-            root.removeChild(manifestElement);
-
-            // Remove the leading underscore added to all the <ex> ids by the
-            // XliffBuilder (see the comment there for more background)
-            NodeList exElements = document.getElementsByTagName("ex");
-            for (int i = 0; i < exElements.getLength(); i++) {
-                Element exElement = (Element) exElements.item(i);
-                if (exElement.getAttribute("id").startsWith("_")) {
-                    exElement.setAttribute("id", exElement.getAttribute("id").substring(1));
+        /**
+         * Skip the rest of the text, leaving the reader on the end of the element
+         */
+        void skipToEnd() throws IOException {
+            while (fill())
+                position = length;
+        }
+
+        private boolean fill() throws IOException {
+            try {
+                while (!ended) {
+                    if (reader.isCharacters()  ||  reader.getEventType() == XMLStreamConstants.CDATA
+                            ||  reader.getEventType() == XMLStreamConstants.SPACE) {
+                        int count = reader.getTextCharacters(textOffset, buffer, 0, buffer.length);
+                        if (count > 0) {
+                            textOffset += count;
+                            position = 0;
+                            length = count;
+                            return true;
+                        }
+                    }
+                    reader.next();
+                    textOffset = 0;
+                    if (reader.isEndElement())
+                        ended = true;
+                    else if (reader.isStartElement())
+                        throw new IOException("Unexpected element in the embedded file: " + reader.getLocalName());
                 }
+                return false;
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
             }
+        }
 
-            // Create work folder
-            File workFolder = new File(packFolder.getPath() + File.separator + OkapiPack.WORK_DIRECTORY_NAME);
-            if (workFolder.exists())
-                FileUtils.cleanDirectory(workFolder);
-            else
-                workFolder.mkdir();
-
-            // Save the file
-
-            String xlfOutputPath = workFolder.getPath() + File.separator + originalFilename + ".xlf";
-
-            // The Java Transformer doesn't update the XML prolog with the
-            // output encoding.
-            // For example, if you read a UTF-16 XML and rewrite it as UTF-8,
-            // the Transformer still writes the prolog with "encoding=UTF-16",
-            // messing up the file.
-            // Since our output encoding will always be UTF-8 (because we use
-            // FileOutputStream, that uses the default Java charset, that we
-            // ensured is UTF-8 in the Main class) I tell Transformer to not
-            // write the prolog and I write it myself in the correct way.
-            try (OutputStream outputStream = new FileOutputStream(xlfOutputPath)) {
-                outputStream.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes());
-                StreamResult streamResult = new StreamResult(outputStream);
-
-                Transformer transformer = TransformerFactory.newInstance().newTransformer();
-                transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-                DOMSource domSource = new DOMSource(document);
-                transformer.transform(domSource, streamResult);
+    }
+
+
+    /**
+     * Stream writing a manifest with its target language replaced: the start tag of the manifest element is held
+     * until complete, then patched
+     */
+    static class ManifestTargetOutputStream extends FilterOutputStream {
+
+        // The manifest start tag comes first, any longer prefix is written as it is
+        private static final int MAX_HEAD_SIZE = 64 * 1024;
+        private static final byte[] MANIFEST_START = "<manifest ".getBytes(StandardCharsets.US_ASCII);
+        private static final Pattern MANIFEST_TARGET_PATTERN = Pattern.compile("(<manifest [^>]* ?target=\")[^\"]+\"");
+
+        private final String targetLanguage;
+        private ByteArrayOutputStream head = new ByteArrayOutputStream();
+
+        ManifestTargetOutputStream(OutputStream out, String targetLanguage) {
+            super(out);
+            this.targetLanguage = targetLanguage;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (head == null) {
+                out.write(bytes, offset, length);
+                return;
+            }
+            head.write(bytes, offset, length);
+
+            // Searched on the bytes: a chunk can end in the middle of a character
+            byte[] contents = head.toByteArray();
+            int start = indexOf(contents, MANIFEST_START, 0);
+            int end = start < 0 ? -1 : indexOf(contents, new byte[]{'>'}, start);
+            if (end >= 0) {
+                // Only the complete start tag is decoded and patched, the rest is written untouched
+                String startTag = new String(contents, 0, end + 1, StandardCharsets.UTF_8);
+                startTag = MANIFEST_TARGET_PATTERN.matcher(startTag).replaceFirst("$1" + Matcher.quoteReplacement(targetLanguage) + "\"");
+                out.write(startTag.getBytes(StandardCharsets.UTF_8));
+                out.write(contents, end + 1, contents.length - end - 1);
+                head = null;
+            } else if (contents.length > MAX_HEAD_SIZE) {
+                writeHead();
             }
+        }
 
-        } catch (TransformerException | IOException e) {
-            e.printStackTrace();
+        @Override
+        public void close() throws IOException {
+            if (head != null)
+                writeHead();
+            super.close();
         }
+
+        private void writeHead() throws IOException {
+            head.writeTo(out);
+            head = null;
+        }
+
+        private static int indexOf(byte[] contents, byte[] searched, int from) {
+            for (int i = from; i <= contents.length - searched.length; i++) {
+                int j = 0;
+                while (j < searched.length && contents[i + j] == searched[j])
+                    j++;
+                if (j == searched.length)
+                    return i;
+            }
+            return -1;
+        }
+
     }
 
-}
\ No newline at end of file
+}
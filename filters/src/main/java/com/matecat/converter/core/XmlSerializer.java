@@ -0,0 +1,392 @@
+package com.matecat.converter.core;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Streaming XML serializer
+ *
+ * Writes XML documents the same way, byte by byte, as the identity Transformer of the JDK serializes a DOM parsed by
+ * the default DocumentBuilder: the XLIFFs used to be generated that way, and the streaming ones must not differ.
+ * This means:
+ * - the declaration is always in UTF-8, standalone="no" unless the document was declared standalone, with no
+ *   line break after it;
+ * - the doctype and the whitespace outside the root element are dropped;
+ * - the namespace declarations come first, then the other attributes, both sorted by name;
+ * - elements without children are written as empty elements;
+ * - besides the markup characters, the carriage returns, the C1 controls and the supplementary characters are
+ *   written as character references in the text, and the whitespaces other than the space are written as
+ *   character references in the attributes.
+ *
+ * The documents are read without namespace awareness, like the DOM was.
+ */
+class XmlSerializer implements Closeable {
+
+    // Factory of the readers
+    private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+    private static final XMLInputFactory INPUT_FACTORY;
+    static {
+        INPUT_FACTORY = XMLInputFactory.newInstance();
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // Without this, the JDK reader reports the CDATA sections as text
+        if (INPUT_FACTORY.isPropertySupported(REPORT_CDATA))
+            INPUT_FACTORY.setProperty(REPORT_CDATA, true);
+    }
+
+    // Size of the buffers used to encode the files
+    private static final int BUFFER_SIZE = 24 * 1024;
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    private final Writer writer;
+    private int depth = 0;
+    private boolean startTagOpen = false;
+
+
+    /**
+     * Constructor
+     * @param output Output of the document; it is closed with the serializer
+     */
+    XmlSerializer(OutputStream output) {
+        this(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+    }
+
+
+    /**
+     * Constructor
+     * @param writer Output of the document; it is closed with the serializer
+     */
+    XmlSerializer(Writer writer) {
+        this.writer = writer;
+    }
+
+
+    /**
+     * Create a reader of a document, with the same settings used by the serializer
+     * @param input Document
+     * @return Reader
+     * @throws XMLStreamException If the document can't be read
+     */
+    static XMLStreamReader createReader(InputStream input) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(input);
+    }
+
+
+    /**
+     * Write the XML declaration
+     * @param standalone True if the document was declared standalone
+     */
+    void writeDeclaration(boolean standalone) throws IOException {
+        writer.write(standalone
+                ? "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                : "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>");
+    }
+
+
+    /**
+     * Write a start tag; it is closed by the next content, or it becomes an empty element
+     * @param name Qualified name
+     * @param attributes Attributes, as name and value
+     */
+    void writeStartElement(String name, List<Map.Entry<String, String>> attributes) throws IOException {
+        closeStartTag();
+        writer.write('<');
+        writer.write(name);
+        List<Map.Entry<String, String>> sorted = new ArrayList<>(attributes);
+        sorted.sort((a, b) -> {
+            boolean aNamespace = isNamespaceDeclaration(a.getKey()), bNamespace = isNamespaceDeclaration(b.getKey());
+            if (aNamespace != bNamespace)
+                return aNamespace ? -1 : 1;
+            return a.getKey().compareTo(b.getKey());
+        });
+        for (Map.Entry<String, String> attribute : sorted) {
+            writer.write(' ');
+            writer.write(attribute.getKey());
+            writer.write("=\"");
+            writeEscaped(attribute.getValue(), true);
+            writer.write('"');
+        }
+        startTagOpen = true;
+        depth++;
+    }
+
+
+    /**
+     * Write an end tag
+     * @param name Qualified name
+     */
+    void writeEndElement(String name) throws IOException {
+        depth--;
+        if (startTagOpen) {
+            writer.write("/>");
+            startTagOpen = false;
+            return;
+        }
+        writer.write("</");
+        writer.write(name);
+        writer.write('>');
+    }
+
+
+    /**
+     * Write text, escaped
+     */
+    void writeCharacters(String text) throws IOException {
+        if (text.isEmpty())
+            return;
+        closeStartTag();
+        writeEscaped(text, false);
+    }
+
+
+    /**
+     * Write markup or text already escaped
+     */
+    void writeRaw(String text) throws IOException {
+        if (text.isEmpty())
+            return;
+        closeStartTag();
+        writer.write(text);
+    }
+
+
+    /**
+     * Write the contents of a file encoded in base64, streaming them
+     * @param input Contents to encode
+     * @param lineLength Length of the lines, rounded down to a multiple of 4; 0 to write a single line
+     */
+    void writeBase64(ReadableByteChannel input, int lineLength) throws IOException {
+        closeStartTag();
+        Base64.Encoder encoder = lineLength >= 4 ? Base64.getMimeEncoder(lineLength, LINE_SEPARATOR) : Base64.getEncoder();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (OutputStream encoded = encoder.wrap(new CharactersOutputStream())) {
+            while (input.read(buffer) >= 0) {
+                encoded.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+    }
+
+
+    /**
+     * Copy the current event of a reader
+     * @param reader Reader of a document, created by createReader
+     */
+    void copyEvent(XMLStreamReader reader) throws IOException {
+        switch (reader.getEventType()) {
+            case XMLStreamConstants.START_DOCUMENT:
+                writeDeclaration(reader.standaloneSet() && reader.isStandalone());
+                break;
+            case XMLStreamConstants.START_ELEMENT:
+                writeStartElement(getName(reader.getName()), getAttributes(reader));
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                writeEndElement(getName(reader.getName()));
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+                // The whitespace outside the root element is not part of the document
+                if (depth > 0)
+                    writeCharacters(reader.getText());
+                break;
+            case XMLStreamConstants.CDATA:
+                if (reader.getTextLength() > 0) {
+                    closeStartTag();
+                    writer.write("<![CDATA[");
+                    // A CDATA section can't contain its own end, which is split in two sections
+                    writer.write(reader.getText().replace("]]>", "]]]]><![CDATA[>"));
+                    writer.write("]]>");
+                }
+                break;
+            case XMLStreamConstants.COMMENT:
+                closeStartTag();
+                writer.write("<!--");
+                writer.write(reader.getText());
+                writer.write("-->");
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                closeStartTag();
+                writer.write("<?");
+                writer.write(reader.getPITarget());
+                String data = reader.getPIData();
+                if (data != null && !data.isEmpty()) {
+                    writer.write(' ');
+                    writer.write(data);
+                }
+                writer.write("?>");
+                break;
+            default:
+                // The doctype is dropped, and the entities are already replaced
+                break;
+        }
+    }
+
+
+    /**
+     * Get the attributes of the current start element of a reader
+     * @param reader Reader, on a start element
+     * @return Attributes, as name and value, in the order of the document
+     */
+    static List<Map.Entry<String, String>> getAttributes(XMLStreamReader reader) {
+        List<Map.Entry<String, String>> attributes = new ArrayList<>(reader.getAttributeCount());
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+            attributes.add(new AbstractMap.SimpleEntry<>(getName(reader.getAttributeName(i)), reader.getAttributeValue(i)));
+        return attributes;
+    }
+
+
+    /**
+     * Check if a reader is on the start of an element
+     * @param reader Reader
+     * @param name Qualified name of the element
+     * @return True if the current event is the start of the element
+     */
+    static boolean isStartElement(XMLStreamReader reader, String name) {
+        return reader.isStartElement()  &&  getName(reader.getName()).equals(name);
+    }
+
+
+    /**
+     * Get the qualified name of an element or of an attribute
+     * @param name Name, as given by a reader
+     * @return Name, with its prefix
+     */
+    static String getName(QName name) {
+        return name.getPrefix() == null || name.getPrefix().isEmpty() ? name.getLocalPart() : name.getPrefix() + ":" + name.getLocalPart();
+    }
+
+
+    /**
+     * Get the depth of the element being written
+     * @return 0 outside the root element, 1 inside it, and so on
+     */
+    int getDepth() {
+        return depth;
+    }
+
+
+    void flush() throws IOException {
+        closeStartTag();
+        writer.flush();
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        writer.close();
+    }
+
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            writer.write('>');
+            startTagOpen = false;
+        }
+    }
+
+
+    private static boolean isNamespaceDeclaration(String name) {
+        return name.equals("xmlns") || name.startsWith("xmlns:");
+    }
+
+
+    private void writeEscaped(String text, boolean attribute) throws IOException {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            int codePoint = text.codePointAt(i);
+            String reference = getReference(codePoint, attribute);
+            if (reference == null)
+                continue;
+            writer.write(text, start, i - start);
+            writer.write(reference);
+            i += Character.charCount(codePoint) - 1;
+            start = i + 1;
+        }
+        writer.write(text, start, length - start);
+    }
+
+
+    /**
+     * Get the reference replacing a character
+     * @param codePoint Character
+     * @param attribute True in the attribute values
+     * @return Entity or character reference, null if the character is written as it is
+     */
+    private static String getReference(int codePoint, boolean attribute) {
+        switch (codePoint) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return attribute ? "&quot;" : null;
+            case '\r':
+                return "&#13;";
+            case '\t':
+            case '\n':
+                return attribute ? "&#" + codePoint + ";" : null;
+            default:
+                if (Character.isSupplementaryCodePoint(codePoint) || (!attribute && codePoint >= 0x7F && codePoint <= 0x9F))
+                    return "&#" + codePoint + ";";
+                return null;
+        }
+    }
+
+
+
+    /**
+     * Stream writing the ASCII output of the base64 encoder as characters
+     */
+    private class CharactersOutputStream extends OutputStream {
+
+        private final char[] chars = new char[BUFFER_SIZE];
+
+        @Override
+        public void write(int b) throws IOException {
+            writer.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                int count = Math.min(length, chars.length);
+                for (int i = 0; i < count; i++)
+                    chars[i] = (char) bytes[offset + i];
+                writer.write(chars, 0, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public void close() {
+            // The writer is closed with the serializer
+        }
+
+    }
+
+}
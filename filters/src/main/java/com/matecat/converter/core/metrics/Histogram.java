@@ -0,0 +1,69 @@
+package com.matecat.converter.core.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Histogram of durations, with fixed buckets
+ *
+ * Observations are recorded without locking, so the histogram can be updated by all the conversions running at
+ * the same time. Buckets are stored non-cumulative, and made cumulative when read.
+ */
+public class Histogram {
+
+    // Upper bounds of the buckets, in seconds
+    static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120};
+
+    private final LongAdder[] counts;
+    private final DoubleAdder sum = new DoubleAdder();
+
+
+    /**
+     * Create an empty histogram
+     */
+    Histogram() {
+        // The last one counts the observations above the greatest bucket
+        counts = new LongAdder[BUCKETS.length + 1];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = new LongAdder();
+    }
+
+
+    /**
+     * Record an observation
+     * @param seconds Observed duration, in seconds
+     */
+    void observe(double seconds) {
+        int bucket = 0;
+        while (bucket < BUCKETS.length && seconds > BUCKETS[bucket])
+            bucket++;
+        counts[bucket].increment();
+        sum.add(seconds);
+    }
+
+
+    /**
+     * Get the cumulative counts of the buckets
+     * @return Observations less or equal than each bucket, the last one being the total count
+     */
+    long[] getCumulativeCounts() {
+        long[] cumulative = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+
+    /**
+     * Get the sum of the observations
+     * @return Sum, in seconds
+     */
+    double getSum() {
+        return sum.sum();
+    }
+
+}
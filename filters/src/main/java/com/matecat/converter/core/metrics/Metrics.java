@@ -0,0 +1,216 @@
+package com.matecat.converter.core.metrics;
+
+import com.matecat.converter.core.Format;
+import org.apache.commons.io.FilenameUtils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Metrics of the conversions, exported in the Prometheus text format
+ *
+ * The duration of every stage of a conversion is recorded in a histogram, labelled by stage, format of the
+ * document and outcome. Counters track the bytes received and sent, and the conversions in progress.
+ */
+public class Metrics {
+
+    // Stages of the conversions
+    public static final String INGESTION = "ingestion";
+    public static final String ENCODING_DETECTION = "encoding_detection";
+    public static final String WIN_CONVERSION = "win_conversion";
+    public static final String PACK_GENERATION = "pack_generation";
+    public static final String XLIFF_BUILD = "xliff_build";
+    public static final String PACK_RECONSTRUCTION = "pack_reconstruction";
+    public static final String DERIVED_FILE_GENERATION = "derived_file_generation";
+    public static final String SERIALIZATION = "serialization";
+
+    // Outcomes
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    // Label of the documents whose format is unknown
+    private static final String UNKNOWN_FORMAT = "unknown";
+
+    // Metric names
+    private static final String STAGE_DURATION = "matecat_stage_duration_seconds";
+    private static final String INGESTED_BYTES = "matecat_ingested_bytes_total";
+    private static final String SERVED_BYTES = "matecat_served_bytes_total";
+    private static final String ACTIVE_CONVERSIONS = "matecat_active_conversions";
+
+    // Histograms, by labels
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    // Counters
+    private static final LongAdder ingestedBytes = new LongAdder();
+    private static final LongAdder servedBytes = new LongAdder();
+    private static final AtomicInteger activeConversions = new AtomicInteger();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private Metrics() {}
+
+
+    /**
+     * Run a stage, recording its duration and outcome
+     * @param stage Stage name
+     * @param format Format of the processed document, null if unknown
+     * @param task Stage to run
+     * @return Result of the stage
+     * @throws E Error of the stage, recorded with the error outcome
+     */
+    public static <T, E extends Exception> T time(String stage, Format format, Task<T, E> task) throws E {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = task.run();
+            success = true;
+            return result;
+        } finally {
+            observe(stage, format, success, System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * Record the duration of a stage
+     * @param stage Stage name
+     * @param format Format of the processed document, null if unknown
+     * @param success Outcome of the stage
+     * @param nanos Duration, in nanoseconds
+     */
+    public static void observe(String stage, Format format, boolean success, long nanos) {
+        String labels = "stage=\"" + stage + "\",format=\"" + (format == null ? UNKNOWN_FORMAT : format.toString())
+                + "\",outcome=\"" + (success ? SUCCESS : ERROR) + "\"";
+        HISTOGRAMS.computeIfAbsent(labels, key -> new Histogram()).observe(nanos / 1e9);
+    }
+
+
+    /**
+     * Get the format of a document from its name, without failing on unsupported extensions
+     *
+     * The XLIFF files produced by the extraction are named after their original document (like "file.docx.xlf"),
+     * so the format of the original document is returned for them.
+     * @param filename Filename
+     * @return Format, or null if unknown
+     */
+    public static Format getFormat(String filename) {
+        String baseName = FilenameUtils.removeExtension(filename);
+        if (Format.XLF.toString().equalsIgnoreCase(FilenameUtils.getExtension(filename))
+                && !FilenameUtils.getExtension(baseName).isEmpty())
+            filename = baseName;
+        try {
+            return Format.getFormat(filename);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Count the bytes of a document received by the server
+     */
+    public static void addIngestedBytes(long bytes) {
+        ingestedBytes.add(bytes);
+    }
+
+
+    /**
+     * Count the bytes of a response sent by the server
+     */
+    public static void addServedBytes(long bytes) {
+        servedBytes.add(bytes);
+    }
+
+
+    /**
+     * Track the start of a conversion; conversionFinished must be invoked once it's over
+     */
+    public static void conversionStarted() {
+        activeConversions.incrementAndGet();
+    }
+
+
+    /**
+     * Track the end of a conversion
+     */
+    public static void conversionFinished() {
+        activeConversions.decrementAndGet();
+    }
+
+
+    /**
+     * Get the number of conversions in progress
+     */
+    public static int getActiveConversions() {
+        return activeConversions.get();
+    }
+
+
+    /**
+     * Write the metrics in the Prometheus text format
+     * @param out Output
+     */
+    public static void write(StringBuilder out) {
+        writeHeader(out, STAGE_DURATION, "histogram", "Duration of the stages of the conversions");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(HISTOGRAMS).entrySet()) {
+            String labels = entry.getKey();
+            Histogram histogram = entry.getValue();
+            long[] counts = histogram.getCumulativeCounts();
+            for (int i = 0; i < Histogram.BUCKETS.length; i++)
+                writeSample(out, STAGE_DURATION + "_bucket", labels + ",le=\"" + Histogram.BUCKETS[i] + "\"", counts[i]);
+            writeSample(out, STAGE_DURATION + "_bucket", labels + ",le=\"+Inf\"", counts[counts.length - 1]);
+            writeSample(out, STAGE_DURATION + "_sum", labels, histogram.getSum());
+            writeSample(out, STAGE_DURATION + "_count", labels, counts[counts.length - 1]);
+        }
+        writeHeader(out, INGESTED_BYTES, "counter", "Bytes of the documents received");
+        writeSample(out, INGESTED_BYTES, null, ingestedBytes.sum());
+        writeHeader(out, SERVED_BYTES, "counter", "Bytes of the documents sent");
+        writeSample(out, SERVED_BYTES, null, servedBytes.sum());
+        writeHeader(out, ACTIVE_CONVERSIONS, "gauge", "Conversions in progress");
+        writeSample(out, ACTIVE_CONVERSIONS, null, activeConversions.get());
+    }
+
+
+    /**
+     * Write the HELP and TYPE lines of a metric
+     * @param out Output
+     * @param name Metric name
+     * @param type Metric type (counter, gauge, histogram)
+     * @param help Description
+     */
+    public static void writeHeader(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+
+    /**
+     * Write a sample of a metric
+     * @param out Output
+     * @param name Metric name
+     * @param labels Labels, formatted as 'name="value",...', or null
+     * @param value Value
+     */
+    public static void writeSample(StringBuilder out, String name, String labels, Number value) {
+        out.append(name);
+        if (labels != null && !labels.isEmpty())
+            out.append('{').append(labels).append('}');
+        out.append(' ').append(value).append('\n');
+    }
+
+
+    /**
+     * Stage of a conversion, possibly throwing a checked exception
+     */
+    @FunctionalInterface
+    public interface Task<T, E extends Exception> {
+        T run() throws E;
+    }
+
+}
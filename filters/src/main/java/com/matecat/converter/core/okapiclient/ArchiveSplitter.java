@@ -0,0 +1,248 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.encoding.Encoding;
+import com.matecat.converter.core.encoding.EncodingDetectorRouter;
+import com.matecat.converter.core.util.Config;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+
+/**
+ * Splitter of the archives into independent sub-documents
+ *
+ * The Okapi ArchiveFilter extracts all the entries of an archive one after the other, in a single pipeline.
+ * Instead, every translatable entry can be extracted on its own, with the filter of its format: the entries
+ * are processed concurrently on a fork-join pool, each one generating its own pack.
+ * The XLIFF built from them contains the original archive, then the manifest and the work files of every entry,
+ * in the order of the archive (see XliffBuilder.buildFromArchivePacks); it is merged back the same way, entry
+ * by entry, replacing the merged entries in a copy of the original archive.
+ *
+ * The translatable entries are the ones matched by the default file names of the ArchiveFilter. An archive
+ * can be split only if the format of all of them is supported, otherwise the ArchiveFilter is used.
+ */
+public class ArchiveSplitter {
+
+    // Folder where the entries are extracted, next to the archive
+    public static final String ENTRIES_DIRECTORY_NAME = "entries";
+
+    // Patterns of the translatable entries
+    private static final String[] ENTRY_PATTERNS =
+            new net.sf.okapi.filters.archive.Parameters().getFileNames().split(",");
+
+    // Pool running the extractions and the merges of the entries
+    private static final ForkJoinPool POOL = new ForkJoinPool(Config.archiveExtractionThreads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+        private final AtomicInteger counter = new AtomicInteger();
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("archive-worker-" + counter.incrementAndGet());
+            return thread;
+        }
+    }, null, false);
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private ArchiveSplitter() {}
+
+
+    /**
+     * Check if a file is an archive that can be split into sub-documents
+     * @param file File
+     * @return True if it is a readable archive, whose translatable entries are all supported
+     */
+    public static boolean isSplittable(File file) {
+        try {
+            if (Format.getFormat(file) != Format.ARCHIVE)
+                return false;
+            List<String> entries = getEntries(file);
+            if (entries.isEmpty())
+                return false;
+            for (String entry : entries)
+                if (!OkapiClient.isSupported(Format.getFormat(entry)))
+                    return false;
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Get the translatable entries of an archive
+     * @param archive Archive
+     * @return Names of the entries, in the order of the archive
+     * @throws IOException If the archive can't be read
+     */
+    public static List<String> getEntries(File archive) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(archive)) {
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
+                if (!zipEntry.isDirectory() && isTranslatable(zipEntry.getName()))
+                    entries.add(zipEntry.getName());
+            }
+        }
+        return entries;
+    }
+
+
+    private static boolean isTranslatable(String entryName) {
+        for (String pattern : ENTRY_PATTERNS)
+            if (FilenameUtils.wildcardMatch(entryName, pattern.trim(), IOCase.INSENSITIVE))
+                return true;
+        return false;
+    }
+
+
+    /**
+     * Generate the packs of the translatable entries of an archive, extracting them concurrently
+     *
+     * Every entry is extracted in its own folder, with its encoding detected and the filter of its format.
+     *
+     * @param sourceLanguage Source language
+     * @param targetLanguage Target language
+     * @param archive Archive
+     * @param segmentation Custom segmentation, if any
+     * @param segmentBilingual Whether bilingual entries are segmented
+     * @return Packs, in the order of the entries
+     */
+    public static List<OkapiPack> generatePacks(Locale sourceLanguage, Locale targetLanguage, File archive, String segmentation, Boolean segmentBilingual) {
+        List<File> files = extractEntries(archive, new File(archive.getParentFile(), ENTRIES_DIRECTORY_NAME));
+        return runAll(files.size(), i -> {
+            File file = files.get(i);
+            Encoding encoding = new EncodingDetectorRouter().detect(file);
+            return OkapiClient.generatePack(sourceLanguage, targetLanguage, encoding, file, segmentation, null, segmentBilingual);
+        });
+    }
+
+
+    /**
+     * Generate the derived archive, merging the packs of the entries concurrently
+     * @param archive Original archive
+     * @param packs Packs of the translatable entries, in the order of the entries
+     * @param output Derived archive
+     * @return Derived archive: a copy of the original one, with the translatable entries merged
+     */
+    public static File generateDerivedFile(File archive, List<OkapiPack> packs, File output) {
+        List<File> derivedFiles = runAll(packs.size(), i -> OkapiClient.generateDerivedFile(packs.get(i)));
+
+        try (ZipFile zipFile = new ZipFile(archive);
+             ZipOutputStream zipOutput = new ZipOutputStream(new BufferedOutputStream(FileUtils.openOutputStream(output)))) {
+            List<String> entries = getEntries(archive);
+            if (entries.size() != derivedFiles.size())
+                throw new RuntimeException("The xlf does not match the archive: "
+                        + derivedFiles.size() + " sub-documents for " + entries.size() + " entries");
+
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
+                zipOutput.putNextEntry(new ZipEntry(zipEntry.getName()));
+                int index = entries.indexOf(zipEntry.getName());
+                try (InputStream input = index >= 0
+                        ? new FileInputStream(derivedFiles.get(index)) : zipFile.getInputStream(zipEntry)) {
+                    IOUtils.copy(input, zipOutput);
+                }
+                zipOutput.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Exception generating the derived archive of " + archive.getName(), e);
+        }
+        return output;
+    }
+
+
+    /**
+     * Extract the contents of an entry
+     * @param archive Archive
+     * @param entryName Name of the entry
+     * @param output File to write
+     * @throws IOException If the archive can't be read or the file written
+     */
+    public static void extractEntry(File archive, String entryName, File output) throws IOException {
+        try (ZipFile zipFile = new ZipFile(archive)) {
+            ZipEntry zipEntry = zipFile.getEntry(entryName);
+            if (zipEntry == null)
+                throw new IOException("Entry " + entryName + " not found in " + archive.getName());
+            try (InputStream input = zipFile.getInputStream(zipEntry);
+                 OutputStream fileOutput = FileUtils.openOutputStream(output)) {
+                IOUtils.copy(input, fileOutput);
+            }
+        }
+    }
+
+
+    /**
+     * Extract the translatable entries, each one in its own numbered folder, so that their packs don't overlap
+     * @return Extracted files, in the order of the entries
+     */
+    private static List<File> extractEntries(File archive, File folder) {
+        try {
+            if (folder.exists())
+                FileUtils.cleanDirectory(folder);
+            List<File> files = new ArrayList<>();
+            List<String> entries = getEntries(archive);
+            for (int i = 0; i < entries.size(); i++) {
+                File file = new File(folder, i + File.separator + FilenameUtils.getName(entries.get(i)));
+                extractEntry(archive, entries.get(i), file);
+                files.add(file);
+            }
+            return files;
+        } catch (IOException e) {
+            throw new RuntimeException("Exception extracting the entries of " + archive.getName(), e);
+        }
+    }
+
+
+    /**
+     * Run the tasks on the pool, waiting for all of them
+     * @return Results, in the order of the tasks
+     */
+    private static <T> List<T> runAll(int count, IntFunction<T> task) {
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            tasks.add(POOL.submit(() -> task.apply(index)));
+        }
+        List<T> results = new ArrayList<>(count);
+        RuntimeException failure = null;
+        for (ForkJoinTask<T> forkJoinTask : tasks) {
+            try {
+                results.add(forkJoinTask.join());
+            } catch (RuntimeException e) {
+                // Wait for the other tasks anyway, they share the folders
+                if (failure == null)
+                    failure = e;
+            }
+        }
+        if (failure != null)
+            throw failure;
+        return Collections.unmodifiableList(results);
+    }
+
+}
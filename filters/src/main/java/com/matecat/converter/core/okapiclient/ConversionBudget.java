@@ -0,0 +1,169 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.util.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Time budget of an Okapi pipeline
+ *
+ * Some documents make the Okapi filters loop forever, keeping busy a core until the server is restarted. Every
+ * pipeline is run with a time budget, configured by stage and format: when it is exceeded the pipeline is
+ * cancelled, and the CancellationStep stops it at the next event. If the pipeline is stuck inside a filter and
+ * doesn't produce events anymore, after INTERRUPT_DELAY its thread is interrupted too.
+ *
+ * Pipelines run on the thread of the conversion, so the budget in progress is bound to the thread: the steps of
+ * the pooled pipelines don't have to be given a budget for every document.
+ */
+public class ConversionBudget {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversionBudget.class);
+
+    // Seconds between the cancellation of a pipeline and the interruption of its thread
+    static final long INTERRUPT_DELAY = 2;
+
+    // Timer of the budgets
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "conversion-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Budget of the pipeline running on the thread
+    private static final ThreadLocal<ConversionBudget> CURRENT = new ThreadLocal<>();
+
+
+    /**
+     * Stage of the conversion run by a pipeline
+     */
+    public enum Stage {
+        EXTRACTION, MERGE;
+
+        /**
+         * Get the budget of the stage
+         * @param format Format of the document
+         * @return Seconds, 0 if unlimited
+         */
+        public int getTimeout(Format format) {
+            int timeout = this == EXTRACTION ? Config.extractionTimeout : Config.mergeTimeout;
+            Map<String, Integer> formatTimeout = this == EXTRACTION ? Config.extractionFormatTimeout : Config.mergeFormatTimeout;
+            return format == null ? timeout : formatTimeout.getOrDefault(format.toString(), timeout);
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase();
+        }
+    }
+
+
+    private final String description;
+    private final long timeout;
+    private final Thread thread;
+    private volatile boolean cancelled = false;
+    private boolean finished = false;
+    private boolean interrupted = false;
+
+    private ConversionBudget(String description, long timeout, Thread thread) {
+        this.description = description;
+        this.timeout = timeout;
+        this.thread = thread;
+    }
+
+
+    /**
+     * Run a pipeline within the budget of its stage
+     * @param stage Stage of the conversion
+     * @param format Format of the original document
+     * @param documentName Name of the document, for the error messages
+     * @param pipeline Task running the pipeline
+     * @throws ConversionTimeoutException If the budget has been exceeded
+     */
+    static void run(Stage stage, Format format, String documentName, Runnable pipeline) {
+        run(stage + " of " + documentName, stage.getTimeout(format), pipeline);
+    }
+
+
+    /**
+     * Run a pipeline within a budget
+     * @param description Description of the pipeline, for the error messages
+     * @param timeout Budget, in seconds; 0 for no budget
+     * @param pipeline Task running the pipeline
+     * @throws ConversionTimeoutException If the budget has been exceeded
+     */
+    static void run(String description, long timeout, Runnable pipeline) {
+        if (timeout <= 0) {
+            pipeline.run();
+            return;
+        }
+
+        ConversionBudget budget = new ConversionBudget(description, timeout, Thread.currentThread());
+        ScheduledFuture<?> cancellation = WATCHDOG.schedule(budget::cancel, timeout, TimeUnit.SECONDS);
+        ScheduledFuture<?> interruption = WATCHDOG.schedule(budget::interrupt, timeout + INTERRUPT_DELAY, TimeUnit.SECONDS);
+        ConversionBudget previous = CURRENT.get();
+        CURRENT.set(budget);
+        try {
+            pipeline.run();
+        } catch (RuntimeException e) {
+            // Whatever the pipeline failed with, it has been stopped by the cancellation
+            if (budget.cancelled && !(e instanceof ConversionTimeoutException))
+                throw budget.getTimeoutException(e);
+            throw e;
+        } finally {
+            cancellation.cancel(false);
+            interruption.cancel(false);
+            budget.finish();
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+
+    /**
+     * Check if the pipeline running on this thread has been cancelled, to stop it
+     * @throws ConversionTimeoutException If it has exceeded its budget
+     */
+    public static void checkCurrent() {
+        ConversionBudget budget = CURRENT.get();
+        if (budget != null && budget.cancelled)
+            throw budget.getTimeoutException(null);
+    }
+
+
+    private ConversionTimeoutException getTimeoutException(Throwable cause) {
+        return new ConversionTimeoutException("Conversion timed out: the " + description
+                + " exceeded its time budget of " + timeout + " seconds", cause);
+    }
+
+    private void cancel() {
+        LOGGER.warn("The {} exceeded its time budget of {} seconds: cancelling it", description, timeout);
+        cancelled = true;
+    }
+
+    private synchronized void interrupt() {
+        if (finished)
+            return;
+        LOGGER.warn("The {} has not stopped after being cancelled: interrupting thread {}", description, thread.getName());
+        interrupted = true;
+        thread.interrupt();
+    }
+
+    private synchronized void finish() {
+        finished = true;
+        // The thread goes on serving other requests, don't leave it interrupted
+        if (interrupted)
+            Thread.interrupted();
+    }
+
+}
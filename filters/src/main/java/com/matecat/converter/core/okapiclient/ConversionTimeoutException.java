@@ -0,0 +1,18 @@
+package com.matecat.converter.core.okapiclient;
+
+/**
+ * Exception thrown when an Okapi pipeline has been cancelled, because it exceeded its time budget
+ *
+ * @see ConversionBudget
+ */
+public class ConversionTimeoutException extends RuntimeException {
+
+    public ConversionTimeoutException(String message) {
+        super(message);
+    }
+
+    public ConversionTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.matecat.converter.core.okapiclient;
+
+import net.sf.okapi.common.IParameters;
+import net.sf.okapi.common.MimeTypeMapper;
+import net.sf.okapi.common.filters.FilterConfiguration;
+import net.sf.okapi.common.filters.FilterConfigurationMapper;
+import net.sf.okapi.common.filters.IFilter;
+import net.sf.okapi.common.filters.IFilterConfigurationMapper;
+import net.sf.okapi.common.plugins.PluginsManager;
+import net.sf.okapi.filters.html.HtmlFilter;
+import net.sf.okapi.filters.rainbowkit.RainbowKitFilter;
+import net.sf.okapi.filters.table.TableFilter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * Registry of the filter configuration mappers used by the pipeline drivers
+ *
+ * A mapper contains the configurations of the filter being used, plus the common ones every conversion may need
+ * (RainbowKit for the packs, the subfilters). Mappers are built once per filter class and shared by all the
+ * conversions: they are read-only, and any attempt to change them fails.
+ *
+ * Custom filters can add their own configurations at startup, e.g. from a static initializer; the mappers built
+ * from then on include them.
+ */
+public class FilterConfigurationRegistry {
+
+    /**
+     * HTML configuration customized for MateCat, used as subfilter by the XML filter.
+     * The manifest doesn't carry the subfilter configuration, so it must be available in the merge phase too.
+     */
+    public static final FilterConfiguration HTML_CUSTOM_CONFIGURATION = new FilterConfiguration(
+            "okf_html-custom",
+            MimeTypeMapper.HTML_MIME_TYPE,
+            HtmlFilter.class.getName(),
+            "HTML",
+            "HTML customized for MateCat Filters",
+            OkapiFilterFactory.OKAPI_CUSTOM_CONFIGS_PATH + OkapiFilterFactory.HTML_CONFIG_FILENAME,
+            ".htm;.html;"
+    );
+
+    // Filter classes whose configurations are included in every mapper
+    private static final List<String> COMMON_FILTER_CLASSES = new CopyOnWriteArrayList<>();
+
+    // Single configurations included in every mapper
+    private static final List<FilterConfiguration> COMMON_CONFIGURATIONS = new CopyOnWriteArrayList<>();
+
+    static {
+        COMMON_FILTER_CLASSES.add(RainbowKitFilter.class.getName());
+        // Here you must add all the used subfilters configurations; this should
+        // be improved: subfilters configurations should be saved in the manifest
+        // and retrieved from there, not from the FilterConfigurationMapper
+        COMMON_FILTER_CLASSES.add(TableFilter.class.getName());
+        COMMON_CONFIGURATIONS.add(HTML_CUSTOM_CONFIGURATION);
+    }
+
+    // Built mappers, by filter class name
+    private static final Map<String, IFilterConfigurationMapper> MAPPERS = new ConcurrentHashMap<>();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private FilterConfigurationRegistry() {}
+
+
+    /**
+     * Get the mapper to use with a filter
+     * @param filterClass Class of the filter being used
+     * @return Read-only configuration mapper, including common configurations and the ones of the filter
+     */
+    public static IFilterConfigurationMapper getMapper(Class<? extends IFilter> filterClass) {
+        return MAPPERS.computeIfAbsent(filterClass.getName(), FilterConfigurationRegistry::createMapper);
+    }
+
+
+    /**
+     * Include the configurations of a filter class in every mapper
+     * @param filterClass Filter class
+     */
+    public static synchronized void addConfigurations(Class<? extends IFilter> filterClass) {
+        if (!COMMON_FILTER_CLASSES.contains(filterClass.getName())) {
+            COMMON_FILTER_CLASSES.add(filterClass.getName());
+            MAPPERS.clear();
+        }
+    }
+
+
+    /**
+     * Include a configuration in every mapper
+     * @param configuration Filter configuration
+     */
+    public static synchronized void addConfiguration(FilterConfiguration configuration) {
+        COMMON_CONFIGURATIONS.add(configuration);
+        MAPPERS.clear();
+    }
+
+
+    private static IFilterConfigurationMapper createMapper(String filterClassName) {
+        ReadOnlyFilterConfigurationMapper mapper = new ReadOnlyFilterConfigurationMapper();
+        mapper.addConfigurations(filterClassName);
+        for (String commonFilterClass : COMMON_FILTER_CLASSES)
+            mapper.addConfigurations(commonFilterClass);
+        for (FilterConfiguration configuration : COMMON_CONFIGURATIONS)
+            mapper.addConfiguration(configuration);
+        mapper.readOnly = true;
+        return mapper;
+    }
+
+
+    /**
+     * Mapper whose configurations can't be changed once built
+     */
+    private static class ReadOnlyFilterConfigurationMapper extends FilterConfigurationMapper {
+
+        private volatile boolean readOnly = false;
+
+        private void checkWritable() {
+            if (readOnly)
+                throw new UnsupportedOperationException("Shared filter configuration mappers are read-only");
+        }
+
+        @Override
+        public void addFromPlugins(PluginsManager pm) {
+            checkWritable();
+            super.addFromPlugins(pm);
+        }
+
+        @Override
+        public void addConfigurations(String filterClass) {
+            checkWritable();
+            super.addConfigurations(filterClass);
+        }
+
+        @Override
+        public void addConfiguration(FilterConfiguration config) {
+            checkWritable();
+            super.addConfiguration(config);
+        }
+
+        @Override
+        public void removeConfiguration(String configId) {
+            checkWritable();
+            super.removeConfiguration(configId);
+        }
+
+        @Override
+        public void removeConfigurations(String filterClass) {
+            checkWritable();
+            super.removeConfigurations(filterClass);
+        }
+
+        @Override
+        public void clearConfigurations(boolean customOnly) {
+            checkWritable();
+            super.clearConfigurations(customOnly);
+        }
+
+        @Override
+        public void setCustomConfigurationsDirectory(String dir) {
+            checkWritable();
+            super.setCustomConfigurationsDirectory(dir);
+        }
+
+        @Override
+        public void addCustomConfiguration(String configId, IParameters parameters) {
+            checkWritable();
+            super.addCustomConfiguration(configId, parameters);
+        }
+
+        @Override
+        public void updateCustomConfigurations() {
+            checkWritable();
+            super.updateCustomConfigurations();
+        }
+
+        @Override
+        public void saveCustomParameters(FilterConfiguration config, IParameters params) {
+            checkWritable();
+            super.saveCustomParameters(config, params);
+        }
+
+        @Override
+        public void deleteCustomParameters(FilterConfiguration config) {
+            checkWritable();
+            super.deleteCustomParameters(config);
+        }
+    }
+
+}
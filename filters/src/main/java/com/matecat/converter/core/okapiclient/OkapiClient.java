@@ -2,25 +2,24 @@ package com.matecat.converter.core.okapiclient;
 
 import com.ibm.icu.util.ULocale;
 import com.matecat.converter.core.Format;
-import com.matecat.converter.core.XliffProcessor;
+import com.matecat.converter.core.XliffHeader;
 import com.matecat.converter.core.encoding.Encoding;
 import com.matecat.converter.core.util.Config;
+import com.matecat.converter.core.util.VirtualThreads;
+import com.matecat.converter.okapi.steps.cancellation.CancellationStep;
+import com.matecat.converter.okapi.steps.rainbowkit.MemoryExtractionStep;
+import com.matecat.converter.okapi.steps.rainbowkit.MemoryXliffPackageWriter;
 import com.matecat.converter.okapi.steps.segmentation.AddIcuHintsStep;
+import com.matecat.converter.okapi.steps.segmentation.CachedSegmentationStep;
 import com.matecat.converter.okapi.steps.segmentation.RemoveIcuHintsStep;
+import com.matecat.converter.okapi.steps.segmentation.SegmenterCache;
 import net.sf.okapi.common.LocaleId;
-import net.sf.okapi.common.MimeTypeMapper;
 import net.sf.okapi.common.Util;
-import net.sf.okapi.common.filters.FilterConfiguration;
-import net.sf.okapi.common.filters.FilterConfigurationMapper;
 import net.sf.okapi.common.filters.IFilter;
-import net.sf.okapi.common.filters.IFilterConfigurationMapper;
 import net.sf.okapi.common.pipelinedriver.BatchItemContext;
 import net.sf.okapi.common.pipelinedriver.IPipelineDriver;
 import net.sf.okapi.common.pipelinedriver.PipelineDriver;
 import net.sf.okapi.common.resource.RawDocument;
-import net.sf.okapi.filters.html.HtmlFilter;
-import net.sf.okapi.filters.rainbowkit.RainbowKitFilter;
-import net.sf.okapi.filters.table.TableFilter;
 import net.sf.okapi.steps.common.RawDocumentToFilterEventsStep;
 import net.sf.okapi.steps.rainbowkit.creation.ExtractionStep;
 import net.sf.okapi.steps.rainbowkit.postprocess.MergingStep;
@@ -30,10 +29,19 @@ import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static com.matecat.converter.core.Format.SDLXLIFF;
 
@@ -75,13 +83,48 @@ public class OkapiClient {
             throw new RuntimeException("Cannot create a temp file for SRX rules.", e);
         }
         try {
-            FileUtils.copyInputStreamToFile(System.class.getResourceAsStream(SRX_RESOURCE_PATH), SRX_FILE);
+            FileUtils.copyInputStreamToFile(OkapiClient.class.getResourceAsStream(SRX_RESOURCE_PATH), SRX_FILE);
         } catch (IOException e) {
             throw new RuntimeException("Cannot copy SRX rules to temp file.", e);
         }
     }
 
 
+    /* PIPELINES CONCURRENCY */
+
+    /**
+     * With virtual threads the number of conversions in progress is not bounded by the OS threads, so the
+     * CPU-bound Okapi pipelines are limited by these permits, sized to the cores
+     */
+    static final Semaphore PIPELINE_PERMITS = VirtualThreads.isEnabled() ? new Semaphore(Config.okapiMaxConcurrent, true) : null;
+
+    /**
+     * Run the batch of a pipeline driver, waiting for a free permit if needed, within the time budget of the stage
+     * @param driver Pipeline driver
+     * @param stage Stage of the conversion
+     * @param format Format of the original document
+     * @param documentName Name of the original document
+     * @throws ConversionTimeoutException If the pipeline has exceeded its time budget
+     */
+    private static void processBatch(IPipelineDriver driver, ConversionBudget.Stage stage, Format format, String documentName) {
+        if (PIPELINE_PERMITS == null) {
+            ConversionBudget.run(stage, format, documentName, driver::processBatch);
+            return;
+        }
+        try {
+            PIPELINE_PERMITS.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to run the Okapi pipeline", e);
+        }
+        try {
+            ConversionBudget.run(stage, format, documentName, driver::processBatch);
+        } finally {
+            PIPELINE_PERMITS.release();
+        }
+    }
+
+
     /* IS SUPPORTED */
 
     /**
@@ -93,58 +136,152 @@ public class OkapiClient {
         return OkapiFilterFactory.isSupported(format);
     }
 
+    /**
+     * Get the supported formats
+     * @return Formats with an Okapi filter
+     */
+    public static Set<Format> getSupportedFormats() {
+        return Collections.unmodifiableSet(OkapiFilterFactory.SUPPORTED_FORMATS);
+    }
+
+    /**
+     * Create the filter of a format, leaving it idle in the filter pool for the next conversions
+     * @param format Supported format
+     */
+    public static void preloadFilter(Format format) {
+        OkapiFilterPool.release(format, OkapiFilterPool.borrow(format), true);
+    }
+
 
     /* OKAPI PIPELINE / STEPS CREATION */
 
     /**
      * Create pipeline driver
-     * @param root File's root
      * @return Pipeline driver
      */
-    private static IPipelineDriver createOkapiPipelineDriver(String root) {
-
-        // Create the pipeline driver
-        IPipelineDriver driver = new PipelineDriver();
+    private static IPipelineDriver createOkapiPipelineDriver() {
+        return new PipelineDriver();
+    }
 
-        // Set output
+    /**
+     * Set the root of the files processed by a pipeline driver
+     * @param driver Pipeline driver
+     * @param root File's root
+     */
+    private static void setRootDirectory(IPipelineDriver driver, String root) {
         driver.setRootDirectories(root, root);
         driver.setOutputDirectory(root);
-
-        // Return the driver
-        return driver;
     }
 
     /**
-     * Create the segmentation step
-     * @param sourceLanguage Source language
-     * @param segmentation the name of the custom segmentation file to use (if any), or <code>null</code> to fallback on default
-     * @param driver a reference to the current driver to be populated with the segmentation step
-     * 
-     * @see Config.customSegmentationFolder
+     * Create the extraction pipeline
+     * @param format Format of the documents
+     * @param filter Custom filter, or null to borrow one from the filter pool
+     * @param srxFile Segmentation rules, or null if the documents must not be segmented
+     * @param stepClass Class of the extraction step
+     * @return Pipeline, with the driver ready to receive a batch item
      */
-    private static void createSegmentationStep(Locale sourceLanguage, String segmentation, IPipelineDriver driver) {
-        SegmentationStep segmentationStep = new SegmentationStep();
-        net.sf.okapi.steps.segmentation.Parameters params = (net.sf.okapi.steps.segmentation.Parameters) segmentationStep.getParameters();
-        
-        String customSegmentationFilePath = getCustomSegmentationFilePath(segmentation);
+    private static OkapiPipelinePool.Pipeline createExtractionPipeline(Format format, IFilter filter, File srxFile,
+                                                                       Class<? extends ExtractionStep> stepClass) {
+        IFilter pipelineFilter = filter != null ? filter : OkapiFilterPool.borrow(format);
+
+        // Create the pipeline driver
+        IPipelineDriver driver = createOkapiPipelineDriver();
+
+        // Filtering step
+        driver.addStep(new RawDocumentToFilterEventsStep(pipelineFilter));
 
-        if (customSegmentationFilePath != null) {
-            params.setSourceSrxPath(customSegmentationFilePath);
+        // Stop the filter once the time budget is exceeded
+        driver.addStep(new CancellationStep());
+
+        // Set the filter configuration map to use with the driver
+        driver.setFilterConfigurationMapper(FilterConfigurationRegistry.getMapper(pipelineFilter.getClass()));
+
+        // Segmentation steps
+        SegmentationStep segmentationStep = srxFile != null ? createSegmentationSteps(srxFile, driver) : null;
+
+        // Kit creation step
+        ExtractionStep extractionStep = createExtractionStep(stepClass);
+        driver.addStep(extractionStep);
+
+        return new OkapiPipelinePool.Pipeline(driver, filter == null ? format : null, pipelineFilter, segmentationStep, extractionStep);
+    }
+
+    /**
+     * Create the segmentation steps: with the default rules, the sentences found by ICU are given as hints.
+     * The steps take the source language from every document, so that the pipeline serves any language.
+     * @param srxFile File with the segmentation rules
+     * @param driver a reference to the current driver to be populated with the segmentation steps
+     * @return Segmentation step
+     */
+    private static SegmentationStep createSegmentationSteps(File srxFile, IPipelineDriver driver) {
+        SegmentationStep segmentationStep = createSegmentationStep(srxFile);
+        if (srxFile.equals(SRX_FILE)) {
+            driver.addStep(new AddIcuHintsStep());
             driver.addStep(segmentationStep);
+            driver.addStep(new RemoveIcuHintsStep());
         } else {
-            driver.addStep(new AddIcuHintsStep(sourceLanguage));
-            params.setSourceSrxPath(SRX_FILE.getPath());
             driver.addStep(segmentationStep);
-            driver.addStep(new RemoveIcuHintsStep());
         }
+        return segmentationStep;
+    }
+
+    /**
+     * Create a segmentation step using the given rules. If supported, the rules are compiled in advance for the
+     * source language: the segmenter of every document is given to the step before processing it.
+     * @param srxFile File with the segmentation rules
+     * @return Segmentation step
+     *
+     * @see #borrowSegmenter
+     */
+    private static SegmentationStep createSegmentationStep(File srxFile) {
+        if (!CachedSegmentationStep.isSupported()) {
+            SegmentationStep segmentationStep = new SegmentationStep();
+            ((net.sf.okapi.steps.segmentation.Parameters) segmentationStep.getParameters()).setSourceSrxPath(srxFile.getPath());
+            return segmentationStep;
+        }
+        return new CachedSegmentationStep(null, srxFile.getPath());
+    }
+
+    /**
+     * Borrow the segmenter compiled from the given rules for the source language
+     * @param sourceLanguage Source language
+     * @param srxFile File with the segmentation rules
+     * @return Segmenter, to be given to a CachedSegmentationStep
+     * @throws IllegalArgumentException If the rules file doesn't exist or can't be read
+     *
+     * @see SegmenterCache
+     */
+    private static SegmenterCache.Lease borrowSegmenter(Locale sourceLanguage, File srxFile) {
+        try {
+            // Same locale given to the RawDocument, see processDocument
+            LocaleId sourceLocale = new LocaleId(ULocale.forLocale(sourceLanguage));
+            return SegmenterCache.borrow(srxFile, sourceLocale);
+        } catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("Segmentation file not found. File: " + srxFile.getPath(), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Segmentation file cannot be read. File: " + srxFile.getPath(), e);
+        }
+    }
+
+    /**
+     * Get the segmentation rules to use
+     * @param segmentation the name of the custom segmentation file to use (if any), or <code>null</code> to fallback on default
+     * @return File with the segmentation rules
+     *
+     * @see Config.customSegmentationFolder
+     */
+    private static File getSegmentationFile(String segmentation) {
+        String customSegmentationFilePath = getCustomSegmentationFilePath(segmentation);
+        return customSegmentationFilePath != null ? new File(customSegmentationFilePath) : SRX_FILE;
     }
     
     
     /**
-     * given a segmentation name, check if exists a corresponding file with custom segmentation rules and return its path 
+     * given a segmentation name, return the path of the corresponding file with custom segmentation rules
      * @param segmentation
      * @return the full path of the file containing the specified segmentation rules, or null if no custom segmentation has been defined
-     * @throws RuntimeException if the file does not exist or there are no read permissions on it 
+     * @throws RuntimeException if no custom segmentation folder has been configured
      */
     private static String getCustomSegmentationFilePath(String segmentation) {
         // no custom segmentation required
@@ -159,39 +296,11 @@ public class OkapiClient {
 
 
         /* A custom segmentation has been requested, and there is a valid custom segmentation rules folder.
-         * Try to get the proper file, if it is not found or not accessible, raise an exception for the client.
-         * That is why no exception handling has been defined here
+         * The existence and the permissions of the file are checked when its rules are loaded, see SegmenterCache:
+         * if it is not found or not accessible, an exception is raised for the client.
          */
-
-        // instantiate a file wrapper to make all the necessary checks
         File segmentationFile = new File(Config.customSegmentationFolder + segmentation + ".srx");
 
-        /* Check if the corresponding file exists
-         *
-         * IMPORTANT
-         * Read permission in folder Config.customSegmentationFolder are check only once at startup time from Config class.
-         * If these permissions change at runtime and the application becomes not allowed to read from it, the following check will fail
-         * because it will try to read the folder content, and an empty set of files will be returned, due to the permission issue.
-         *
-         *  Sample Scenario:
-         *   - application loads and at startup time is able to read from Config.customSegmentationFolder
-         *   - permission on the folder change, and the application cannot read from it anymore
-         *   - user issues a conversion request and the application tries to look for the specified segmentation file from custom folder
-         *   - because of read limitation, OS will return the application an empty set of files
-         *   - the application will correctly fallback on default srx file, but with following "not found" error message
-         *
-         * Even though the behavior is correct (and this case should not happen), the error message might be trivial
-         */
-        if (!segmentationFile.isFile()) {
-            throw new IllegalArgumentException("Custom segmentation file not found. File: " + Config.customSegmentationFolder + segmentation + ".srx");
-        }
-
-        // Check if the corresponding file can be read
-        if (!segmentationFile.canRead()) {
-            throw new IllegalArgumentException("Custom segmentation file cannot be read. File: " + Config.customSegmentationFolder + segmentation + ".srx");
-        }
-
-        // the file exists and can be read, return its path
         LOGGER.info("Using custom segmentation in file: " + segmentationFile.getPath());
         return segmentationFile.getPath();
     }
@@ -199,15 +308,53 @@ public class OkapiClient {
 
     /**
      * Create the extraction step
+     * @param stepClass Class of the extraction step
      * @return Extraction step
      */
-    private static ExtractionStep createExtractionStep() {
-        ExtractionStep extStep = new ExtractionStep();
+    private static ExtractionStep createExtractionStep(Class<? extends ExtractionStep> stepClass) {
+        ExtractionStep extStep;
+        try {
+            extStep = stepClass.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot create the extraction step " + stepClass.getName(), e);
+        }
         net.sf.okapi.steps.rainbowkit.creation.Parameters extParams = (net.sf.okapi.steps.rainbowkit.creation.Parameters) extStep.getParameters();
+        // The manifest refers to the pack folder, where the pack is rebuilt for the merge
         extParams.setPackageName(OkapiPack.PACK_FILENAME);
         return extStep;
     }
 
+    /**
+     * Create the merging pipeline
+     * @param format Format of the original documents
+     * @return Pipeline, with the driver ready to receive a batch item
+     */
+    private static OkapiPipelinePool.Pipeline createMergingPipeline(Format format) {
+
+        // Create pipeline
+        IPipelineDriver driver = createOkapiPipelineDriver();
+        driver.setFilterConfigurationMapper(
+                FilterConfigurationRegistry.getMapper(OkapiFilterPool.getFilterClass(format)));
+
+        // Add the extraction step
+        driver.addStep(new RawDocumentToFilterEventsStep());
+
+        // Stop the filter once the time budget is exceeded
+        driver.addStep(new CancellationStep());
+
+        // This step acts only when a non-space-delimited language is used
+        // as source or target. The translation from/to these languages may
+        // cause extra/missing spaces in the target document. See the
+        // step documentation (https://goo.gl/g2yQpJ) for more info.
+        // In regular language pairs the step does nothing.
+        driver.addStep(new WhitespaceCorrectionStep());
+
+        // Add the t-kit merging step
+        driver.addStep(createMergingStep());
+
+        return new OkapiPipelinePool.Pipeline(driver, null, null, null, null);
+    }
+
     /**
      * Create the merging steps
      * @return Merging step
@@ -234,36 +381,6 @@ public class OkapiClient {
         return mergingStep;
     }
 
-    /**
-     * Create a filter configuration mapper
-     * @param filter Filter being used
-     * @return Configuration mapper, including common configurations and the corresponding to the current filter
-     */
-    private static IFilterConfigurationMapper createFilterConfigurationMapper(IFilter filter) {
-
-        // Create a filter configuration map and add mandatory configurations
-        IFilterConfigurationMapper fcMapper = new FilterConfigurationMapper();
-        fcMapper.addConfigurations(filter.getClass().getName());
-        fcMapper.addConfigurations(RainbowKitFilter.class.getName());
-        // Here you must add all the used subfilters configurations; this should
-        // be improved: subfilters configurations should be saved in the manifest
-        // and retrieved from there, not from the FilterConfigurationMapper
-        fcMapper.addConfigurations(TableFilter.class.getName());
-        // This is used by the XML filter
-        fcMapper.addConfiguration(new FilterConfiguration(
-                "okf_html-custom",
-                MimeTypeMapper.HTML_MIME_TYPE,
-                HtmlFilter.class.getName(),
-                "HTML",
-                "HTML customized for MateCat Filters",
-                OkapiFilterFactory.OKAPI_CUSTOM_CONFIGS_PATH + OkapiFilterFactory.HTML_CONFIG_FILENAME,
-                ".htm;.html;"
-        ));
-
-        return fcMapper;
-    }
-
-
     /* OKAPI INTERACTION */
 
     /**
@@ -278,7 +395,69 @@ public class OkapiClient {
      * @return Okapi's result pack
      */
     public static OkapiPack generatePack(Locale sourceLanguage, Locale targetLanguage, Encoding encoding, File file, String segmentation, IFilter filter, Boolean segmentBilingual) {
-        // Check inputs
+        checkInputs(sourceLanguage, targetLanguage, encoding, file);
+
+        // Output pack folder
+        File packFolder = new File(file.getParentFile().getPath() + File.separator + OkapiPack.PACK_FILENAME);
+
+        runExtraction(sourceLanguage, targetLanguage, encoding, file, segmentation, filter, segmentBilingual,
+                ExtractionStep.class, extractionStep -> {}, extractionStep -> null);
+
+        // Check that it has been created
+        if (!packFolder.exists())
+            throw new RuntimeException("The pack could not be created");
+
+        // Return pack
+        return new OkapiPack(packFolder);
+    }
+
+    /**
+     * Generate the MateCat XLIFF in a single pass
+     *
+     * The XLIFF is written by the Okapi pipeline directly into the output file, with the original file and the
+     * manifest embedded, without generating the pack first.
+     *
+     * @param sourceLanguage Source language
+     * @param targetLanguage Target language
+     * @param encoding Encoding used
+     * @param file File
+     * @param output Output XLIFF file
+     * @param fileElementsWriter Writer of the file elements with the original file and the manifest
+     * @return Generated XLIFF
+     *
+     * @see com.matecat.converter.core.XliffBuilder#writeFileElements
+     */
+    public static File generateXliff(Locale sourceLanguage, Locale targetLanguage, Encoding encoding, File file, String segmentation, IFilter filter, Boolean segmentBilingual,
+                                     File output, MemoryXliffPackageWriter.FileElementsWriter fileElementsWriter) {
+        checkInputs(sourceLanguage, targetLanguage, encoding, file);
+
+        boolean success = false;
+        try (OutputStream xliffOutput = new BufferedOutputStream(new FileOutputStream(output))) {
+            runExtraction(sourceLanguage, targetLanguage, encoding, file, segmentation, filter, segmentBilingual,
+                    MemoryExtractionStep.class, extractionStep -> extractionStep.setXliffOutput(xliffOutput, fileElementsWriter),
+                    extractionStep -> {
+                        // The step may be reused, don't keep the output
+                        extractionStep.setXliffOutput(null, null);
+                        return null;
+                    });
+            success = true;
+        } catch (IOException e) {
+            throw new RuntimeException("The output Xliff could not been created", e);
+        } finally {
+            if (!success)
+                output.delete();
+        }
+
+        // Check that it has been created
+        if (output.length() == 0)
+            throw new RuntimeException("The output Xliff could not been created");
+        return output;
+    }
+
+    /**
+     * Check the inputs of the pack generation
+     */
+    private static void checkInputs(Locale sourceLanguage, Locale targetLanguage, Encoding encoding, File file) {
         if (sourceLanguage == null)
             throw new IllegalArgumentException("Source language cannot be null");
         if (targetLanguage == null)
@@ -287,34 +466,57 @@ public class OkapiClient {
             throw new IllegalArgumentException("Input encoding cannot be null");
         if (file == null || !file.exists() || file.isDirectory())
             throw new IllegalArgumentException("Input file is not valid");
+    }
 
+    /**
+     * Run the extraction pipeline, with the filter given or with a pipeline borrowed from the pool
+     * @param stepClass Class of the extraction step
+     * @param stepSetup Setup of the extraction step before running the pipeline
+     * @param stepResult Result read from the extraction step after running the pipeline
+     * @return Result of the extraction step
+     */
+    private static <S extends ExtractionStep, R> R runExtraction(Locale sourceLanguage, Locale targetLanguage, Encoding encoding, File file, String segmentation,
+                                                                 IFilter filter, Boolean segmentBilingual, Class<S> stepClass,
+                                                                 Consumer<S> stepSetup, Function<S, R> stepResult) {
         final Format format = Format.getFormat(file);
 
-        // Output pack folder
-        File packFolder = new File(file.getParentFile().getPath() + File.separator + OkapiPack.PACK_FILENAME);
-
-        // Create the pipeline driver
-        IPipelineDriver driver = createOkapiPipelineDriver(file.getParent());
-
-        // Filtering step
-        if (filter == null) filter = OkapiFilterFactory.getFilter(file);
-        driver.addStep(new RawDocumentToFilterEventsStep(filter));
-
-        // Set the filter configuration map to use with the driver
-        driver.setFilterConfigurationMapper(createFilterConfigurationMapper(filter));
-
         // Very often, PO files carry already some translated segments inside.
         // If we segment the sources, how can we obtain the corresponding segments
         // in the translated contents? We can't. The structure of PO files makes
         // already segmented, so it's better to not segment further.
         // XLIFFs instead are already segmented, and segmenting them further causes
         // strange outputs.
-        if (!Format.isBilingual(format) || segmentBilingual) {
-        	  createSegmentationStep(sourceLanguage, segmentation, driver);
+        final File srxFile = !Format.isBilingual(format) || segmentBilingual ? getSegmentationFile(segmentation) : null;
+
+        // Pipeline, borrowed from the pool unless a custom filter has been given
+        OkapiPipelinePool.Key key = new OkapiPipelinePool.Key(stepClass.getName(), format, srxFile != null ? srxFile.getPath() : null);
+        boolean pooledPipeline = filter == null;
+        OkapiPipelinePool.Pipeline pipeline = pooledPipeline
+                ? OkapiPipelinePool.borrow(key, () -> createExtractionPipeline(format, null, srxFile, stepClass))
+                : createExtractionPipeline(format, filter, srxFile, stepClass);
+        boolean success = false;
+        try {
+            if (pipeline.getSegmentationStep() instanceof CachedSegmentationStep)
+                ((CachedSegmentationStep) pipeline.getSegmentationStep()).setLease(borrowSegmenter(sourceLanguage, srxFile));
+            S extractionStep = stepClass.cast(pipeline.getExtractionStep());
+            stepSetup.accept(extractionStep);
+            processDocument(pipeline.getDriver(), pipeline.getFilter(), sourceLanguage, targetLanguage, encoding, file);
+            R result = stepResult.apply(extractionStep);
+            success = true;
+            return result;
+        } finally {
+            if (pooledPipeline)
+                OkapiPipelinePool.release(key, pipeline, success);
         }
+    }
 
-        // Kit creation step
-        driver.addStep(createExtractionStep());
+    /**
+     * Process a document with an extraction pipeline
+     */
+    private static void processDocument(IPipelineDriver driver, IFilter filter, Locale sourceLanguage, Locale targetLanguage, Encoding encoding, File file) {
+
+        // The pack is created next to the file
+        setRootDirectory(driver, file.getParent());
 
         // Add the input file to the driver
         // WARNING:
@@ -326,21 +528,14 @@ public class OkapiClient {
 
         // Output file (useless but needed)
         String basename = Util.getFilename(file.getPath(), false);
-        String outputPath = packFolder.getParentFile().getPath() + File.separator + basename + ".out" + Util.getExtension(file.getPath());
+        String outputPath = file.getParentFile().getPath() + File.separator + basename + ".out" + Util.getExtension(file.getPath());
         File outputFile = new File(outputPath);
 
         // Create batch and run it
         // Warning: output encoding must be ALWAYS UTF-8
         BatchItemContext item = new BatchItemContext(rawDoc, outputFile.toURI(), StandardCharsets.UTF_8.toString());
         driver.addBatchItem(item);
-        driver.processBatch();
-
-        // Check that it has been created
-        if (!packFolder.exists())
-            throw new RuntimeException("The pack could not be created");
-
-        // Return pack
-        return new OkapiPack(packFolder);
+        processBatch(driver, ConversionBudget.Stage.EXTRACTION, Format.getFormat(file), file.getName());
     }
 
     /**
@@ -352,45 +547,41 @@ public class OkapiClient {
 
         try {
 
-            // Create pipeline
-            String root = pack.getPackFolder().getParent();
-            IPipelineDriver driver = createOkapiPipelineDriver(root);
-            driver.setFilterConfigurationMapper(
-                    createFilterConfigurationMapper(
-                            OkapiFilterFactory.getFilter(pack.getOriginalFile())));
-
-            // Add the extraction step
-            driver.addStep(new RawDocumentToFilterEventsStep());
-
-            XliffProcessor processor = new XliffProcessor(pack.getXlf());
-            LocaleId sourceLanguage = new LocaleId(processor.getSourceLanguage());
-            LocaleId targetLanguage = new LocaleId(processor.getTargetLanguage());
-
-            // This step acts only when a non-space-delimited language is used
-            // as source or target. The translation from/to these languages may
-            // cause extra/missing spaces in the target document. See the
-            // step documentation (https://goo.gl/g2yQpJ) for more info.
-            // In regular language pairs the step does nothing.
-            driver.addStep(new WhitespaceCorrectionStep());
-
-            // Add the t-kit merging step
-            driver.addStep(createMergingStep());
-
-            // Add the input file (manifest file)
-            RawDocument rawDoc = new RawDocument(pack.getManifest().toURI(),
-                    "UTF-8", sourceLanguage, targetLanguage,
-                    "okf_rainbowkit-noprompt");
-            driver.addBatchItem(rawDoc);
-
-            // Run the pipeline
-            driver.processBatch();
+            XliffHeader header = XliffHeader.read(pack.getXlf());
+            LocaleId sourceLanguage = new LocaleId(header.getSourceLanguage());
+            LocaleId targetLanguage = new LocaleId(header.getTargetLanguage());
+
+            // Pipeline, borrowed from the pool
+            Format format = Format.getFormat(pack.getOriginalFile());
+            OkapiPipelinePool.Key key = new OkapiPipelinePool.Key(MergingStep.class.getName(), format, null);
+            OkapiPipelinePool.Pipeline pipeline = OkapiPipelinePool.borrow(key, () -> createMergingPipeline(format));
+            boolean success = false;
+            try {
+                IPipelineDriver driver = pipeline.getDriver();
+                setRootDirectory(driver, pack.getPackFolder().getParent());
+
+                // Add the input file (manifest file)
+                RawDocument rawDoc = new RawDocument(pack.getManifest().toURI(),
+                        "UTF-8", sourceLanguage, targetLanguage,
+                        "okf_rainbowkit-noprompt");
+                driver.addBatchItem(rawDoc);
+
+                // Run the pipeline
+                processBatch(driver, ConversionBudget.Stage.MERGE, format, pack.getOriginalFile().getName());
+                success = true;
+            } finally {
+                OkapiPipelinePool.release(key, pipeline, success);
+            }
 
             // Return the derived file
             return pack.getDerivedFile();
         }
+        catch ( ConversionTimeoutException e ) {
+            throw e;
+        }
         catch ( Throwable e ) {
             throw new RuntimeException("Exception generating target file from " + pack.getOriginalFile().getName(), e);
         }
     }
 
-}
\ No newline at end of file
+}
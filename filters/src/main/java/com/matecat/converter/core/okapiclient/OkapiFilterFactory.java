@@ -1,11 +1,7 @@
 package com.matecat.converter.core.okapiclient;
 
 import com.matecat.converter.core.Format;
-import net.sf.okapi.common.MimeTypeMapper;
-import net.sf.okapi.common.filters.FilterConfiguration;
-import net.sf.okapi.common.filters.FilterConfigurationMapper;
 import net.sf.okapi.common.filters.IFilter;
-import net.sf.okapi.common.filters.IFilterConfigurationMapper;
 import net.sf.okapi.filters.archive.ArchiveFilter;
 import net.sf.okapi.filters.dtd.DTDFilter;
 import net.sf.okapi.filters.html.HtmlFilter;
@@ -36,8 +32,11 @@ import org.apache.commons.io.IOUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -51,6 +50,28 @@ import java.util.Set;
     public static final String XML_CONFIG_FILENAME = "okf_xmlstream-custom.fprm";
     public static final String HTML_CONFIG_FILENAME = "okf_html-custom.fprm";
     public static final String DITA_CONFIG_FILENAME = "okf_xmlstream@dita-custom.fprm";
+    public static final String STRINGS_CONFIG_FILENAME = "okf_regex@macstrings.fprm";
+    public static final String SRT_CONFIG_FILENAME = "okf_regex@srt.fprm";
+    public static final String RESX_CONFIG_FILENAME = "okf_xml@resx.fprm";
+    public static final String WIX_CONFIG_FILENAME = "okf_xml@wix.fprm";
+
+    // Custom configurations, read once from the classpath, by filename
+    private static final Map<String, String> CONFIGURATIONS = new HashMap<>();
+    static {
+        for (String filename : Arrays.asList(XML_CONFIG_FILENAME, HTML_CONFIG_FILENAME, DITA_CONFIG_FILENAME,
+                STRINGS_CONFIG_FILENAME, SRT_CONFIG_FILENAME, RESX_CONFIG_FILENAME, WIX_CONFIG_FILENAME)) {
+            InputStream inputStream = OkapiFilterFactory.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + filename);
+            try {
+                if (inputStream == null)
+                    throw new IOException("Missing resource");
+                CONFIGURATIONS.put(filename, IOUtils.toString(inputStream, "UTF-8"));
+            } catch (IOException e) {
+                System.err.println("Custom configuration " + filename + " could not be loaded");
+            } finally {
+                IOUtils.closeQuietly(inputStream);
+            }
+        }
+    }
 
     // Formats supported by the filter factory
     protected static final Set<Format> SUPPORTED_FORMATS;
@@ -124,11 +145,19 @@ import java.util.Set;
 
 
     /**
-     * Get the corresponding filter for a given format
-     * @return
+     * Get the corresponding filter for a given file
+     * @return New filter, configured for the file's format
      */
     protected static IFilter getFilter(File file) {
-        final Format format = Format.getFormat(file);
+        return getFilter(Format.getFormat(file));
+    }
+
+
+    /**
+     * Get the corresponding filter for a given format
+     * @return New filter, configured for the format
+     */
+    protected static IFilter getFilter(Format format) {
         switch (format) {
             case DOCM:
             case DOCX:
@@ -185,6 +214,18 @@ import java.util.Set;
     }
 
 
+    /**
+     * Apply a custom configuration to the parameters of a filter
+     * @param filter Filter
+     * @param filename Filename of the configuration, in the configurations path
+     */
+    private static void applyConfiguration(IFilter filter, String filename) {
+        String config = CONFIGURATIONS.get(filename);
+        if (config != null)
+            filter.getParameters().fromString(config);
+    }
+
+
     /*
      * FILTERS
      */
@@ -225,13 +266,7 @@ import java.util.Set;
 
     private static HtmlFilter getHtmlFilter() {
         HtmlFilter filter = new HtmlFilter();
-        try {
-            net.sf.okapi.filters.html.Parameters params = (net.sf.okapi.filters.html.Parameters) filter.getParameters();
-            String config = IOUtils.toString(System.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + HTML_CONFIG_FILENAME), "UTF-8");
-            params.fromString(config);
-        } catch (IOException e) {
-            System.err.println("Dita custom configuration could not be loaded");
-        }
+        applyConfiguration(filter, HTML_CONFIG_FILENAME);
         return filter;
     }
 
@@ -373,87 +408,40 @@ import java.util.Set;
 
     private static RegexFilter getStringsFilter() {
         RegexFilter filter = new RegexFilter();
-        try {
-            net.sf.okapi.filters.regex.Parameters params = (net.sf.okapi.filters.regex.Parameters) filter.getParameters();
-            String config = IOUtils.toString(System.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + "okf_regex@macstrings.fprm"), "UTF-8");
-            params.fromString(config);
-        } catch (IOException e) {
-            System.err.println("Strings custom configuration could not be loaded");
-        }
+        applyConfiguration(filter, STRINGS_CONFIG_FILENAME);
         return filter;
     }
 
     private static RegexFilter getSRTFilter() {
         RegexFilter filter = new RegexFilter();
-        try {
-            net.sf.okapi.filters.regex.Parameters params = (net.sf.okapi.filters.regex.Parameters) filter.getParameters();
-            String config = IOUtils.toString(System.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + "okf_regex@srt.fprm"), "UTF-8");
-            params.fromString(config);
-        } catch (IOException e) {
-            System.err.println("Strings custom configuration could not be loaded");
-        }
+        applyConfiguration(filter, SRT_CONFIG_FILENAME);
         return filter;
     }
 
     private static XMLFilter getRESXFilter() {
         XMLFilter filter = new XMLFilter();
-        try {
-            net.sf.okapi.filters.its.Parameters params = (net.sf.okapi.filters.its.Parameters) filter.getParameters();
-            String config = IOUtils.toString(System.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + "okf_xml@resx.fprm"), "UTF-8");
-            params.fromString(config);
-        } catch (IOException e) {
-            System.err.println("XML custom configuration could not be loaded");
-        }
+        applyConfiguration(filter, RESX_CONFIG_FILENAME);
         return filter;
     }
 
     private static XMLFilter getWixFilter() {
         XMLFilter filter = new XMLFilter();
-        try {
-            net.sf.okapi.filters.its.Parameters params = (net.sf.okapi.filters.its.Parameters) filter.getParameters();
-            String config = IOUtils.toString(System.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + "okf_xml@wix.fprm"), "UTF-8");
-            params.fromString(config);
-        } catch (IOException e) {
-            System.err.println("XML custom configuration could not be loaded");
-        }
+        applyConfiguration(filter, WIX_CONFIG_FILENAME);
         return filter;
     }
 
     private static XmlStreamFilter getXmlFilter() {
         XmlStreamFilter filter = new XmlStreamFilter();
-        try {
-            net.sf.okapi.filters.xmlstream.Parameters params = (net.sf.okapi.filters.xmlstream.Parameters) filter.getParameters();
-            String config = IOUtils.toString(System.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + XML_CONFIG_FILENAME), "UTF-8");
-            params.fromString(config);
-        } catch (IOException e) {
-            System.err.println("XML custom configuration could not be loaded");
-        }
-        IFilterConfigurationMapper cm = new FilterConfigurationMapper();
-        // This configuration must be copied in the FilterConfigurationMapper
-        // used in the merge phase, because the manifest doesn't carry the
-        // subfilter configuration. See OkapiClient.createFilterConfigurationMapper
-        cm.addConfiguration(new FilterConfiguration(
-                "okf_html-custom",
-                MimeTypeMapper.HTML_MIME_TYPE,
-                HtmlFilter.class.getName(),
-                "HTML",
-                "HTML customized for MateCat Filters",
-                OKAPI_CUSTOM_CONFIGS_PATH + HTML_CONFIG_FILENAME,
-                ".htm;.html;"
-        ));
-        filter.setFilterConfigurationMapper(cm);
+        applyConfiguration(filter, XML_CONFIG_FILENAME);
+        // The HTML subfilter configuration is included in the shared mappers,
+        // used in the merge phase too. See FilterConfigurationRegistry
+        filter.setFilterConfigurationMapper(FilterConfigurationRegistry.getMapper(XmlStreamFilter.class));
         return filter;
     }
 
     private static XmlStreamFilter getDitaFilter() {
         XmlStreamFilter filter = new XmlStreamFilter();
-        try {
-            net.sf.okapi.filters.xmlstream.Parameters params = (net.sf.okapi.filters.xmlstream.Parameters) filter.getParameters();
-            String config = IOUtils.toString(System.class.getResourceAsStream(OKAPI_CUSTOM_CONFIGS_PATH + DITA_CONFIG_FILENAME), "UTF-8");
-            params.fromString(config);
-        } catch (IOException e) {
-            System.err.println("Dita custom configuration could not be loaded");
-        }
+        applyConfiguration(filter, DITA_CONFIG_FILENAME);
         return filter;
     }
 
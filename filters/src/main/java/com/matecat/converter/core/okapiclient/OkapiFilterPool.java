@@ -0,0 +1,92 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.util.Config;
+import net.sf.okapi.common.filters.IFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+
+
+/**
+ * Pool of configured Okapi filters, by format
+ *
+ * Creating a filter means configuring its parameters, and for some formats parsing a custom configuration:
+ * instead of doing it for every conversion, filters are borrowed from the pool and returned after use.
+ * Returned filters are closed, which resets them for the next document, the same way Okapi reuses a filter
+ * for all the documents of a batch. Filters used by a failed conversion are discarded.
+ *
+ * At most Config.okapiFilterPoolSize idle filters are kept for each format.
+ */
+class OkapiFilterPool {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(OkapiFilterPool.class);
+
+    // Idle filters, by format
+    private static final Map<Format, BlockingDeque<IFilter>> IDLE = new ConcurrentHashMap<>();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private OkapiFilterPool() {}
+
+
+    /**
+     * Borrow a filter; it must be given back with release once the conversion is over
+     * @param format Format of the document
+     * @return Filter configured for the format, idle or newly created
+     */
+    static IFilter borrow(Format format) {
+        BlockingDeque<IFilter> idle = IDLE.get(format);
+        IFilter filter = idle == null ? null : idle.pollFirst();
+        return filter != null ? filter : OkapiFilterFactory.getFilter(format);
+    }
+
+
+    /**
+     * Give back a borrowed filter
+     * @param format Format the filter was borrowed for
+     * @param filter Filter
+     * @param reusable False if the conversion failed, and the filter may be left in an inconsistent state
+     */
+    static void release(Format format, IFilter filter, boolean reusable) {
+        try {
+            filter.close();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Exception closing the {} filter, discarding it", format, e);
+            return;
+        }
+        if (reusable && Config.okapiFilterPoolSize > 0)
+            IDLE.computeIfAbsent(format, key -> new LinkedBlockingDeque<>(Config.okapiFilterPoolSize)).offerFirst(filter);
+    }
+
+
+    /**
+     * Get the class of the filters used for a format
+     * @param format Format
+     * @return Filter class
+     */
+    static Class<? extends IFilter> getFilterClass(Format format) {
+        IFilter filter = borrow(format);
+        release(format, filter, true);
+        return filter.getClass();
+    }
+
+
+    /**
+     * Get the number of idle filters of a format
+     * @param format Format
+     * @return Idle filters
+     */
+    static int getIdleCount(Format format) {
+        BlockingDeque<IFilter> idle = IDLE.get(format);
+        return idle == null ? 0 : idle.size();
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.util.Config;
+import net.sf.okapi.common.filters.IFilter;
+import net.sf.okapi.common.pipelinedriver.IPipelineDriver;
+import net.sf.okapi.steps.rainbowkit.creation.ExtractionStep;
+import net.sf.okapi.steps.segmentation.SegmentationStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Supplier;
+
+
+/**
+ * Pool of prebuilt Okapi pipelines
+ *
+ * Building a pipeline means creating the driver and all its steps, with their filter and segmentation rules:
+ * for small documents this costs as much as the conversion itself. Pipelines are built once for every kind of
+ * conversion, identified by a key, and reused: for every document only the root directories and the batch item
+ * change. Pipelines used by a failed conversion are discarded, as they may be left in an inconsistent state.
+ *
+ * At most Config.okapiPipelinePoolSize idle pipelines are kept for each key. The keys don't depend on the
+ * documents' languages, so the idle pipelines, and the filters they hold, are bounded by the formats and the
+ * segmentation rules files.
+ */
+class OkapiPipelinePool {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(OkapiPipelinePool.class);
+
+    // Idle pipelines, by key
+    private static final Map<Key, BlockingDeque<Pipeline>> IDLE = new ConcurrentHashMap<>();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private OkapiPipelinePool() {}
+
+
+    /**
+     * Borrow a pipeline; it must be given back with release once the document has been processed
+     * @param key Kind of the pipeline
+     * @param factory Builder of the pipeline, used if there are no idle ones
+     * @return Pipeline, idle or newly built
+     */
+    static Pipeline borrow(Key key, Supplier<Pipeline> factory) {
+        BlockingDeque<Pipeline> idle = IDLE.get(key);
+        Pipeline pipeline = idle == null ? null : idle.pollFirst();
+        return pipeline != null ? pipeline : factory.get();
+    }
+
+
+    /**
+     * Give back a borrowed pipeline
+     * @param key Key the pipeline was borrowed for
+     * @param pipeline Pipeline
+     * @param reusable False if the processing failed
+     */
+    static void release(Key key, Pipeline pipeline, boolean reusable) {
+        if (reusable && Config.okapiPipelinePoolSize > 0) {
+            pipeline.getDriver().clearItems();
+            if (IDLE.computeIfAbsent(key, k -> new LinkedBlockingDeque<>(Config.okapiPipelinePoolSize)).offerFirst(pipeline))
+                return;
+        }
+        pipeline.destroy(reusable);
+    }
+
+
+    /**
+     * Get the number of idle pipelines of a kind
+     * @param key Kind of the pipelines
+     * @return Idle pipelines
+     */
+    static int getIdleCount(Key key) {
+        BlockingDeque<Pipeline> idle = IDLE.get(key);
+        return idle == null ? 0 : idle.size();
+    }
+
+
+    /**
+     * Kind of pipeline: pipelines with the same key have the same steps, configured the same way. The languages
+     * are not part of the key, as the steps take them from every document
+     */
+    static final class Key {
+
+        private final String kind;
+        private final Format format;
+        private final String srxPath;
+
+        /**
+         * @param kind Kind of processing, like the class of the extraction step
+         * @param format Format of the documents
+         * @param srxPath Path of the segmentation rules, null if the documents are not segmented
+         */
+        Key(String kind, Format format, String srxPath) {
+            this.kind = kind;
+            this.format = format;
+            this.srxPath = srxPath;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return kind.equals(key.kind) && format == key.format
+                    && Objects.equals(srxPath, key.srxPath);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, format, srxPath);
+        }
+
+        @Override
+        public String toString() {
+            return kind + "/" + format + "/" + srxPath;
+        }
+    }
+
+
+    /**
+     * Pipeline driver, with the steps that must be prepared for every document
+     */
+    static class Pipeline {
+
+        private final IPipelineDriver driver;
+        private final Format filterFormat;
+        private final IFilter filter;
+        private final SegmentationStep segmentationStep;
+        private final ExtractionStep extractionStep;
+
+        /**
+         * @param driver Driver, with all the steps
+         * @param filterFormat Format the filter has been borrowed for from the OkapiFilterPool, null if not pooled
+         * @param filter Filter of the documents, null if chosen from the documents
+         * @param segmentationStep Segmentation step, null if the documents are not segmented
+         * @param extractionStep Extraction step, null if it is a merging pipeline
+         */
+        Pipeline(IPipelineDriver driver, Format filterFormat, IFilter filter, SegmentationStep segmentationStep, ExtractionStep extractionStep) {
+            this.driver = driver;
+            this.filterFormat = filterFormat;
+            this.filter = filter;
+            this.segmentationStep = segmentationStep;
+            this.extractionStep = extractionStep;
+        }
+
+        IPipelineDriver getDriver() {
+            return driver;
+        }
+
+        IFilter getFilter() {
+            return filter;
+        }
+
+        SegmentationStep getSegmentationStep() {
+            return segmentationStep;
+        }
+
+        ExtractionStep getExtractionStep() {
+            return extractionStep;
+        }
+
+        /**
+         * Destroy the steps, giving back the filter to its pool
+         * @param reusable False if the processing failed
+         */
+        private void destroy(boolean reusable) {
+            try {
+                driver.destroy();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Exception destroying the pipeline", e);
+                reusable = false;
+            }
+            if (filterFormat != null)
+                OkapiFilterPool.release(filterFormat, filter, reusable);
+        }
+    }
+
+}
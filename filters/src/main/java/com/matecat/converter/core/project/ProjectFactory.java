@@ -1,7 +1,9 @@
 package com.matecat.converter.core.project;
 
 import com.matecat.converter.core.util.Config;
+import com.matecat.converter.core.winconverter.FileTooBigException;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,25 +28,83 @@ public class ProjectFactory {
     private ProjectFactory() {}
 
     /**
-     * Create a project given the filename and content of a file
+     * Create a project given the filename and content of a file, not bigger than Config.maxUploadSize
      * @param filename Filename
      * @param uploadedInputStream Input stream containing the contents of the file. It will be closed after processing.
      * @return Project containing the file
+     * @throws FileTooBigException If the contents are bigger than the maximum size
      */
     public static Project createProject(String filename, InputStream uploadedInputStream) {
+        return createProject(filename, uploadedInputStream, Config.maxUploadSize);
+    }
+
+    /**
+     * Create a project given the filename and content of a file, not bigger than the given size
+     *
+     * The contents are saved only up to the maximum size: a stream inflating what it reads, like a gzip bomb,
+     * is stopped as soon as it exceeds it, before filling the disk.
+     * @param filename Filename
+     * @param uploadedInputStream Input stream containing the contents of the file. It will be closed after processing.
+     * @param maxSize Maximum size of the file, in bytes; 0 for no limit
+     * @return Project containing the file
+     * @throws FileTooBigException If the contents are bigger than the maximum size
+     */
+    public static Project createProject(String filename, InputStream uploadedInputStream, long maxSize) {
+        File folder = createFolder(filename);
         try {
 
-            // Load the folder
-            File folder = Files.createTempDirectory(Paths.get(Config.cacheFolder), "").toFile();
+            // Save the file inside the temporal, reading a byte more than the maximum to know if it's exceeded
+            File file = new File(folder.getPath() + File.separator + filename);
+            InputStream inputStream = maxSize > 0 ? new BoundedInputStream(uploadedInputStream, maxSize + 1) : uploadedInputStream;
+            FileUtils.copyInputStreamToFile(inputStream, file);
+            if (maxSize > 0 && file.length() > maxSize) {
+                FileUtils.deleteQuietly(folder);
+                throw new FileTooBigException(filename);
+            }
 
-            // Save the file inside the temporal
+            return createProject(file);
+        }
+        catch (IOException e) {
+            LOGGER.error("Exception saving file in cache folder", e);
+            FileUtils.deleteQuietly(folder);
+            throw new ProjectCreationException(String.format("It was not possible to create a project for the file '%s'", filename));
+        }
+    }
+
+    /**
+     * Create a project given the filename and a file already saved on disk, like an upload
+     *
+     * The file is moved into the project, so it is not copied when it lies in the same filesystem of the
+     * cache folder.
+     * @param filename Filename
+     * @param uploadedFile File to move into the project
+     * @return Project containing the file
+     */
+    public static Project createProject(String filename, File uploadedFile) {
+        File folder = null;
+        try {
+            folder = createFolder(filename);
             File file = new File(folder.getPath() + File.separator + filename);
-            FileUtils.copyInputStreamToFile(uploadedInputStream, file);
+            Files.move(uploadedFile.toPath(), file.toPath());
+            return createProject(file);
+        }
+        catch (IOException e) {
+            LOGGER.error("Exception moving file in cache folder", e);
+            FileUtils.deleteQuietly(folder);
+            throw new ProjectCreationException(String.format("It was not possible to create a project for the file '%s'", filename));
+        }
+        finally {
+            // Nothing to do if moved, otherwise don't leave it around
+            FileUtils.deleteQuietly(uploadedFile);
+        }
+    }
 
-            // Return the project
-            Project project = new Project(file);
-            LOGGER.info("Caching files in {}", project.getFolder().getPath());
-            return project;
+    /**
+     * Create a new temporal folder for a project
+     */
+    private static File createFolder(String filename) {
+        try {
+            return Files.createTempDirectory(Paths.get(Config.cacheFolder), "").toFile();
         }
         catch (IOException e) {
             LOGGER.error("Exception creating cache folder", e);
@@ -52,4 +112,17 @@ public class ProjectFactory {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Create the project of a file saved in its folder, checking its size
+     */
+    private static Project createProject(File file) {
+        if (Config.maxUploadSize > 0 && file.length() > Config.maxUploadSize) {
+            FileUtils.deleteQuietly(file.getParentFile());
+            throw new FileTooBigException(file.getName());
+        }
+        Project project = new Project(file);
+        LOGGER.info("Caching files in {}", project.getFolder().getPath());
+        return project;
+    }
+
+}
@@ -21,6 +21,33 @@ public class Config {
 
     // Configuration params
     public static final int serverPort;
+    public static final int serverMaxThreads;
+    public static final int serverMinThreads;
+    public static final int serverThreadIdleTimeout;
+    public static final int serverMaxQueuedRequests;
+    public static final int serverAcceptors;
+    public static final int serverSelectors;
+    public static final int serverAcceptQueueSize;
+    public static final int serverIdleTimeout;
+    public static final int serverOutputBufferSize;
+    public static final boolean virtualThreads;
+    public static final int okapiMaxConcurrent;
+    public static final int okapiFilterPoolSize;
+    public static final int okapiPipelinePoolSize;
+    public static final boolean okapiMemoryExtraction;
+    public static final boolean archiveParallelExtraction;
+    public static final int archiveExtractionThreads;
+    public static final boolean coalesceConversions;
+    public static final boolean warmUp;
+    public static final boolean memoryAdmission;
+    public static final int memoryAdmissionHeapShare;
+    public static final int memoryAdmissionMaxWait;
+    public static final boolean memoryAdmissionLearning;
+    public static final int xliffBase64LineLength;
+    public static final int extractionTimeout;
+    public static final Map<String, Integer> extractionFormatTimeout;
+    public static final int mergeTimeout;
+    public static final Map<String, Integer> mergeFormatTimeout;
     public static final String cacheFolder;
     public static final String errorsFolder;
     public static final boolean deleteOnClose;
@@ -31,17 +58,97 @@ public class Config {
     public static final Integer winConvPort;
     public static final List<Class> customFilters;
     public static final String customSegmentationFolder;
+    public static final int jobsPoolSize;
+    public static final int jobsQueueSize;
+    public static final int jobsResultTtl;
+    public static final int jobsMaxWait;
+    public static final int admissionMaxConcurrent;
+    public static final Map<String, Integer> admissionEndpointMaxConcurrent;
+    public static final int admissionMaxQueue;
+    public static final int admissionMaxQueueTime;
+    public static final long maxUploadSize;
+    public static final int batchMaxFiles;
+    public static final long batchMaxSize;
+    public static final int batchMaxParallel;
+    public static final int gzipCompressionLevel;
+    public static final int gzipMinSize;
 
     public static final List<InetSocketAddress> winConvs = new ArrayList<>();
 
     
     static {
-        try (InputStream inputStream = System.class.getResourceAsStream("/config.properties")) {
+        try (InputStream inputStream = Config.class.getResourceAsStream("/config.properties")) {
             Properties props = new Properties();
             props.load(inputStream);
 
             serverPort = Integer.parseInt(props.getProperty("server-port"));
 
+            // Http server tuning, with defaults derived from the resources of the container
+            int processors = ContainerResources.getAvailableProcessors();
+            int defaultMaxThreads = Math.max(16, Math.min(256, processors * 8));
+            long memoryLimit = ContainerResources.getMemoryLimit();
+            if (memoryLimit > 0)
+                // Reserve about 16MB of memory for each thread
+                defaultMaxThreads = Math.max(16, (int) Math.min(defaultMaxThreads, memoryLimit / (16 * 1024 * 1024)));
+            serverMaxThreads = getIntProperty(props, "server-max-threads", defaultMaxThreads);
+            serverMinThreads = getIntProperty(props, "server-min-threads", Math.min(8, serverMaxThreads));
+            serverThreadIdleTimeout = getIntProperty(props, "server-thread-idle-timeout", 60000);
+            serverMaxQueuedRequests = getIntProperty(props, "server-max-queued-requests", serverMaxThreads * 4);
+            serverAcceptors = getIntProperty(props, "server-acceptors", Math.max(1, Math.min(4, processors / 8)));
+            serverSelectors = getIntProperty(props, "server-selectors", Math.max(1, Math.min(4, processors / 2)));
+            serverAcceptQueueSize = getIntProperty(props, "server-accept-queue-size", serverMaxThreads);
+            serverIdleTimeout = getIntProperty(props, "server-idle-timeout", 30000);
+            serverOutputBufferSize = getIntProperty(props, "server-output-buffer-size", 32 * 1024);
+
+            // Virtual threads mode
+            virtualThreads = Boolean.parseBoolean(props.getProperty("virtual-threads"));
+            okapiMaxConcurrent = getIntProperty(props, "okapi-max-concurrent", processors);
+
+            // Idle Okapi filters kept for reuse, for each format
+            okapiFilterPoolSize = getIntProperty(props, "okapi-filter-pool-size", processors);
+
+            // Idle Okapi pipelines kept for reuse, for each kind of conversion
+            okapiPipelinePoolSize = getIntProperty(props, "okapi-pipeline-pool-size", processors);
+
+            // Okapi packs of the extractions are kept in memory instead of being written on disk
+            String okapiMemoryExtractionVal = props.getProperty("okapi-memory-extraction");
+            okapiMemoryExtraction = okapiMemoryExtractionVal == null || okapiMemoryExtractionVal.trim().isEmpty()
+                    || Boolean.parseBoolean(okapiMemoryExtractionVal.trim());
+
+            // Entries of the archives extracted concurrently as independent sub-documents
+            archiveParallelExtraction = Boolean.parseBoolean(props.getProperty("archive-parallel-extraction"));
+            archiveExtractionThreads = getIntProperty(props, "archive-extraction-threads", processors);
+
+            // Identical conversions running at the same time share their result
+            String coalesceConversionsVal = props.getProperty("coalesce-conversions");
+            coalesceConversions = coalesceConversionsVal == null || coalesceConversionsVal.trim().isEmpty()
+                    || Boolean.parseBoolean(coalesceConversionsVal.trim());
+
+            // Sample documents converted at boot, before declaring the server ready
+            String warmUpVal = props.getProperty("warm-up");
+            warmUp = warmUpVal == null || warmUpVal.trim().isEmpty() || Boolean.parseBoolean(warmUpVal.trim());
+
+            // Conversions admitted by the heap they need
+            String memoryAdmissionVal = props.getProperty("memory-admission");
+            memoryAdmission = memoryAdmissionVal == null || memoryAdmissionVal.trim().isEmpty()
+                    || Boolean.parseBoolean(memoryAdmissionVal.trim());
+            memoryAdmissionHeapShare = getIntProperty(props, "memory-admission-heap-share", 60);
+            if (memoryAdmissionHeapShare <= 0 || memoryAdmissionHeapShare > 100)
+                throw new RuntimeException("Param memory-admission-heap-share must be between 1 and 100");
+            memoryAdmissionMaxWait = getIntProperty(props, "memory-admission-max-wait", 300);
+            memoryAdmissionLearning = Boolean.parseBoolean(props.getProperty("memory-admission-learning"));
+
+            // Lines of the files embedded in base64 into the xliffs
+            xliffBase64LineLength = getIntProperty(props, "xliff-base64-line-length", 0);
+            if (xliffBase64LineLength < 0)
+                throw new RuntimeException("Param xliff-base64-line-length can't be negative");
+
+            // Time budgets of the Okapi pipelines, in seconds, with overrides by format
+            extractionTimeout = getIntProperty(props, "extraction-timeout", 600);
+            extractionFormatTimeout = getOverrides(props, "extraction-timeout", extractionTimeout);
+            mergeTimeout = getIntProperty(props, "merge-timeout", 600);
+            mergeFormatTimeout = getOverrides(props, "merge-timeout", mergeTimeout);
+
             String cacheFolderVal = checkFolderValidity(props.getProperty("cache-folder"), true, true);
             if (cacheFolderVal.isEmpty()) {
                 // Can be here because:
@@ -99,6 +206,39 @@ public class Config {
             	  LOGGER.warn("custom-segmentation-folder param empty or invalid: custom segmentation disabled");
             }
 
+
+            // Asynchronous jobs executor
+            jobsPoolSize = getIntProperty(props, "jobs-pool-size", ContainerResources.getAvailableProcessors());
+            jobsQueueSize = getIntProperty(props, "jobs-queue-size", 100);
+            jobsResultTtl = getIntProperty(props, "jobs-result-ttl", 3600);
+            jobsMaxWait = getIntProperty(props, "jobs-max-wait", 60);
+
+            // Admission control of the synchronous conversions
+            admissionMaxConcurrent = getIntProperty(props, "admission-max-concurrent", ContainerResources.getAvailableProcessors());
+            admissionEndpointMaxConcurrent = getOverrides(props, "admission-max-concurrent", admissionMaxConcurrent);
+            admissionMaxQueue = getIntProperty(props, "admission-max-queue", 50);
+            admissionMaxQueueTime = getIntProperty(props, "admission-max-queue-time", 30000);
+
+            // Uploads size limit, from MB to bytes (0 = no limit)
+            maxUploadSize = getIntProperty(props, "max-upload-size", 0) * 1024L * 1024L;
+
+            // Batches limits, the size from MB to bytes
+            batchMaxFiles = getIntProperty(props, "batch-max-files", 500);
+            if (batchMaxFiles <= 0)
+                throw new RuntimeException("Param batch-max-files must be positive");
+            batchMaxSize = getIntProperty(props, "batch-max-size", 2048) * 1024L * 1024L;
+            if (batchMaxSize <= 0)
+                throw new RuntimeException("Param batch-max-size must be positive");
+            batchMaxParallel = getIntProperty(props, "batch-max-parallel", jobsPoolSize);
+            if (batchMaxParallel <= 0)
+                throw new RuntimeException("Param batch-max-parallel must be positive");
+
+            // Compression of the responses
+            gzipCompressionLevel = getIntProperty(props, "gzip-compression-level", 6);
+            if (gzipCompressionLevel < 0 || gzipCompressionLevel > 9)
+                throw new RuntimeException("Param gzip-compression-level must be between 0 and 9");
+            gzipMinSize = getIntProperty(props, "gzip-min-size", 1024);
+
         }
         catch (Exception e) {
             throw new RuntimeException("Exception while loading config.properties.", e);
@@ -106,6 +246,45 @@ public class Config {
     }
 
     
+    /**
+     * Read an integer param, falling back on a default value when the param is missing or empty
+     * @param props Loaded properties
+     * @param key Param name
+     * @param defaultValue Value to use if the param is not set
+     * @return The param value
+     */
+    static int getIntProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Param " + key + " must be an integer, found: " + value);
+        }
+    }
+
+
+    /**
+     * Read the overrides of an integer param, named param.qualifier
+     * @param props Loaded properties
+     * @param key Param name
+     * @param defaultValue Value to use if an override is empty
+     * @return The overridden values, by qualifier
+     */
+    static Map<String, Integer> getOverrides(Properties props, String key, int defaultValue) {
+        Map<String, Integer> overrides = new HashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith(key + ".")) {
+                String qualifier = name.substring(key.length() + 1);
+                overrides.put(qualifier, getIntProperty(props, name, defaultValue));
+            }
+        }
+        return Collections.unmodifiableMap(overrides);
+    }
+
+
     /**
      * Check the validity of an user provided folder.
      * 
@@ -0,0 +1,121 @@
+package com.matecat.converter.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+
+/**
+ * Resources available to the process, used to derive the default values of the configuration
+ *
+ * When running in a container the limits of its cgroup (both v1 and v2) are honoured, so the defaults depend on
+ * the CPU quota and memory limit of the container rather than on the host ones.
+ */
+public class ContainerResources {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContainerResources.class);
+
+    // cgroup v2 files
+    private static final Path CGROUP2_CPU_MAX = Paths.get("/sys/fs/cgroup/cpu.max");
+    private static final Path CGROUP2_MEMORY_MAX = Paths.get("/sys/fs/cgroup/memory.max");
+
+    // cgroup v1 files
+    private static final Path CGROUP1_CPU_QUOTA = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_quota_us");
+    private static final Path CGROUP1_CPU_PERIOD = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_period_us");
+    private static final Path CGROUP1_MEMORY_LIMIT = Paths.get("/sys/fs/cgroup/memory/memory.limit_in_bytes");
+
+    // Limits above this value mean "no limit" in cgroup v1
+    private static final long CGROUP1_UNLIMITED_MEMORY = Long.MAX_VALUE / 2;
+
+    // Detected resources
+    private static final int AVAILABLE_PROCESSORS = detectAvailableProcessors();
+    private static final long MEMORY_LIMIT = detectMemoryLimit();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private ContainerResources() {}
+
+
+    /**
+     * Get the number of processors the process can use
+     * @return Processors, at least 1
+     */
+    public static int getAvailableProcessors() {
+        return AVAILABLE_PROCESSORS;
+    }
+
+
+    /**
+     * Get the memory the process (including the JVM heap) can use
+     * @return Memory limit in bytes, or -1 if there is no limit
+     */
+    public static long getMemoryLimit() {
+        return MEMORY_LIMIT;
+    }
+
+
+    private static int detectAvailableProcessors() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        try {
+            double quota = -1;
+            String cpuMax = read(CGROUP2_CPU_MAX);
+            if (cpuMax != null) {
+                // Format: "<quota|max> <period>"
+                String[] values = cpuMax.split("\\s+");
+                if (!values[0].equals("max"))
+                    quota = Double.parseDouble(values[0]) / Double.parseDouble(values[1]);
+            } else {
+                String cpuQuota = read(CGROUP1_CPU_QUOTA);
+                String cpuPeriod = read(CGROUP1_CPU_PERIOD);
+                if (cpuQuota != null && cpuPeriod != null && Long.parseLong(cpuQuota) > 0)
+                    quota = Double.parseDouble(cpuQuota) / Double.parseDouble(cpuPeriod);
+            }
+            if (quota > 0)
+                processors = Math.min(processors, (int) Math.ceil(quota));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to read the CPU quota of the cgroup", e);
+        }
+        return Math.max(processors, 1);
+    }
+
+
+    private static long detectMemoryLimit() {
+        try {
+            String memoryMax = read(CGROUP2_MEMORY_MAX);
+            if (memoryMax != null)
+                return memoryMax.equals("max") ? -1 : Long.parseLong(memoryMax);
+            String memoryLimit = read(CGROUP1_MEMORY_LIMIT);
+            if (memoryLimit != null) {
+                long limit = Long.parseLong(memoryLimit);
+                return limit >= CGROUP1_UNLIMITED_MEMORY ? -1 : limit;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to read the memory limit of the cgroup", e);
+        }
+        return -1;
+    }
+
+
+    /**
+     * Read the trimmed content of a file
+     * @return Content, or null if the file can't be read
+     */
+    private static String read(Path path) {
+        try {
+            if (!Files.isReadable(path))
+                return null;
+            return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+}
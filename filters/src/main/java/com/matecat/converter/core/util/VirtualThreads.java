@@ -0,0 +1,107 @@
+package com.matecat.converter.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Factory of the threads used by the server and the conversions
+ *
+ * When Config.virtualThreads is enabled and the JDK supports virtual threads (Java 21+), the threads created are
+ * virtual: blocking on I/O (uploads, Win Converter sockets, Okapi files) then releases the underlying OS thread.
+ * Otherwise regular platform threads are created. The virtual threads API is accessed through reflection, so
+ * the application keeps running on Java 8.
+ */
+public class VirtualThreads {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+    // Thread.Builder methods, null if virtual threads are not supported
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+
+    static {
+        Method ofVirtual = null, builderName = null, builderFactory = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+    }
+
+    // Whether the virtual threads are used
+    private static final boolean ENABLED = initEnabled();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private VirtualThreads() {}
+
+
+    /**
+     * Check if the JDK supports the virtual threads
+     * @return True if supported
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+
+    /**
+     * Check if the threads created by this class are virtual
+     * @return True if virtual threads are enabled and supported
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+
+    /**
+     * Create a thread factory, whose threads are daemon and named with the given prefix followed by a counter
+     * @param prefix Name prefix
+     * @return Thread factory, creating virtual threads if enabled
+     */
+    public static ThreadFactory newThreadFactory(String prefix) {
+        if (ENABLED) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                builder = BUILDER_NAME.invoke(builder, prefix + "-", 1L);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create virtual threads", e);
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+
+    private static boolean initEnabled() {
+        if (!Config.virtualThreads)
+            return false;
+        if (!isSupported()) {
+            LOGGER.warn("Virtual threads are not supported by this JDK ({}): using platform threads", System.getProperty("java.version"));
+            return false;
+        }
+        LOGGER.info("Using virtual threads");
+        return true;
+    }
+
+}
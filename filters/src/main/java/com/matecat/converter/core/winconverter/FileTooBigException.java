@@ -13,4 +13,13 @@ public class FileTooBigException extends IllegalArgumentException {
         super("The given file \"" + filename + "\" is bigger than the maximum size allowed");
     }
 
+    /**
+     * Constructor used when the filename is still unknown, including the sizes into the exception message
+     * @param size Size of the file, in bytes
+     * @param maxSize Maximum size allowed, in bytes
+     */
+    public FileTooBigException(long size, long maxSize) {
+        super("The given file (" + size + " bytes) is bigger than the maximum size allowed (" + maxSize + " bytes)");
+    }
+
 }
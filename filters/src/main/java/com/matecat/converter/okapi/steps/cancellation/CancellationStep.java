@@ -0,0 +1,33 @@
+package com.matecat.converter.okapi.steps.cancellation;
+
+import com.matecat.converter.core.okapiclient.ConversionBudget;
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.pipeline.BasePipelineStep;
+
+
+/**
+ * Step stopping the pipeline when it has exceeded its time budget
+ *
+ * It must follow the filter step: between two events produced by the filter it checks whether the pipeline
+ * running on the thread has been cancelled, and in case it throws a ConversionTimeoutException.
+ *
+ * @see ConversionBudget
+ */
+public class CancellationStep extends BasePipelineStep {
+
+    @Override
+    public Event handleEvent(Event event) {
+        ConversionBudget.checkCurrent();
+        return super.handleEvent(event);
+    }
+
+    @Override
+    public String getName() {
+        return "CancellationStep";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Stops the pipeline, between two events, when it has exceeded its time budget.";
+    }
+}
@@ -0,0 +1,166 @@
+package com.matecat.converter.okapi.steps.rainbowkit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Stream turning the XLIFF written by the Okapi XLIFFWriter into a MateCat XLIFF while it is written
+ *
+ * It applies the same changes of XliffBuilder, without parsing the whole XLIFF:
+ * 1. The file elements with the original file and the manifest are written before the first 'file' element
+ * 2. A leading underscore is added to all the 'ex' ids, and an 'ex' without id gets id="_"
+ *
+ * The XLIFFWriter escapes '<' in texts and attribute values, so the tags are matched on the raw UTF-8 bytes.
+ * The start tags of the 'ex' elements are buffered up to their end and their attributes parsed, so the order of
+ * the attributes and the quotes used by the writer don't matter.
+ */
+class MatecatXliffOutputStream extends FilterOutputStream {
+
+    private static final String FILE_NAME = "<file";
+    private static final String EX_NAME = "<ex";
+
+    // Attributes of a start tag: leading whitespace, name, equal sign and quoted value
+    private static final Pattern ATTRIBUTE_PATTERN = Pattern.compile("(\\s+)([^\\s=/>]+)(\\s*=\\s*)(\"[^\"]*\"|'[^']*')");
+
+    // Writer of the leading file elements, null once written
+    private LeadingElementsWriter leadingElementsWriter;
+
+    // Bytes of a tag being matched
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+    // True while buffering the start tag of an 'ex', and the quote of the attribute value being read
+    private boolean inExTag = false;
+    private int quote = 0;
+
+
+    /**
+     * Writer of the file elements inserted before the first 'file' element
+     */
+    @FunctionalInterface
+    interface LeadingElementsWriter {
+        void write(OutputStream output) throws IOException;
+    }
+
+
+    MatecatXliffOutputStream(OutputStream output, LeadingElementsWriter leadingElementsWriter) {
+        super(output);
+        this.leadingElementsWriter = leadingElementsWriter;
+    }
+
+
+    @Override
+    public void write(int b) throws IOException {
+        if (pending.size() == 0 && b != '<') {
+            out.write(b);
+            return;
+        }
+        pending.write(b);
+
+        if (inExTag) {
+            if (quote == 0 && (b == '"' || b == '\''))
+                quote = b;
+            else if (b == quote)
+                quote = 0;
+            else if (quote == 0 && b == '>')
+                writeExTag();
+            return;
+        }
+
+        String tag = new String(pending.toByteArray(), StandardCharsets.US_ASCII);
+        String name = tag.substring(0, tag.length() - 1);
+        boolean nameEnd = pending.size() > 1 && isNameEnd(b);
+        if (nameEnd && name.equals(EX_NAME)) {
+            inExTag = true;
+            if (b == '>')
+                writeExTag();
+        } else if (nameEnd && name.equals(FILE_NAME) && leadingElementsWriter != null) {
+            leadingElementsWriter.write(out);
+            leadingElementsWriter = null;
+            flushPending();
+        } else if (!EX_NAME.startsWith(tag) && !(leadingElementsWriter != null && FILE_NAME.startsWith(tag))) {
+            // Not a tag we are looking for, but the last byte may start one
+            if (b == '<' && pending.size() > 1) {
+                out.write(pending.toByteArray(), 0, pending.size() - 1);
+                pending.reset();
+                pending.write('<');
+            } else {
+                flushPending();
+            }
+        }
+    }
+
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int end = off + len;
+        while (off < end) {
+            if (pending.size() > 0) {
+                write(b[off++]);
+                continue;
+            }
+            // Copy everything up to the next tag as it is
+            int next = off;
+            while (next < end && b[next] != '<')
+                next++;
+            out.write(b, off, next - off);
+            if (next < end)
+                write(b[next++]);
+            off = next;
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        flushPending();
+        super.close();
+    }
+
+
+    /**
+     * Write the buffered start tag of an 'ex', with its id prefixed as XliffBuilder does
+     */
+    private void writeExTag() throws IOException {
+        String tag = new String(pending.toByteArray(), StandardCharsets.UTF_8);
+        StringBuilder rewritten = new StringBuilder(tag.length() + 8);
+        Matcher matcher = ATTRIBUTE_PATTERN.matcher(tag);
+        matcher.region(EX_NAME.length(), tag.length());
+        int idValueStart = -1;
+        while (matcher.find()) {
+            if (matcher.group(2).equals("id")) {
+                // After the opening quote
+                idValueStart = matcher.start(4) + 1;
+                break;
+            }
+        }
+        if (idValueStart >= 0)
+            rewritten.append(tag, 0, idValueStart).append('_').append(tag, idValueStart, tag.length());
+        else
+            rewritten.append(EX_NAME).append(" id=\"_\"").append(tag, EX_NAME.length(), tag.length());
+        out.write(rewritten.toString().getBytes(StandardCharsets.UTF_8));
+        pending.reset();
+        inExTag = false;
+        quote = 0;
+    }
+
+
+    private void flushPending() throws IOException {
+        pending.writeTo(out);
+        pending.reset();
+    }
+
+
+    /**
+     * Check if a byte ends the name of a tag
+     */
+    private static boolean isNameEnd(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '/' || b == '>';
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.matecat.converter.okapi.steps.rainbowkit;
+
+import net.sf.okapi.common.Event;
+import net.sf.okapi.steps.rainbowkit.creation.ExtractionStep;
+import net.sf.okapi.steps.rainbowkit.creation.Parameters;
+
+import java.io.OutputStream;
+
+
+/**
+ * Extraction step creating the pack in memory
+ *
+ * It is the Okapi ExtractionStep using a MemoryXliffPackageWriter: the MateCat XLIFF is written directly into the
+ * output set before every batch, and nothing is written in the pack folder, see MemoryXliffPackageWriter.
+ */
+public class MemoryExtractionStep extends ExtractionStep {
+
+    private OutputStream xliffOutput;
+    private MemoryXliffPackageWriter.FileElementsWriter fileElementsWriter;
+
+
+    public MemoryExtractionStep() {
+        super();
+        ((Parameters) getParameters()).setWriterClass(MemoryXliffPackageWriter.class.getName());
+    }
+
+
+    /**
+     * Set the output of the MateCat XLIFF of the next batch, when the step is reused
+     * @param xliffOutput Output of the XLIFF, null once the batch has been processed
+     * @param fileElementsWriter Writer of the file elements with the original file and the manifest
+     */
+    public void setXliffOutput(OutputStream xliffOutput, MemoryXliffPackageWriter.FileElementsWriter fileElementsWriter) {
+        this.xliffOutput = xliffOutput;
+        this.fileElementsWriter = fileElementsWriter;
+    }
+
+
+    @Override
+    protected Event handleStartBatch(Event event) {
+        Event result = super.handleStartBatch(event);
+        ((MemoryXliffPackageWriter) getPackageWriter()).setXliffOutput(xliffOutput, fileElementsWriter);
+        return result;
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.matecat.converter.okapi.steps.rainbowkit;
+
+import com.matecat.converter.core.okapiclient.OkapiPack;
+import net.sf.okapi.common.Base64;
+import net.sf.okapi.common.Event;
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.common.Util;
+import net.sf.okapi.common.XMLWriter;
+import net.sf.okapi.common.filterwriter.XLIFFWriter;
+import net.sf.okapi.common.filterwriter.XLIFFWriterParameters;
+import net.sf.okapi.filters.rainbowkit.Manifest;
+import net.sf.okapi.filters.rainbowkit.MergingInfo;
+import net.sf.okapi.steps.rainbowkit.common.BasePackageWriter;
+import net.sf.okapi.steps.rainbowkit.xliff.Options;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+
+/**
+ * Package writer keeping the pack in memory
+ *
+ * It writes the same work XLIFF and manifest of the Okapi XLIFFPackageWriter, but instead of saving them in the
+ * pack folder it writes the MateCat XLIFF directly into the given output: the file elements with the original file
+ * and the manifest are written before the XLIFF, and the 'ex' ids are prefixed as XliffBuilder does.
+ * The original file is not copied into the pack: it is the extracted file itself, already on disk.
+ * The TMX files, never used by MateCat, are not generated.
+ *
+ * It is instantiated by the ExtractionStep from its parameters, see MemoryExtractionStep.
+ */
+public class MemoryXliffPackageWriter extends BasePackageWriter {
+
+    // Date format of the manifest
+    private static final String MANIFEST_DATE_FORMAT = "yyyy-MM-dd HH:mm:ssZ";
+
+    private Options options;
+    private XLIFFWriter writer;
+    private byte[] manifestContent;
+
+    // Output of the MateCat XLIFF
+    private OutputStream xliffOutput;
+    private FileElementsWriter fileElementsWriter;
+
+
+    /**
+     * Writer of the file elements with the original file and the manifest, written before the translatable ones
+     */
+    @FunctionalInterface
+    public interface FileElementsWriter {
+        void write(OutputStream output, byte[] manifest, LocaleId sourceLocale, LocaleId targetLocale) throws IOException;
+    }
+
+
+    public MemoryXliffPackageWriter() {
+        super(Manifest.EXTRACTIONTYPE_XLIFF);
+    }
+
+
+    /**
+     * Set the output of the MateCat XLIFF, before processing the document
+     * @param xliffOutput Output of the XLIFF, closed once the document has been processed
+     * @param fileElementsWriter Writer of the file elements with the original file and the manifest
+     */
+    public void setXliffOutput(OutputStream xliffOutput, FileElementsWriter fileElementsWriter) {
+        this.xliffOutput = xliffOutput;
+        this.fileElementsWriter = fileElementsWriter;
+    }
+
+
+    @Override
+    protected void processStartBatch() {
+        // Same layout of the XLIFFPackageWriter, so the manifest can be merged as any other pack
+        manifest.setSubDirectories(OkapiPack.ORIGINAL_DIRECTORY_NAME, OkapiPack.WORK_DIRECTORY_NAME,
+                OkapiPack.WORK_DIRECTORY_NAME, OkapiPack.DONE_DIRECTORY_NAME, null, "skeleton", false);
+        options = new Options();
+        if (!Util.isEmpty(params.getWriterOptions()))
+            options.fromString(params.getWriterOptions());
+        setTMXInfo(false, null, options.getPlaceholderMode(), true, false);
+        // The manifest is embedded in the XLIFF, see processStartDocument
+        params.setOuputManifest(false);
+        super.processStartBatch();
+    }
+
+
+    @Override
+    protected void processStartDocument(Event event) {
+        // The base class would copy the original file into the pack: it is not needed
+        if (xliffOutput == null)
+            throw new IllegalStateException("The output of the XLIFF has not been set");
+        MergingInfo item = manifest.getItem(docId);
+        writer = new XLIFFWriter();
+        writer.setOptions(manifest.getTargetLocale(), StandardCharsets.UTF_8.name());
+        // The document is already in the manifest, so it can be embedded before the XLIFF
+        manifestContent = saveManifest();
+        writer.setOutput(new MatecatXliffOutputStream(xliffOutput, output -> fileElementsWriter.write(
+                output, manifestContent, manifest.getSourceLocale(), manifest.getTargetLocale())));
+
+        XLIFFWriterParameters writerParams = writer.getParameters();
+        writerParams.setPlaceholderMode(options.getPlaceholderMode());
+        writerParams.setCopySource(options.getCopySource());
+        writerParams.setIncludeAltTrans(options.getIncludeAltTrans());
+        writerParams.setSetApprovedAsNoTranslate(options.getSetApprovedAsNoTranslate());
+        writerParams.setIncludeNoTranslate(options.getIncludeNoTranslate());
+        writerParams.setIncludeCodeAttrs(options.getIncludeCodeAttrs());
+        writerParams.setIncludeIts(options.getIncludeIts());
+        writerParams.setEscapeGt(options.getEscapeGT());
+
+        String xliffPath = manifest.getTempSourceDirectory() + item.getRelativeInputPath() + ".xlf";
+        writer.create(xliffPath, null, manifest.getSourceLocale(), manifest.getTargetLocale(),
+                event.getStartDocument().getMimeType(), item.getRelativeInputPath(), null);
+    }
+
+
+    @Override
+    protected Event processEndDocument(Event event) {
+        if (writer != null) {
+            writer.handleEvent(event);
+            writer.close();
+            writer = null;
+        }
+        return event;
+    }
+
+
+    @Override
+    protected void processStartSubDocument(Event event) {
+        writer.handleEvent(event);
+    }
+
+
+    @Override
+    protected void processEndSubDocument(Event event) {
+        writer.handleEvent(event);
+    }
+
+
+    @Override
+    protected void processStartGroup(Event event) {
+        writer.handleEvent(event);
+    }
+
+
+    @Override
+    protected void processEndGroup(Event event) {
+        writer.handleEvent(event);
+    }
+
+
+    @Override
+    protected void processTextUnit(Event event) {
+        writer.handleEvent(event);
+    }
+
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+
+    @Override
+    public String getName() {
+        return getClass().getName();
+    }
+
+
+    /**
+     * Serialize the manifest, the same way Manifest.save does on disk
+     * @return Manifest contents
+     */
+    private byte[] saveManifest() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XMLWriter xmlWriter = new XMLWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try {
+            xmlWriter.writeStartDocument();
+            xmlWriter.writeComment("=================================================================", true);
+            xmlWriter.writeComment("PLEASE, DO NOT RENAME, MOVE, MODIFY OR ALTER IN ANY WAY THIS FILE", true);
+            xmlWriter.writeComment("=================================================================", true);
+            xmlWriter.writeStartElement("manifest");
+            xmlWriter.writeAttributeString("version", "2");
+            xmlWriter.writeAttributeString("libVersion", Manifest.class.getPackage().getImplementationVersion());
+            xmlWriter.writeAttributeString("projectId", manifest.getProjectId());
+            xmlWriter.writeAttributeString("packageId", manifest.getPackageId());
+            xmlWriter.writeAttributeString("source", manifest.getSourceLocale().toString());
+            xmlWriter.writeAttributeString("target", manifest.getTargetLocale().toString());
+            xmlWriter.writeAttributeString("originalSubDir", OkapiPack.ORIGINAL_DIRECTORY_NAME);
+            xmlWriter.writeAttributeString("skeletonSubDir", "skeleton");
+            xmlWriter.writeAttributeString("sourceSubDir", OkapiPack.WORK_DIRECTORY_NAME);
+            xmlWriter.writeAttributeString("targetSubDir", OkapiPack.WORK_DIRECTORY_NAME);
+            xmlWriter.writeAttributeString("mergeSubDir", OkapiPack.DONE_DIRECTORY_NAME);
+            xmlWriter.writeAttributeString("tmSubDir", "");
+            xmlWriter.writeAttributeString("date", new SimpleDateFormat(MANIFEST_DATE_FORMAT).format(new Date()));
+            xmlWriter.writeAttributeString("useApprovedOnly", manifest.getUseApprovedOnly() ? "1" : "0");
+            xmlWriter.writeAttributeString("updateApprovedFlag", manifest.getUpdateApprovedFlag() ? "1" : "0");
+            xmlWriter.writeLineBreak();
+            xmlWriter.writeStartElement("creatorParameters");
+            xmlWriter.writeString(Base64.encodeString(manifest.getCreatorParameters()));
+            xmlWriter.writeEndElementLineBreak();
+            for (MergingInfo item : manifest.getItems().values()) {
+                xmlWriter.writeRawXML(item.writeToXML("doc", true));
+                xmlWriter.writeLineBreak();
+            }
+            xmlWriter.writeEndElement();
+            xmlWriter.writeEndDocument();
+        } finally {
+            xmlWriter.close();
+        }
+        return output.toByteArray();
+    }
+
+}
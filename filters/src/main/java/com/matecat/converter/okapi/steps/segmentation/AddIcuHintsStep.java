@@ -1,24 +1,41 @@
 package com.matecat.converter.okapi.steps.segmentation;
 
 import com.ibm.icu.text.BreakIterator;
-import com.ibm.icu.util.ULocale;
 import net.sf.okapi.common.Event;
+import net.sf.okapi.common.LocaleId;
 import net.sf.okapi.common.pipeline.BasePipelineStep;
+import net.sf.okapi.common.pipeline.annotations.StepParameterMapping;
+import net.sf.okapi.common.pipeline.annotations.StepParameterType;
 import net.sf.okapi.common.resource.ITextUnit;
 import net.sf.okapi.common.resource.Segment;
 import net.sf.okapi.common.resource.TextContainer;
 import net.sf.okapi.common.resource.TextFragment;
-import java.util.Locale;
 
 public class AddIcuHintsStep extends BasePipelineStep {
 
     public final static char SENTENCE_BOUNDARY_PLACEHOLDER = '\uE105';
     private final static String UNICODE_WHITESPACES = "[\\pZ\\pC]";
-    private final BreakIterator sentenceIterator;
+    private LocaleId sourceLocale;
+    private LocaleId sentenceIteratorLocale;
+    private BreakIterator sentenceIterator;
 
-    public AddIcuHintsStep(Locale sourceLocale) {
-        super();
-        this.sentenceIterator = BreakIterator.getSentenceInstance(ULocale.forLocale(sourceLocale));
+    /**
+     * Set the source locale of the next batch item: the step can be reused for documents in any language
+     * @param sourceLocale Source locale of the raw document
+     */
+    @StepParameterMapping(parameterType = StepParameterType.SOURCE_LOCALE)
+    public void setSourceLocale(LocaleId sourceLocale) {
+        this.sourceLocale = sourceLocale;
+    }
+
+    @Override
+    protected Event handleStartBatchItem(Event event) {
+        // The iterator is rebuilt only when the language changes
+        if (sentenceIterator == null || !sourceLocale.equals(sentenceIteratorLocale)) {
+            sentenceIterator = BreakIterator.getSentenceInstance(sourceLocale.toIcuLocale());
+            sentenceIteratorLocale = sourceLocale;
+        }
+        return event;
     }
 
     @Override
@@ -0,0 +1,109 @@
+package com.matecat.converter.okapi.steps.segmentation;
+
+import net.sf.okapi.common.Event;
+import net.sf.okapi.steps.segmentation.SegmentationStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+
+
+/**
+ * Segmentation step using a segmenter taken from the SegmenterCache
+ *
+ * The Okapi SegmentationStep loads and compiles its SRX file at every batch item. This step is given the
+ * segmenter already compiled instead, and gives it back to the cache once the document has been segmented;
+ * the segmentation itself is left to the Okapi step.
+ *
+ * The Okapi step has no way to receive a segmenter, so it is set through reflection. If that's not possible
+ * with the Okapi version in use, the step falls back on loading the rules from the source SRX path.
+ */
+public class CachedSegmentationStep extends SegmentationStep {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedSegmentationStep.class);
+
+    // Source segmenter field of the Okapi step, null if not accessible
+    private static final Field SOURCE_SEGMENTER_FIELD;
+    static {
+        Field field;
+        try {
+            field = SegmentationStep.class.getDeclaredField("srcSeg");
+            field.setAccessible(true);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Cannot set the segmenter of the Okapi SegmentationStep: segmentation rules won't be cached");
+            field = null;
+        }
+        SOURCE_SEGMENTER_FIELD = field;
+    }
+
+    private SegmenterCache.Lease lease;
+
+
+    /**
+     * Create the step
+     * @param lease Segmenter of the source language, given back to the cache once used
+     * @param srxPath Path of the SRX file the segmenter was compiled from
+     */
+    public CachedSegmentationStep(SegmenterCache.Lease lease, String srxPath) {
+        super();
+        this.lease = lease;
+        net.sf.okapi.steps.segmentation.Parameters params = (net.sf.okapi.steps.segmentation.Parameters) getParameters();
+        params.setSourceSrxPath(srxPath);
+    }
+
+
+    /**
+     * Set the segmenter of the next document, when the step is reused
+     * @param lease Segmenter of the source language, given back to the cache once used
+     */
+    public void setLease(SegmenterCache.Lease lease) {
+        releaseSegmenter();
+        this.lease = lease;
+    }
+
+
+    /**
+     * Check if the segmenters can be given to the Okapi step
+     * @return True if supported, false if the step loads the rules by itself
+     */
+    public static boolean isSupported() {
+        return SOURCE_SEGMENTER_FIELD != null;
+    }
+
+
+    @Override
+    protected Event handleStartBatchItem(Event event) {
+        if (SOURCE_SEGMENTER_FIELD == null || lease == null)
+            return super.handleStartBatchItem(event);
+        try {
+            SOURCE_SEGMENTER_FIELD.set(this, lease.getSegmenter());
+        } catch (IllegalAccessException e) {
+            return super.handleStartBatchItem(event);
+        }
+        return event;
+    }
+
+
+    @Override
+    protected Event handleEndBatchItem(Event event) {
+        releaseSegmenter();
+        return super.handleEndBatchItem(event);
+    }
+
+
+    @Override
+    public void destroy() {
+        releaseSegmenter();
+        super.destroy();
+    }
+
+
+    private void releaseSegmenter() {
+        if (lease != null) {
+            lease.release();
+            lease = null;
+        }
+    }
+
+}
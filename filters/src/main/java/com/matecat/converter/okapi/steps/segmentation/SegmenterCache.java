@@ -0,0 +1,134 @@
+package com.matecat.converter.okapi.steps.segmentation;
+
+import net.sf.okapi.common.ISegmenter;
+import net.sf.okapi.common.LocaleId;
+import net.sf.okapi.lib.segmentation.SRXDocument;
+import net.sf.okapi.steps.segmentation.Parameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * Cache of the segmentation rules and of the segmenters compiled from them
+ *
+ * SRX files are parsed once, and their rules compiled once per language, instead of in every pipeline.
+ * Rules are kept by file path and reloaded when the modification time of the file changes, so edited custom
+ * segmentations are picked up without restarting.
+ *
+ * Segmenters keep the state of the text being segmented, so each one is used by a single pipeline at a time:
+ * they are borrowed and given back once the document has been segmented.
+ */
+public class SegmenterCache {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmenterCache.class);
+
+    // Loaded rules, by file path
+    private static final Map<String, Rules> RULES = new ConcurrentHashMap<>();
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private SegmenterCache() {}
+
+
+    /**
+     * Borrow a segmenter; it must be given back with release once the document has been segmented
+     * @param srxFile SRX file
+     * @param language Language of the text to segment
+     * @return Segmenter compiled for the language
+     * @throws FileNotFoundException If the SRX file doesn't exist
+     * @throws IOException If the SRX file can't be loaded
+     */
+    public static Lease borrow(File srxFile, LocaleId language) throws IOException {
+        long lastModified = srxFile.lastModified();
+        if (lastModified == 0L)
+            throw new FileNotFoundException(srxFile.getPath());
+        Rules rules;
+        try {
+            rules = RULES.compute(srxFile.getPath(), (path, current) ->
+                    current != null && current.lastModified == lastModified ? current : new Rules(srxFile, lastModified));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rules.borrow(language);
+    }
+
+
+    /**
+     * Segmenter borrowed from the cache
+     */
+    public static class Lease {
+
+        private final Queue<ISegmenter> idle;
+        private final ISegmenter segmenter;
+
+        private Lease(Queue<ISegmenter> idle, ISegmenter segmenter) {
+            this.idle = idle;
+            this.segmenter = segmenter;
+        }
+
+        /**
+         * Get the borrowed segmenter
+         */
+        public ISegmenter getSegmenter() {
+            return segmenter;
+        }
+
+        /**
+         * Give back the segmenter. If the rules have been reloaded in the meantime, it is just discarded
+         */
+        public void release() {
+            idle.offer(segmenter);
+        }
+    }
+
+
+    /**
+     * Rules of a SRX file, with the idle segmenters compiled from them
+     */
+    private static class Rules {
+
+        private final long lastModified;
+        private final SRXDocument document;
+        private final Map<String, Queue<ISegmenter>> idleSegmenters = new ConcurrentHashMap<>();
+
+        Rules(File srxFile, long lastModified) {
+            this.lastModified = lastModified;
+            this.document = new SRXDocument();
+            try {
+                document.loadRules(srxFile.getPath());
+            } catch (RuntimeException e) {
+                throw new UncheckedIOException(new IOException("Cannot load the segmentation rules in " + srxFile.getPath(), e));
+            }
+            if (document.hasWarning())
+                LOGGER.warn(document.getWarning());
+            // Same options the SegmentationStep applies with its default parameters
+            document.setTreatIsolatedCodesAsWhitespace(new Parameters().isTreatIsolatedCodesAsWhitespace());
+            LOGGER.info("Loaded segmentation rules from {}", srxFile.getPath());
+        }
+
+        Lease borrow(LocaleId language) {
+            Queue<ISegmenter> idle = idleSegmenters.computeIfAbsent(language.toString(), key -> new ConcurrentLinkedQueue<>());
+            ISegmenter segmenter = idle.poll();
+            if (segmenter == null) {
+                // The document is not meant to be used concurrently
+                synchronized (document) {
+                    segmenter = document.compileLanguageRules(language, null);
+                }
+            }
+            return new Lease(idle, segmenter);
+        }
+    }
+
+}
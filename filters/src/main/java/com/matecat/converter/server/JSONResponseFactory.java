@@ -1,5 +1,7 @@
 package com.matecat.converter.server;
 
+import com.matecat.converter.core.metrics.Metrics;
+import com.matecat.converter.server.jobs.ConversionJob;
 import org.json.simple.JSONObject;
 
 import java.io.File;
@@ -20,6 +22,8 @@ public class JSONResponseFactory {
     public static final String XLIFF_CONTENT = "xliffContent";
     public static final String DOCUMENT_CONTENT = "documentContent";
     public static final String FILENAME = "filename";
+    public static final String JOB_ID = "jobId";
+    public static final String JOB_STATUS = "status";
 
     public static String getError(String errorMessage) {
         JSONObject output = new JSONObject();
@@ -28,18 +32,31 @@ public class JSONResponseFactory {
         return output.toJSONString();
     }
 
+    public static String getJobStatus(ConversionJob job, String errorMessage) {
+        JSONObject output = new JSONObject();
+        output.put(IS_SUCCESS, job.getStatus() != ConversionJob.Status.FAILED);
+        output.put(JOB_ID, job.getId());
+        output.put(JOB_STATUS, job.getStatus().name());
+        if (errorMessage != null)
+            output.put(ERROR_MESSAGE, errorMessage);
+        return output.toJSONString();
+    }
+
     public static String getConvertSuccess(File file) {
-        try {
-            String xliffContent = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
-            JSONObject output = new JSONObject();
-            output.put(IS_SUCCESS, true);
-            output.put(XLIFF_CONTENT, xliffContent);
-            output.put(FILENAME, file.getName());
-            return output.toJSONString();
-        } catch (IOException e) {
-            e.printStackTrace();
-            throw new RuntimeException();
-        }
+        return Metrics.time(Metrics.SERIALIZATION, Metrics.getFormat(file.getName()), () -> {
+            try {
+                String xliffContent = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+                JSONObject output = new JSONObject();
+                output.put(IS_SUCCESS, true);
+                output.put(XLIFF_CONTENT, xliffContent);
+                output.put(FILENAME, file.getName());
+                Metrics.addServedBytes(file.length());
+                return output.toJSONString();
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new RuntimeException();
+            }
+        });
     }
 
     public static String getDerivedSuccess(File file) {
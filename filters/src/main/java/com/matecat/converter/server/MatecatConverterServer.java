@@ -1,26 +1,42 @@
 package com.matecat.converter.server;
 
 import com.matecat.converter.core.util.Config;
+import com.matecat.converter.core.util.VirtualThreads;
+import com.matecat.converter.server.admission.AdmissionFilter;
+import com.matecat.converter.server.admission.UploadSizeFilter;
 import com.matecat.converter.server.resources.ConvertToXliffResource;
 import com.matecat.converter.server.resources.ExtractOriginalFileResource;
 import com.matecat.converter.server.resources.GenerateDerivedFileResource;
 import com.matecat.converter.server.resources.TestConnectionResource;
+import org.eclipse.jetty.io.ConnectionStatistics;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.StatisticsHandler;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.glassfish.jersey.media.multipart.MultiPartProperties;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.servlet.ServletContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.DispatcherType;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.BindException;
 import java.net.InetAddress;
 import java.net.URL;
+import java.util.EnumSet;
+import java.util.concurrent.BlockingQueue;
 
 
 /**
@@ -34,6 +50,12 @@ public class MatecatConverterServer {
     // Used port
     private int serverPort;
 
+    // Servlet context attribute holding the Jetty server
+    public static final String SERVER_ATTRIBUTE = Server.class.getName();
+
+    // Buffer used to inflate the compressed requests
+    private static final int GZIP_INFLATE_BUFFER_SIZE = 32 * 1024;
+
     // Server
     private Server server;
     private String localIP, externalIP;
@@ -165,15 +187,81 @@ public class MatecatConverterServer {
         resourceConfig.packages(TestConnectionResource.class.getPackage().getName());
         resourceConfig.register(JacksonFeature.class);
         resourceConfig.register(MultiPartFeature.class);
+        // Save the uploads directly in the cache folder, so they can be moved into the projects without copying
+        resourceConfig.register(new MultiPartProperties().tempDir(Config.cacheFolder).resolver());
         ServletContainer servletContainer = new ServletContainer(resourceConfig);
         ServletHolder sh = new ServletHolder(servletContainer);
+        // Needed to suspend the long polling requests of the jobs resource
+        sh.setAsyncSupported(true);
         ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
         context.setContextPath("/");
         context.addServlet(sh, "/*");
+        // Reject the oversized uploads and the conversions exceeding the configured limits before they reach the resources
+        context.addFilter(UploadSizeFilter.class, "/AutomationService/*", EnumSet.of(DispatcherType.REQUEST));
+        context.addFilter(AdmissionFilter.class, "/AutomationService/*", EnumSet.of(DispatcherType.REQUEST));
 
         // Initiate it
-        this.server = new Server(serverPort);
-        server.setHandler(context);
+        this.server = createServer();
+        StatisticsHandler statisticsHandler = new StatisticsHandler();
+        statisticsHandler.setHandler(createGzipHandler(context));
+        server.setHandler(statisticsHandler);
+        // Make the server available to the resources reporting its statistics
+        context.setAttribute(SERVER_ATTRIBUTE, server);
+    }
+
+
+    /**
+     * Create the server, with the thread pool and connector configured from Config
+     * @return Server
+     */
+    private Server createServer() {
+
+        // Threads serving the requests
+        BlockingQueue<Runnable> queue = Config.serverMaxQueuedRequests > 0 ?
+                new BlockingArrayQueue<>(Config.serverMinThreads, Config.serverMinThreads, Config.serverMaxQueuedRequests) :
+                null;
+        QueuedThreadPool threadPool = VirtualThreads.isEnabled() ?
+                new VirtualQueuedThreadPool(Config.serverMaxThreads, Config.serverMinThreads, Config.serverThreadIdleTimeout, queue) :
+                new QueuedThreadPool(Config.serverMaxThreads, Config.serverMinThreads, Config.serverThreadIdleTimeout, queue);
+        threadPool.setName("http");
+        Server server = new Server(threadPool);
+
+        // Connector
+        HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setOutputBufferSize(Config.serverOutputBufferSize);
+        ServerConnector connector = new ServerConnector(server, Config.serverAcceptors, Config.serverSelectors,
+                new HttpConnectionFactory(httpConfiguration));
+        connector.setPort(serverPort);
+        connector.setAcceptQueueSize(Config.serverAcceptQueueSize);
+        connector.setIdleTimeout(Config.serverIdleTimeout);
+        connector.addBean(new ConnectionStatistics());
+        server.addConnector(connector);
+
+        LOGGER.info("Http server: {}-{} threads, {} queued requests, {} acceptors, {} selectors",
+                Config.serverMinThreads, Config.serverMaxThreads, Config.serverMaxQueuedRequests,
+                Config.serverAcceptors, Config.serverSelectors);
+        return server;
+    }
+
+
+    /**
+     * Wrap the handler with the gzip compression of the conversions, if enabled
+     *
+     * Responses are compressed when the client accepts it, and requests with a gzip Content-Encoding inflated.
+     * @param handler Handler to wrap
+     * @return Wrapping handler
+     */
+    private static Handler createGzipHandler(Handler handler) {
+        if (Config.gzipCompressionLevel == 0)
+            return handler;
+        GzipHandler gzipHandler = new GzipHandler();
+        gzipHandler.setIncludedPaths("/AutomationService/*");
+        gzipHandler.setIncludedMethods("GET", "POST");
+        gzipHandler.setCompressionLevel(Config.gzipCompressionLevel);
+        gzipHandler.setMinGzipSize(Config.gzipMinSize);
+        gzipHandler.setInflateBufferSize(GZIP_INFLATE_BUFFER_SIZE);
+        gzipHandler.setHandler(handler);
+        return gzipHandler;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package com.matecat.converter.server;
+
+import com.matecat.converter.core.metrics.Metrics;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.json.simple.JSONObject;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Factory which creates http responses streaming the contents of a file
+ *
+ * Unlike the JSONResponseFactory, the file is never loaded in memory: it is copied in small chunks straight
+ * from the disk to the connection, so the heap used does not depend on the size of the file.
+ * Responses are sent with chunked transfer encoding.
+ *
+ * Since the file is sent after the resource method returns, the files can't be cleaned up there: every
+ * response accepts a callback invoked once the file has been sent (with true) or the sending failed (with false).
+ */
+public class StreamingResponseFactory {
+
+    public static final String XLIFF_MEDIA_TYPE = "application/xliff+xml";
+    public static final String XLIFF_LEGACY_MEDIA_TYPE = "application/x-xliff+xml";
+
+    // Accept header parameter carrying the quality of a media type
+    private static final String QUALITY_PARAMETER = "q";
+
+    // Query param value requesting the raw output
+    public static final String RAW_OUTPUT = "raw";
+
+    // Header carrying the outcome of the conversion
+    public static final String STATUS_HEADER = "X-Conversion-Status";
+    public static final String STATUS_SUCCESS = "success";
+    public static final String STATUS_ERROR = "error";
+
+    // Size of the chunks read from the files
+    private static final int CHUNK_SIZE = 48 * 1024;
+
+    // Temporary value of the document in the JSON envelope
+    private static final String DOCUMENT_PLACEHOLDER = "__DOCUMENT_CONTENT__";
+
+    /**
+     * Private constructor (static class)
+     */
+    private StreamingResponseFactory() {}
+
+    /**
+     * Check if the client asked for the raw file instead of the JSON wrapped one
+     * @param output Value of the 'output' query param, if any
+     * @param acceptableTypes Media types of the Accept header, with their quality parameters
+     * @return True if the raw file should be returned
+     */
+    public static boolean isRawRequested(String output, List<MediaType> acceptableTypes) {
+        if (RAW_OUTPUT.equalsIgnoreCase(output))
+            return true;
+        for (MediaType type : acceptableTypes) {
+            // The wildcards don't ask for the XLIFF, and q=0 refuses it
+            String name = type.getType() + "/" + type.getSubtype();
+            if ((name.equalsIgnoreCase(XLIFF_MEDIA_TYPE) || name.equalsIgnoreCase(XLIFF_LEGACY_MEDIA_TYPE))
+                    && getQuality(type) > 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the quality of an acceptable media type
+     * @param type Media type
+     * @return Value of its 'q' parameter, 1 if missing, 0 if not valid
+     */
+    private static double getQuality(MediaType type) {
+        String quality = type.getParameters().get(QUALITY_PARAMETER);
+        if (quality == null)
+            return 1;
+        try {
+            return Double.parseDouble(quality.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Create a successful response streaming the given XLIFF as it is
+     *
+     * The filename is sent in the Content-Disposition header, the outcome in the X-Conversion-Status one.
+     * @param file Generated XLIFF
+     * @param onComplete Callback invoked after streaming, typically closing the project containing the file
+     * @return Response
+     */
+    public static Response getXliffSuccess(File file, Consumer<Boolean> onComplete) {
+        return Response
+                .status(Response.Status.OK)
+                .type(XLIFF_MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, getContentDisposition(file.getName()))
+                .header(STATUS_HEADER, STATUS_SUCCESS)
+                .entity(getOutput(file, output -> Files.copy(file.toPath(), output), onComplete))
+                .build();
+    }
+
+    /**
+     * Create a successful response containing the derived file
+     *
+     * The response has the same contents of JSONResponseFactory.getDerivedSuccess, byte per byte, but the
+     * base64 encoding of the document is streamed instead of being built in memory.
+     * @param file Derived file
+     * @param onComplete Callback invoked after streaming, typically closing the project containing the file
+     * @return Response
+     */
+    public static Response getDerivedSuccess(File file, Consumer<Boolean> onComplete) {
+        return Response
+                .status(Response.Status.OK)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(getOutput(file, output -> writeDerivedSuccess(file, output), onComplete))
+                .build();
+    }
+
+    /**
+     * Write the JSON message of a successful derivation
+     * @param file Derived file
+     * @param output Stream where to write the message; it is not closed
+     */
+    public static void writeDerivedSuccess(File file, OutputStream output) throws IOException {
+
+        // Let the JSON library build the envelope, so keys order and escaping
+        // are the same of JSONResponseFactory
+        JSONObject envelope = new JSONObject();
+        envelope.put(JSONResponseFactory.IS_SUCCESS, true);
+        envelope.put(JSONResponseFactory.DOCUMENT_CONTENT, DOCUMENT_PLACEHOLDER);
+        envelope.put(JSONResponseFactory.FILENAME, file.getName());
+        String json = envelope.toJSONString();
+        String placeholderValue = "\"" + JSONResponseFactory.DOCUMENT_CONTENT + "\":\"" + DOCUMENT_PLACEHOLDER + "\"";
+        int placeholderIndex = json.indexOf(placeholderValue) + placeholderValue.length() - DOCUMENT_PLACEHOLDER.length() - 1;
+
+        // Head of the envelope
+        output.write(json.substring(0, placeholderIndex).getBytes(StandardCharsets.UTF_8));
+
+        // Document: the encoder is closed to write the padding, the output must stay open
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+             OutputStream encoder = Base64.getEncoder().wrap(new JSONSlashEscaper(new CloseShieldOutputStream(output)))) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                encoder.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+        }
+
+        // Tail of the envelope
+        output.write(json.substring(placeholderIndex + DOCUMENT_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Create a streaming output which writes the contents and then invokes the callback
+     * @param file File being sent, whose size and writing time are recorded in the metrics
+     * @param writer Contents writer
+     * @param onComplete Callback invoked with the outcome
+     * @return Streaming output
+     */
+    private static StreamingOutput getOutput(File file, StreamingOutput writer, Consumer<Boolean> onComplete) {
+        return (OutputStream output) -> {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                writer.write(output);
+                output.flush();
+                success = true;
+                Metrics.addServedBytes(file.length());
+            } finally {
+                Metrics.observe(Metrics.SERIALIZATION, Metrics.getFormat(file.getName()), success, System.nanoTime() - start);
+                onComplete.accept(success);
+            }
+        };
+    }
+
+    /**
+     * Build the Content-Disposition header for a filename, also supporting non ASCII names (RFC 5987)
+     * @param filename Filename
+     * @return Header value
+     */
+    public static String getContentDisposition(String filename) {
+        String asciiFilename = filename.replaceAll("[^\\x20-\\x7e]|[\"\\\\]", "_");
+        try {
+            String encodedFilename = URLEncoder.encode(filename, "UTF-8").replace("+", "%20");
+            return "attachment; filename=\"" + asciiFilename + "\"; filename*=UTF-8''" + encodedFilename;
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Escapes the slashes like the JSON library does; the only base64 char needing escaping
+     */
+    private static class JSONSlashEscaper extends FilterOutputStream {
+
+        private static final byte[] ESCAPED_SLASH = {'\\', '/'};
+
+        JSONSlashEscaper(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '/')
+                out.write(ESCAPED_SLASH);
+            else
+                out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int start = off;
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                if (b[i] == '/') {
+                    out.write(b, start, i - start);
+                    out.write(ESCAPED_SLASH);
+                    start = i + 1;
+                }
+            }
+            out.write(b, start, end - start);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.matecat.converter.server;
+
+import com.matecat.converter.core.util.VirtualThreads;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * Jetty thread pool whose threads are virtual
+ *
+ * The pool keeps working as the regular QueuedThreadPool, limits included, but a thread blocked on I/O doesn't
+ * occupy an OS thread. Virtual threads are always daemon.
+ *
+ * @see VirtualThreads
+ */
+public class VirtualQueuedThreadPool extends QueuedThreadPool {
+
+    private final ThreadFactory threadFactory = VirtualThreads.newThreadFactory("http");
+
+    public VirtualQueuedThreadPool(int maxThreads, int minThreads, int idleTimeout, BlockingQueue<Runnable> queue) {
+        super(maxThreads, minThreads, idleTimeout, queue);
+        setDaemon(true);
+    }
+
+    @Override
+    protected Thread newThread(Runnable runnable) {
+        return threadFactory.newThread(runnable);
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.matecat.converter.server;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.XliffProcessor;
+import com.matecat.converter.core.okapiclient.OkapiClient;
+import com.matecat.converter.core.util.Config;
+import com.matecat.filters.basefilters.DefaultFilter;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Warm-up of the conversions
+ *
+ * The first conversion of every format pays for loading the classes of its filter, parsing its configuration and
+ * the segmentation rules, and building its pipelines, and it runs on a cold JIT. At boot, a bundled sample document
+ * of every supported format (the resources in /warmup) is extracted and merged back, so the pools and the caches
+ * are ready before the first real conversion. The formats without a sample just get their filter created.
+ *
+ * Until the warm-up is over the server is not ready, and the TestConnectionResource answers 503.
+ */
+public class WarmUp {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarmUp.class);
+
+    // Folder of the sample documents, named sample.<format>
+    private static final String SAMPLES_PATH = "/warmup/";
+
+    // Languages of the sample conversions
+    private static final Locale SOURCE_LANGUAGE = Locale.forLanguageTag("en-US");
+    private static final Locale TARGET_LANGUAGE = Locale.forLanguageTag("it-IT");
+
+    // True when the warm-up is over, or disabled
+    private static volatile boolean ready = true;
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private WarmUp() {}
+
+
+    /**
+     * Start the warm-up in background, if enabled; the server is not ready until it is over
+     */
+    public static void start() {
+        if (!Config.warmUp)
+            return;
+        ready = false;
+        Thread thread = new Thread(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Exception during the warm-up", e);
+            } finally {
+                ready = true;
+            }
+        }, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+
+    /**
+     * Check if the server is ready to convert
+     * @return False while the warm-up is running
+     */
+    public static boolean isReady() {
+        return ready;
+    }
+
+
+    /**
+     * Warm up all the supported formats
+     * @return Formats whose sample has been extracted and merged successfully
+     */
+    public static List<Format> run() {
+        long start = System.currentTimeMillis();
+        List<Format> formats = new ArrayList<>(OkapiClient.getSupportedFormats());
+        Collections.sort(formats);
+
+        List<Format> warmedUp = new ArrayList<>();
+        for (Format format : formats) {
+            URL sample = WarmUp.class.getResource(SAMPLES_PATH + "sample." + format);
+            try {
+                if (sample == null)
+                    OkapiClient.preloadFilter(format);
+                else if (convert(sample, format))
+                    warmedUp.add(format);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Exception warming up the {} format", format, e);
+            }
+        }
+
+        LOGGER.info("Warm-up completed in {}ms: {} samples converted, {} filters preloaded",
+                System.currentTimeMillis() - start, warmedUp.size(), formats.size() - warmedUp.size());
+        return warmedUp;
+    }
+
+
+    /**
+     * Extract the sample and merge it back, in a temporary folder of the cache
+     * @return True if the conversion succeeded
+     */
+    private static boolean convert(URL sample, Format format) {
+        File folder = null;
+        try {
+            folder = Files.createTempDirectory(Paths.get(Config.cacheFolder), "warmup").toFile();
+            File file = new File(folder, "sample." + format);
+            FileUtils.copyURLToFile(sample, file);
+
+            DefaultFilter filter = new DefaultFilter();
+            File xlf = filter.extract(file, SOURCE_LANGUAGE, TARGET_LANGUAGE, null);
+            File derivedFile = filter.merge(new XliffProcessor(xlf));
+            return derivedFile.isFile();
+        } catch (Exception e) {
+            LOGGER.warn("Exception converting the {} sample", format, e);
+            return false;
+        } finally {
+            FileUtils.deleteQuietly(folder);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.matecat.converter.server.admission;
+
+import com.matecat.converter.core.util.Config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Admission controller
+ *
+ * Holds a limiter for each synchronous conversion endpoint, configured from the admission params of the
+ * configuration. Endpoints are identified by the last segment of their path (e.g. "original2xliff").
+ *
+ * @see AdmissionFilter
+ */
+public class AdmissionController {
+
+    // Limited endpoints
+    public static final String[] ENDPOINTS = {"original2xliff", "xliff2original", "xliff2source"};
+
+    // Limiters, by endpoint
+    private static final Map<String, EndpointLimiter> LIMITERS;
+
+    static {
+        Map<String, EndpointLimiter> limiters = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            int maxConcurrent = Config.admissionEndpointMaxConcurrent.getOrDefault(endpoint, Config.admissionMaxConcurrent);
+            limiters.put(endpoint, new EndpointLimiter(endpoint, maxConcurrent, Config.admissionMaxQueue, Config.admissionMaxQueueTime));
+        }
+        LIMITERS = Collections.unmodifiableMap(limiters);
+    }
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private AdmissionController() {}
+
+
+    /**
+     * Get the limiter of an endpoint
+     * @param endpoint Endpoint name
+     * @return Its limiter, or null if the endpoint is not limited
+     */
+    public static EndpointLimiter getLimiter(String endpoint) {
+        return LIMITERS.get(endpoint);
+    }
+
+
+    /**
+     * Get all the limiters
+     * @return Limiters
+     */
+    public static Collection<EndpointLimiter> getLimiters() {
+        return LIMITERS.values();
+    }
+
+
+    /**
+     * Check if the server is saturated, this is if any endpoint has all its slots busy
+     * @return True if saturated
+     */
+    public static boolean isSaturated() {
+        for (EndpointLimiter limiter : LIMITERS.values())
+            if (limiter.isSaturated())
+                return true;
+        return false;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.matecat.converter.server.admission;
+
+import com.matecat.converter.server.JSONResponseFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Servlet filter applying the admission control to the conversion endpoints
+ *
+ * Requests admitted are passed to the resources; the others are answered at once with a 503 and a Retry-After
+ * header, without reading the uploaded file nor occupying a thread for the whole conversion.
+ *
+ * @see AdmissionController
+ */
+public class AdmissionFilter implements Filter {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    // Path of the conversion endpoints
+    private static final String SERVICE_PATH = "/AutomationService/";
+
+    @Override
+    public void init(FilterConfig filterConfig) {}
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+
+        EndpointLimiter limiter = getLimiter((HttpServletRequest) request);
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean admitted;
+        try {
+            admitted = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            LOGGER.warn("Request to {} rejected: {} running, {} waiting", limiter.getName(), limiter.getActiveCount(), limiter.getQueueSize());
+            reject((HttpServletResponse) response, limiter.getRetryAfter());
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public void destroy() {}
+
+
+    /**
+     * Get the limiter of the requested endpoint
+     * @param request Request
+     * @return Limiter, or null if the endpoint is not limited
+     */
+    private static EndpointLimiter getLimiter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()))
+            return null;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(SERVICE_PATH))
+            return null;
+        String endpoint = path.substring(SERVICE_PATH.length());
+        if (endpoint.endsWith("/"))
+            endpoint = endpoint.substring(0, endpoint.length() - 1);
+        return AdmissionController.getLimiter(endpoint);
+    }
+
+
+    /**
+     * Answer with a 503 error
+     * @param response Response
+     * @param retryAfter Seconds after which the client should retry
+     */
+    private static void reject(HttpServletResponse response, long retryAfter) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "The server is busy, retry in " + retryAfter + " seconds");
+    }
+
+
+    /**
+     * Answer with an error, in the same JSON format of the resources
+     * @param response Response
+     * @param status Http status
+     * @param errorMessage Error message
+     */
+    static void writeError(HttpServletResponse response, int status, String errorMessage) throws IOException {
+        byte[] body = JSONResponseFactory.getError(errorMessage).getBytes(StandardCharsets.UTF_8);
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+}
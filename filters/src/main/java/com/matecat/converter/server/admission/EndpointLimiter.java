@@ -0,0 +1,129 @@
+package com.matecat.converter.server.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Concurrency limiter of a single endpoint
+ *
+ * At most maxConcurrent requests are served at the same time. The others wait in a queue of at most maxQueue
+ * requests, for at most maxQueueTime milliseconds; beyond these limits requests are rejected immediately.
+ * It also keeps an exponentially weighted average of the service times, used to estimate when a rejected
+ * client should retry.
+ */
+public class EndpointLimiter {
+
+    // Weight of the last service time in the average
+    private static final double EWMA_ALPHA = 0.2;
+
+    // Service time assumed before the first request completes
+    private static final long INITIAL_SERVICE_TIME = 1000; // In milliseconds
+
+    // Inner properties
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxQueueTime;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private volatile double averageServiceTime = INITIAL_SERVICE_TIME;
+
+
+    /**
+     * Constructor
+     * @param name Name of the endpoint
+     * @param maxConcurrent Maximum requests served at the same time
+     * @param maxQueue Maximum requests waiting
+     * @param maxQueueTime Maximum time a request can wait, in milliseconds
+     */
+    public EndpointLimiter(String name, int maxConcurrent, int maxQueue, long maxQueueTime) {
+        if (maxConcurrent <= 0)
+            throw new IllegalArgumentException("The concurrency limit of " + name + " must be positive");
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = Math.max(maxQueue, 0);
+        this.maxQueueTime = Math.max(maxQueueTime, 0);
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+
+    /**
+     * Try to admit a request, waiting in the queue if needed
+     * @return True if admitted (release must be called then), false if rejected
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean acquire() throws InterruptedException {
+        if (permits.tryAcquire())
+            return true;
+        try {
+            if (waiting.incrementAndGet() <= maxQueue
+                    && permits.tryAcquire(maxQueueTime, TimeUnit.MILLISECONDS))
+                return true;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+
+    /**
+     * Release an admitted request
+     * @param serviceTime Time spent serving the request, in milliseconds
+     */
+    public void release(long serviceTime) {
+        synchronized (this) {
+            averageServiceTime = EWMA_ALPHA * serviceTime + (1 - EWMA_ALPHA) * averageServiceTime;
+        }
+        permits.release();
+    }
+
+
+    /**
+     * Estimate the seconds after which a rejected request could be admitted
+     *
+     * All the waiting requests, plus the new one, have to be served by the maxConcurrent slots.
+     * @return Seconds, at least 1
+     */
+    public long getRetryAfter() {
+        double millis = (waiting.get() + 1) * averageServiceTime / maxConcurrent;
+        return Math.max(1, (long) Math.ceil(millis / 1000));
+    }
+
+
+    /**
+     * Check if the endpoint can't admit more requests without queueing them
+     * @return True if all the slots are busy
+     */
+    public boolean isSaturated() {
+        return permits.availablePermits() == 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueueSize() {
+        return waiting.get();
+    }
+
+    public int getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getAverageServiceTime() {
+        return (long) averageServiceTime;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.matecat.converter.server.admission;
+
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.core.winconverter.FileTooBigException;
+import com.matecat.converter.server.resources.BatchResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.Path;
+import java.io.IOException;
+
+
+/**
+ * Servlet filter rejecting the uploads bigger than Config.maxUploadSize
+ *
+ * The check is based on the Content-Length header, so the body is not read at all. Requests without the header
+ * (chunked) are let through: their files are checked once saved, when creating the project.
+ *
+ * The batch requests carry many files, each one limited by Config.maxUploadSize: they are checked against
+ * Config.batchMaxSize instead.
+ */
+public class UploadSizeFilter implements Filter {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadSizeFilter.class);
+
+    // Path of the batch resources
+    private static final String BATCH_PATH = BatchResource.class.getAnnotation(Path.class).value() + "/";
+
+    @Override
+    public void init(FilterConfig filterConfig) {}
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        long contentLength = request.getContentLengthLong();
+        long maxSize = getMaxSize((HttpServletRequest) request);
+        if (maxSize > 0 && contentLength > maxSize) {
+            LOGGER.warn("Request to {} rejected: {} bytes", ((HttpServletRequest) request).getRequestURI(), contentLength);
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            // Don't keep reading the body once answered
+            httpResponse.setHeader("Connection", "close");
+            String errorMessage = new FileTooBigException(contentLength, maxSize).getMessage();
+            AdmissionFilter.writeError(httpResponse, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, errorMessage);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Get the maximum size of a request
+     * @param request Request
+     * @return Maximum size, in bytes; 0 for no limit
+     */
+    private static long getMaxSize(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith(BATCH_PATH) ? Config.batchMaxSize : Config.maxUploadSize;
+    }
+
+    @Override
+    public void destroy() {}
+
+}
@@ -0,0 +1,157 @@
+package com.matecat.converter.server.jobs;
+
+import com.matecat.converter.core.project.Project;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+
+/**
+ * Conversion job
+ *
+ * It represents a conversion submitted to the JobManager. The job owns the project it works on: the project is
+ * closed when the job is removed from the manager, after its result has been retrieved or when it expires.
+ *
+ * @see JobManager
+ */
+public class ConversionJob {
+
+    /**
+     * Direction of the conversion
+     */
+    public enum Type {
+        ORIGINAL2XLIFF, XLIFF2ORIGINAL
+    }
+
+    /**
+     * Lifecycle of the job
+     */
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    // Inner properties
+    private final String id;
+    private final Type type;
+    private final Project project;
+    private final long creationTime;
+    private final CompletableFuture<ConversionJob> completion = new CompletableFuture<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile File result;
+    private volatile Throwable error;
+    private volatile long completionTime;
+    private volatile Future<?> future;
+    private boolean cancelled = false;
+
+
+    /**
+     * Constructor
+     * @param type Direction of the conversion
+     * @param project Project containing the file to convert
+     */
+    public ConversionJob(Type type, Project project) {
+        this.id = UUID.randomUUID().toString();
+        this.type = type;
+        this.project = project;
+        this.creationTime = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public long getCompletionTime() {
+        return completionTime;
+    }
+
+    /**
+     * Get the converted file
+     * @return Converted file, or null if the job has not succeeded
+     */
+    public File getResult() {
+        return result;
+    }
+
+    /**
+     * Get the error that made the job fail
+     * @return Error, or null if the job has not failed
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Get a future completed (with the job itself) when the job finishes, successfully or not
+     * @return Completion future
+     */
+    public CompletableFuture<ConversionJob> getCompletion() {
+        return completion;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Cancel the job: if it is still queued it won't run, if it is running its worker is interrupted
+     * @return True if the job is running, so it may still be using its project until it finishes
+     */
+    synchronized boolean cancel() {
+        cancelled = true;
+        Future<?> f = future;
+        if (f != null)
+            f.cancel(true);
+        return status == Status.RUNNING;
+    }
+
+    /**
+     * Mark the job as running, when a worker starts it
+     * @return False if the job has been cancelled, and must not run
+     */
+    synchronized boolean markRunning() {
+        if (cancelled)
+            return false;
+        status = Status.RUNNING;
+        return true;
+    }
+
+    void succeed(File result) {
+        this.result = result;
+        finish(Status.SUCCEEDED);
+    }
+
+    void fail(Throwable error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status status) {
+        this.completionTime = System.currentTimeMillis();
+        this.status = status;
+        completion.complete(this);
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.matecat.converter.server.jobs;
+
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.core.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Job manager
+ *
+ * Runs the conversions submitted through the jobs API on a dedicated, bounded pool of workers, separated from
+ * the threads serving HTTP requests. A slow document then keeps busy just one worker, and the HTTP connection that
+ * submitted it is released immediately.
+ *
+ * Finished jobs are kept until their result is retrieved, or until they expire (see Config.jobsResultTtl).
+ */
+public class JobManager {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobManager.class);
+
+    // Period between two checks for expired jobs
+    private static final long CLEANUP_PERIOD = 60; // In seconds
+
+    // Submitted jobs, by id
+    private static final Map<String, ConversionJob> JOBS = new ConcurrentHashMap<>();
+
+    // Workers running the conversions
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    // Remover of the expired jobs
+    private static final ScheduledExecutorService CLEANER;
+
+    static {
+        EXECUTOR = new ThreadPoolExecutor(
+                Config.jobsPoolSize, Config.jobsPoolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Config.jobsQueueSize),
+                VirtualThreads.newThreadFactory("conversion-worker"));
+        CLEANER = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("jobs-cleaner"));
+        CLEANER.scheduleWithFixedDelay(JobManager::removeExpiredJobs, CLEANUP_PERIOD, CLEANUP_PERIOD, TimeUnit.SECONDS);
+    }
+
+
+    /**
+     * Private constructor (static class)
+     */
+    private JobManager() {}
+
+
+    /**
+     * Submit a job
+     * @param job Job to run
+     * @param conversion Conversion to run, returning the converted file
+     * @throws RejectedExecutionException If the workers queue is full
+     */
+    public static void submit(ConversionJob job, Callable<File> conversion) {
+        JOBS.put(job.getId(), job);
+        try {
+            job.setFuture(EXECUTOR.submit(() -> run(job, conversion)));
+        } catch (RejectedExecutionException e) {
+            JOBS.remove(job.getId());
+            throw e;
+        }
+        LOGGER.info("Job {} queued ({} waiting, {} running)", job.getId(), EXECUTOR.getQueue().size(), EXECUTOR.getActiveCount());
+    }
+
+
+    /**
+     * Run a conversion on the workers, without tracking it as a job
+     *
+     * Used by the batch conversions, which wait for their results while serving the request.
+     * @param conversion Conversion to run, returning the converted file
+     * @return Future completed with the converted file, or with the error of the conversion
+     * @throws RejectedExecutionException If the workers queue is full
+     */
+    public static CompletableFuture<File> execute(Callable<File> conversion) {
+        CompletableFuture<File> result = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                result.complete(conversion.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * Run the conversion of a job, recording its outcome
+     */
+    private static void run(ConversionJob job, Callable<File> conversion) {
+        if (!job.markRunning())
+            return;
+        try {
+            File result = conversion.call();
+            job.succeed(result);
+            LOGGER.info("Job {} succeeded", job.getId());
+        } catch (Throwable e) {
+            job.fail(e);
+            LOGGER.error("Job {} failed", job.getId(), e);
+        }
+    }
+
+
+    /**
+     * Get a job
+     * @param id Job's id
+     * @return The job, or null if there is no job with this id
+     */
+    public static ConversionJob get(String id) {
+        return JOBS.get(id);
+    }
+
+
+    /**
+     * Remove a job, cancelling it if it is still running, and close its project
+     *
+     * Okapi doesn't stop on interrupts, so the project of a running job is closed only once the job finishes.
+     * @param id Job's id
+     * @return The removed job, or null if there was no job with this id
+     */
+    public static ConversionJob remove(String id) {
+        ConversionJob job = JOBS.remove(id);
+        if (job != null) {
+            // Keep the files of failed jobs, if configured
+            if (job.cancel())
+                job.getCompletion().whenComplete((finishedJob, error) ->
+                        finishedJob.getProject().close(finishedJob.getStatus() != ConversionJob.Status.FAILED));
+            else
+                job.getProject().close(job.getStatus() != ConversionJob.Status.FAILED);
+        }
+        return job;
+    }
+
+
+    /**
+     * Get the number of jobs waiting for a free worker
+     * @return Queue size
+     */
+    public static int getQueueSize() {
+        return EXECUTOR.getQueue().size();
+    }
+
+
+    /**
+     * Get the number of jobs being processed
+     * @return Running jobs
+     */
+    public static int getActiveCount() {
+        return EXECUTOR.getActiveCount();
+    }
+
+
+    /**
+     * Remove the finished jobs whose result has not been retrieved in time
+     */
+    private static void removeExpiredJobs() {
+        long expirationTime = System.currentTimeMillis() - Config.jobsResultTtl * 1000L;
+        for (ConversionJob job : JOBS.values()) {
+            if (job.getStatus().isFinished() && job.getCompletionTime() < expirationTime) {
+                LOGGER.warn("Job {} expired before its result was retrieved", job.getId());
+                try {
+                    remove(job.getId());
+                } catch (Exception e) {
+                    LOGGER.error("Exception removing expired job {}", job.getId(), e);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Stop accepting jobs and interrupt the running ones
+     */
+    public static void shutdown() {
+        CLEANER.shutdownNow();
+        EXECUTOR.shutdownNow();
+        for (String id : JOBS.keySet())
+            remove(id);
+    }
+
+
+    /**
+     * Create a thread factory giving the threads a recognizable name
+     * @param prefix Name prefix
+     * @return Thread factory
+     */
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,460 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.core.project.Project;
+import com.matecat.converter.core.project.ProjectFactory;
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.core.winconverter.FileTooBigException;
+import com.matecat.converter.server.JSONResponseFactory;
+import com.matecat.converter.server.StreamingResponseFactory;
+import com.matecat.converter.server.jobs.JobManager;
+import com.matecat.filters.basefilters.FiltersRouter;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.glassfish.jersey.media.multipart.FormDataBodyPart;
+import org.glassfish.jersey.media.multipart.FormDataParam;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+
+/**
+ * Resource taking care of the conversion of many files at once
+ *
+ * Files can be sent as many multipart parts with the same name, or as a single zip archive in the
+ * 'archiveContent' part; the other params are shared by all the files. Every file gets its own project, and all
+ * the conversions run in parallel on the JobManager workers, at most Config.batchMaxParallel at a time: the
+ * others are submitted as the running ones complete, so that a big batch doesn't fill the workers queue.
+ *
+ * A batch has at most Config.batchMaxFiles files, of Config.batchMaxSize bytes in total, parts and zip entries
+ * together. The entries of a zip are inflated only up to Config.maxUploadSize each and the size left to the batch:
+ * beyond the limits the whole batch is rejected.
+ *
+ * The converted files are streamed back in a zip, in order of completion. The last entry of the zip is a
+ * manifest.json file reporting the outcome of every file, in the order they were sent.
+ */
+@Path("/AutomationService/batch")
+public class BatchResource {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchResource.class);
+
+    public static final String ZIP_MEDIA_TYPE = "application/zip";
+    public static final String MANIFEST_FILENAME = "manifest.json";
+    public static final String MANIFEST_FILES = "files";
+    public static final String MANIFEST_OUTPUT = "output";
+
+
+    /**
+     * Convert many files into XLF
+     */
+    @POST
+    @Path("/original2xliff")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces({ZIP_MEDIA_TYPE, "application/json"})
+    public Response convert(
+            @FormDataParam("documentContent") List<FormDataBodyPart> fileParts,
+            @FormDataParam("archiveContent") FormDataBodyPart archivePart,
+            @FormDataParam("sourceLocale") String sourceLanguageCode,
+            @FormDataParam("targetLocale") String targetLanguageCode,
+            @FormDataParam("segmentation") String segmentation) {
+
+        LOGGER.info("SOURCE > XLIFF batch request: source=<{}> target=<{}>", sourceLanguageCode, targetLanguageCode);
+
+        List<BatchItem> items = new ArrayList<>();
+        try {
+
+            // Parse the codes
+            Locale sourceLanguage = ConvertToXliffResource.parseLanguage(sourceLanguageCode);
+            Locale targetLanguage = ConvertToXliffResource.parseLanguage(targetLanguageCode);
+
+            // Create the projects and start the conversions
+            createItems(items, fileParts, archivePart, filename -> filename);
+            return run(items,
+                    file -> () -> new FiltersRouter().extract(file, sourceLanguage, targetLanguage, segmentation),
+                    ConvertToXliffResource::getErrorMessage);
+        }
+
+        // If there is any error, return it
+        catch (Exception e) {
+            close(items);
+            LOGGER.error("Exception in SOURCE > XLIFF batch", e);
+            return error(ConvertToXliffResource.getErrorMessage(e));
+        }
+    }
+
+
+    /**
+     * Generate the derived files of many xlf
+     */
+    @POST
+    @Path("/xliff2original")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces({ZIP_MEDIA_TYPE, "application/json"})
+    public Response derive(
+            @FormDataParam("xliffContent") List<FormDataBodyPart> fileParts,
+            @FormDataParam("archiveContent") FormDataBodyPart archivePart) {
+
+        LOGGER.info("XLIFF > TARGET batch request");
+
+        List<BatchItem> items = new ArrayList<>();
+        try {
+
+            // Create the projects and start the conversions
+            createItems(items, fileParts, archivePart, filename -> "to-derived.xlf");
+            return run(items,
+                    file -> () -> new FiltersRouter().merge(file),
+                    Throwable::getMessage);
+        }
+
+        // If there is any error, return it
+        catch (Exception e) {
+            close(items);
+            LOGGER.error("Exception in XLIFF > TARGET batch", e);
+            return error(e.getMessage());
+        }
+    }
+
+
+    /**
+     * Create the projects of the sent files
+     * @param items Items of the batch, in order, to fill
+     * @param fileParts Files sent as multipart parts, if any
+     * @param archivePart Zip sent as multipart part, if any
+     * @param projectFilename Name to give to the file in its project, given the sent name
+     */
+    private static void createItems(List<BatchItem> items, List<FormDataBodyPart> fileParts, FormDataBodyPart archivePart,
+                                    Function<String, String> projectFilename) throws IOException {
+
+        long batchSize = 0;
+        if (fileParts != null) {
+            for (FormDataBodyPart filePart : fileParts) {
+                checkFilesCount(items);
+                String filename = ConvertToXliffResource.normalizeFilename(null, filePart.getFormDataContentDisposition());
+                BatchItem item = new BatchItem(items.size(), filename);
+                items.add(item);
+                try {
+                    item.project = ConvertToXliffResource.createProject(projectFilename.apply(filename), filePart);
+                } catch (Exception e) {
+                    item.fail(e);
+                    continue;
+                }
+                batchSize += item.project.getFile().length();
+                if (batchSize > Config.batchMaxSize)
+                    throw new IllegalArgumentException(getBatchTooBigMessage());
+            }
+        }
+
+        if (archivePart != null) {
+            try (ZipInputStream zipInputStream = new ZipInputStream(archivePart.getValueAs(InputStream.class))) {
+                ZipEntry entry;
+                while ((entry = zipInputStream.getNextEntry()) != null) {
+                    String filename = FilenameUtils.getName(entry.getName());
+                    if (entry.isDirectory() || filename.isEmpty() || entry.getName().startsWith("__MACOSX/"))
+                        continue;
+                    checkFilesCount(items);
+                    filename = ConvertToXliffResource.normalizeFilename(filename, null);
+                    BatchItem item = new BatchItem(items.size(), filename);
+                    items.add(item);
+
+                    // The entry is inflated up to the size left to the batch, or to the size of a single file
+                    long sizeLeft = Math.max(1, Config.batchMaxSize - batchSize);
+                    boolean batchLimit = Config.maxUploadSize <= 0 || sizeLeft < Config.maxUploadSize;
+                    long maxSize = batchLimit ? sizeLeft : Config.maxUploadSize;
+                    try {
+                        String entryFilename = projectFilename.apply(filename);
+                        item.project = ConvertToXliffResource.ingest(entryFilename,
+                                () -> ProjectFactory.createProject(entryFilename, new CloseShieldInputStream(zipInputStream), maxSize));
+                    } catch (FileTooBigException e) {
+                        // Don't go on inflating the archive
+                        throw batchLimit ? new IllegalArgumentException(getBatchTooBigMessage()) : e;
+                    } catch (Exception e) {
+                        item.fail(e);
+                        continue;
+                    }
+                    batchSize += item.project.getFile().length();
+                    if (batchSize > Config.batchMaxSize)
+                        throw new IllegalArgumentException(getBatchTooBigMessage());
+                }
+            }
+        }
+
+        if (items.isEmpty())
+            throw new IllegalArgumentException("The input files have not been sent");
+    }
+
+
+    /**
+     * Check that there is room for another file in the batch
+     * @param items Items of the batch created so far
+     */
+    private static void checkFilesCount(List<BatchItem> items) {
+        if (items.size() >= Config.batchMaxFiles)
+            throw new IllegalArgumentException("A batch can't contain more than " + Config.batchMaxFiles + " files");
+    }
+
+
+    private static String getBatchTooBigMessage() {
+        return "The files of the batch are bigger than the maximum size allowed (" + Config.batchMaxSize + " bytes)";
+    }
+
+
+    /**
+     * Start the conversions of the items, and build the response streaming their results
+     * @param items Items of the batch
+     * @param conversion Conversion of a file
+     * @param errorMessage Message to report for a conversion error
+     * @return Response
+     */
+    private static Response run(List<BatchItem> items, Function<File, Callable<File>> conversion,
+                                Function<Throwable, String> errorMessage) {
+
+        BlockingQueue<BatchItem> completed = new LinkedBlockingQueue<>();
+        Submitter submitter = new Submitter(conversion);
+        for (BatchItem item : items) {
+            if (item.result == null) {
+                item.result = new CompletableFuture<>();
+                submitter.add(item);
+            }
+            item.result.whenComplete((output, error) -> completed.add(item));
+        }
+        submitter.start();
+        LOGGER.info("Batch of {} files started", items.size());
+
+        StreamingOutput output = outputStream -> {
+            try {
+                writeZip(items, completed, errorMessage, outputStream);
+            } finally {
+                submitter.cancel();
+                close(items);
+            }
+        };
+        return Response
+                .status(Response.Status.OK)
+                .type(ZIP_MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, StreamingResponseFactory.getContentDisposition("batch.zip"))
+                .entity(output)
+                .build();
+    }
+
+
+    /**
+     * Write the results of the items in a zip, as soon as they complete, followed by the manifest
+     */
+    private static void writeZip(List<BatchItem> items, BlockingQueue<BatchItem> completed,
+                                 Function<Throwable, String> errorMessage, OutputStream outputStream) throws IOException {
+        Set<String> entryNames = new HashSet<>();
+        try (ZipOutputStream zip = new ZipOutputStream(new CloseShieldOutputStream(outputStream))) {
+
+            for (int i = 0; i < items.size(); i++) {
+                BatchItem item;
+                try {
+                    item = completed.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the batch conversions", e);
+                }
+
+                File file = item.result.handle((result, error) -> result).join();
+                if (file == null) {
+                    item.errorMessage = errorMessage.apply(getCause(item.result));
+                    LOGGER.warn("Batch conversion of {} failed: {}", item.filename, item.errorMessage);
+                    continue;
+                }
+
+                // Different files can produce the same name
+                String entryName = file.getName();
+                if (!entryNames.add(entryName)) {
+                    entryName = (item.index + 1) + "_" + entryName;
+                    entryNames.add(entryName);
+                }
+                item.output = entryName;
+                zip.putNextEntry(new ZipEntry(entryName));
+                Files.copy(file.toPath(), zip);
+                zip.closeEntry();
+                zip.flush();
+            }
+
+            zip.putNextEntry(new ZipEntry(MANIFEST_FILENAME));
+            zip.write(getManifest(items).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        LOGGER.info("Batch of {} files returned", items.size());
+    }
+
+
+    /**
+     * Build the manifest reporting the outcome of every item
+     */
+    private static String getManifest(List<BatchItem> items) {
+        JSONArray files = new JSONArray();
+        for (BatchItem item : items) {
+            JSONObject file = new JSONObject();
+            file.put(JSONResponseFactory.FILENAME, item.filename);
+            file.put(JSONResponseFactory.IS_SUCCESS, item.output != null);
+            if (item.output != null)
+                file.put(MANIFEST_OUTPUT, item.output);
+            else
+                file.put(JSONResponseFactory.ERROR_MESSAGE, item.errorMessage);
+            files.add(file);
+        }
+        JSONObject manifest = new JSONObject();
+        manifest.put(JSONResponseFactory.IS_SUCCESS, true);
+        manifest.put(MANIFEST_FILES, files);
+        return manifest.toJSONString();
+    }
+
+
+    /**
+     * Get the error a future completed with
+     */
+    private static Throwable getCause(CompletableFuture<File> future) {
+        try {
+            future.join();
+            return null;
+        } catch (Exception e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+
+    /**
+     * Close the projects of the items, once their conversions are over
+     */
+    private static void close(List<BatchItem> items) {
+        for (BatchItem item : items) {
+            if (item.project == null)
+                continue;
+            if (item.result == null)
+                item.project.close(true);
+            else
+                item.result.whenComplete((output, error) -> item.project.close(error == null || error instanceof CancellationException));
+        }
+    }
+
+
+    private static Response error(String errorMessage) {
+        return Response
+                .status(Response.Status.BAD_REQUEST)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(JSONResponseFactory.getError(errorMessage))
+                .build();
+    }
+
+
+    /**
+     * Submitter of the conversions of a batch to the JobManager, keeping at most Config.batchMaxParallel of them
+     * in progress: every completion submits the next pending one
+     */
+    private static class Submitter {
+
+        private final Function<File, Callable<File>> conversion;
+        private final Queue<BatchItem> pending = new ArrayDeque<>();
+        private boolean cancelled;
+
+        Submitter(Function<File, Callable<File>> conversion) {
+            this.conversion = conversion;
+        }
+
+        void add(BatchItem item) {
+            pending.add(item);
+        }
+
+        void start() {
+            for (int i = 0; i < Config.batchMaxParallel; i++)
+                submitNext();
+        }
+
+        /**
+         * Cancel the conversions not submitted yet, when the batch is not going to wait for them
+         */
+        void cancel() {
+            List<BatchItem> cancelledItems;
+            synchronized (this) {
+                cancelled = true;
+                cancelledItems = new ArrayList<>(pending);
+                pending.clear();
+            }
+            for (BatchItem item : cancelledItems)
+                item.result.cancel(false);
+        }
+
+        private synchronized BatchItem poll() {
+            return cancelled ? null : pending.poll();
+        }
+
+        private void submitNext() {
+            BatchItem item = poll();
+            if (item == null)
+                return;
+            try {
+                JobManager.execute(conversion.apply(item.project.getFile())).whenComplete((output, error) -> {
+                    if (error == null)
+                        item.result.complete(output);
+                    else
+                        item.result.completeExceptionally(error);
+                    submitNext();
+                });
+            } catch (RejectedExecutionException e) {
+                item.result.completeExceptionally(new RejectedExecutionException("Too many conversions in progress, retry later"));
+                submitNext();
+            }
+        }
+    }
+
+
+    /**
+     * File of a batch
+     */
+    private static class BatchItem {
+
+        private final int index;
+        private final String filename;
+        private Project project;
+        private CompletableFuture<File> result;
+        private volatile String output;
+        private volatile String errorMessage;
+
+        /**
+         * @param index Position of the file in the batch, as sent
+         * @param filename Name of the sent file
+         */
+        BatchItem(int index, String filename) {
+            this.index = index;
+            this.filename = filename;
+        }
+
+        void fail(Throwable error) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(error);
+        }
+    }
+
+}
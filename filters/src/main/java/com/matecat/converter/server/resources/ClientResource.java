@@ -25,7 +25,7 @@ public class ClientResource {
             filtersVersion = "[version number not available]";
         }
         try {
-            String html = IOUtils.toString(System.class.getResourceAsStream(CLIENT_HTML_PATH), "UTF-8");
+            String html = IOUtils.toString(ClientResource.class.getResourceAsStream(CLIENT_HTML_PATH), "UTF-8");
             // Handlebar-like variable substitution
             CLIENT_HTML = html.replace("{{filtersVersion}}", filtersVersion);
         } catch (IOException e) {
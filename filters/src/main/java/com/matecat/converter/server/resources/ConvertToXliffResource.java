@@ -1,30 +1,42 @@
 package com.matecat.converter.server.resources;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Locale;
 import java.util.MissingResourceException;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import net.sf.okapi.common.exceptions.OkapiEncryptedDataException;
 import net.sf.okapi.common.exceptions.OkapiUnexpectedRevisionException;
 import com.matecat.filters.basefilters.FiltersRouter;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.glassfish.jersey.media.multipart.BodyPartEntity;
+import org.glassfish.jersey.media.multipart.FormDataBodyPart;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.matecat.converter.core.metrics.Metrics;
 import com.matecat.converter.core.project.Project;
 import com.matecat.converter.core.project.ProjectFactory;
+import com.matecat.converter.core.util.Config;
 import com.matecat.converter.server.JSONResponseFactory;
+import com.matecat.converter.server.StreamingResponseFactory;
 import com.matecat.converter.server.exceptions.ServerException;
 
 
@@ -37,37 +49,29 @@ public class ConvertToXliffResource {
     // Logger
     private static Logger LOGGER = LoggerFactory.getLogger(ConvertToXliffResource.class);
 
+    // Buffer used to inflate the compressed uploads
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Convert a file into XLF
+     *
+     * By default the XLIFF is returned wrapped in a JSON object. Sending the 'output=raw' query param, or
+     * accepting the XLIFF media type with a non zero quality, the XLIFF is streamed as it is instead.
      */
     @POST
     @Consumes(MediaType.MULTIPART_FORM_DATA)
-    @Produces("application/json")
+    @Produces({"application/json", StreamingResponseFactory.XLIFF_MEDIA_TYPE, StreamingResponseFactory.XLIFF_LEGACY_MEDIA_TYPE})
     public Response convert(
-            @FormDataParam("documentContent") InputStream fileInputStream,
+            @QueryParam("output") String output,
+            @Context HttpHeaders headers,
+            @FormDataParam("documentContent") FormDataBodyPart filePart,
             @FormDataParam("documentContent") FormDataContentDisposition contentDispositionHeader,
             @FormDataParam("fileName") String filename,
             @FormDataParam("sourceLocale") String sourceLanguageCode,
             @FormDataParam("targetLocale") String targetLanguageCode,
             @FormDataParam("segmentation") String segmentation) {
 
-        // Due to a bug in the MIMEPull library (MIMEParser.java line 510),
-        // contentDispositionHeader.getFileName() returns the filename in ISO-8859-1
-        // even if it was sent in UTF-8. Unless this bug is there, here is a little
-        // workaround: you can send the filename in UTF-8 in the 'fileName' POST
-        // param. If the 'fileName' parameter is present, it overrides the name of
-        // the file in 'documentContent'
-        if (filename == null || filename.isEmpty())
-            filename = FilenameUtils.getName(contentDispositionHeader.getFileName());
-
-        // Make extension ALWAYS lower case.
-        // The original extension of the file is written in the output XLIFF
-        // always lowercase, for compliance with the XLIFF spec (see datatype
-        // attribute of <file> element). This causes insidious bugs in the
-        // back-conversion, very difficult to solve with the current class
-        // structure (I tried). This fixes it easily.
-        // TODO: refactor internal classes to be filename/extension agnostic
-        filename = FilenameUtils.removeExtension(filename) + "." + FilenameUtils.getExtension(filename).toLowerCase();
+        filename = normalizeFilename(filename, contentDispositionHeader);
 
         LOGGER.info("SOURCE > XLIFF request: file=<{}> source=<{}> target=<{}>", filename, sourceLanguageCode, targetLanguageCode);
 
@@ -77,7 +81,7 @@ public class ConvertToXliffResource {
         try {
 
             // Check that the input file is not null
-            if (fileInputStream == null)
+            if (filePart == null)
                 throw new IllegalArgumentException("The input file has not been sent");
 
             // Parse the codes
@@ -85,16 +89,23 @@ public class ConvertToXliffResource {
             Locale targetLanguage = parseLanguage(targetLanguageCode);
 
             // Create the project
-            project = ProjectFactory.createProject(filename, fileInputStream);
+            project = createProject(filename, filePart);
 
             // Retrieve the xlf
             File xlf = new FiltersRouter().extract(project.getFile(), sourceLanguage, targetLanguage, segmentation);
 
             // Create response
-            response = Response
-                    .status(Response.Status.OK)
-                    .entity(JSONResponseFactory.getConvertSuccess(xlf))
-                    .build();
+            if (StreamingResponseFactory.isRawRequested(output, headers.getAcceptableMediaTypes())) {
+                response = StreamingResponseFactory.getXliffSuccess(xlf, project::close);
+                // The project will be closed once the XLIFF has been streamed
+                project = null;
+            } else {
+                response = Response
+                        .status(Response.Status.OK)
+                        .type(MediaType.APPLICATION_JSON_TYPE)
+                        .entity(JSONResponseFactory.getConvertSuccess(xlf))
+                        .build();
+            }
 
             everythingOk = true;
             LOGGER.info("Successfully returned XLIFF file");
@@ -102,27 +113,18 @@ public class ConvertToXliffResource {
 
         // If there is any error, return it
         catch (Exception e) {
-            String errorMessage;
-            if (e instanceof OkapiUnexpectedRevisionException) {
-                errorMessage = "Document contains revisions or comments, please review and remove them.";
-            } else if (e instanceof OkapiEncryptedDataException) {
-                errorMessage = "Document is password protected: can't access to contents.";
-            } else {
-                errorMessage = e.getMessage();
-            }
+            String errorMessage = getErrorMessage(e);
             response =  Response
                     .status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .header(StreamingResponseFactory.STATUS_HEADER, StreamingResponseFactory.STATUS_ERROR)
                     .entity(JSONResponseFactory.getError(errorMessage))
                     .build();
             LOGGER.error("Exception converting source to XLIFF: {}", errorMessage, e);
         }
 
-        // Close the project and streams
+        // Close the project
         finally {
-            if (fileInputStream != null)
-                try {
-                    fileInputStream.close();
-                } catch (IOException ignored) {}
             if (project != null)
                 // Delete folder only if everything went well
                 project.close(everythingOk);
@@ -132,10 +134,108 @@ public class ConvertToXliffResource {
     }
 
 
+    /**
+     * Create the project of an uploaded file
+     *
+     * The multipart library has already saved the upload in the cache folder (or kept it in memory, if small):
+     * the file is moved into the project instead of being copied again.
+     */
+    static Project createProject(String filename, FormDataBodyPart filePart) {
+        return ingest(filename, () -> {
+            File upload = new File(Config.cacheFolder, "upload-" + UUID.randomUUID());
+            filePart.getEntityAs(BodyPartEntity.class).moveTo(upload);
+            return ProjectFactory.createProject(filename, upload);
+        });
+    }
+
+
+    /**
+     * Create the project of an uploaded file, which may have been compressed with gzip by the client
+     *
+     * Compressed files are recognized by their magic number, and inflated while saving them into the project:
+     * the inflation stops with a FileTooBigException once Config.maxUploadSize is exceeded.
+     */
+    static Project createProjectInflating(String filename, FormDataBodyPart filePart) throws IOException {
+        return ingest(filename, () -> {
+            File upload = new File(Config.cacheFolder, "upload-" + UUID.randomUUID());
+            filePart.getEntityAs(BodyPartEntity.class).moveTo(upload);
+            if (!isGzipped(upload))
+                return ProjectFactory.createProject(filename, upload);
+            try {
+                return ProjectFactory.createProject(filename, new GZIPInputStream(new FileInputStream(upload), GZIP_BUFFER_SIZE));
+            } finally {
+                FileUtils.deleteQuietly(upload);
+            }
+        });
+    }
+
+
+    /**
+     * Create the project of a received file, recording the duration of the ingestion and the bytes received
+     * @param filename Name of the received file
+     * @param creation Creation of the project
+     */
+    static <E extends Exception> Project ingest(String filename, Metrics.Task<Project, E> creation) throws E {
+        Project project = Metrics.time(Metrics.INGESTION, Metrics.getFormat(filename), creation);
+        Metrics.addIngestedBytes(project.getFile().length());
+        return project;
+    }
+
+
+    /**
+     * Check if a file starts with the gzip magic number
+     */
+    private static boolean isGzipped(File file) throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return inputStream.read() == (GZIPInputStream.GZIP_MAGIC & 0xff)
+                    && inputStream.read() == (GZIPInputStream.GZIP_MAGIC >> 8);
+        }
+    }
+
+
+    /**
+     * Get the name to give to the uploaded file
+     */
+    static String normalizeFilename(String filename, FormDataContentDisposition contentDispositionHeader) {
+        // Due to a bug in the MIMEPull library (MIMEParser.java line 510),
+        // contentDispositionHeader.getFileName() returns the filename in ISO-8859-1
+        // even if it was sent in UTF-8. Unless this bug is there, here is a little
+        // workaround: you can send the filename in UTF-8 in the 'fileName' POST
+        // param. If the 'fileName' parameter is present, it overrides the name of
+        // the file in 'documentContent'
+        if (filename == null || filename.isEmpty())
+            filename = FilenameUtils.getName(contentDispositionHeader.getFileName());
+
+        // Make extension ALWAYS lower case.
+        // The original extension of the file is written in the output XLIFF
+        // always lowercase, for compliance with the XLIFF spec (see datatype
+        // attribute of <file> element). This causes insidious bugs in the
+        // back-conversion, very difficult to solve with the current class
+        // structure (I tried). This fixes it easily.
+        // TODO: refactor internal classes to be filename/extension agnostic
+        filename = FilenameUtils.removeExtension(filename) + "." + FilenameUtils.getExtension(filename).toLowerCase();
+        return filename;
+    }
+
+
+    /**
+     * Get the message to return to the client for an exception thrown while converting to XLIFF
+     */
+    static String getErrorMessage(Throwable e) {
+        if (e instanceof OkapiUnexpectedRevisionException) {
+            return "Document contains revisions or comments, please review and remove them.";
+        } else if (e instanceof OkapiEncryptedDataException) {
+            return "Document is password protected: can't access to contents.";
+        } else {
+            return e.getMessage();
+        }
+    }
+
+
     /**
      * Parse the language code into Locales
      */
-    private Locale parseLanguage(String languageCode) throws ServerException {
+    static Locale parseLanguage(String languageCode) throws ServerException {
 
         // Parse the code
         Locale language = Locale.forLanguageTag(
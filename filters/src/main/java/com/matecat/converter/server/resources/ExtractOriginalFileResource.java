@@ -2,8 +2,9 @@ package com.matecat.converter.server.resources;
 
 import com.matecat.converter.core.XliffProcessor;
 import com.matecat.converter.core.project.Project;
-import com.matecat.converter.core.project.ProjectFactory;
 import com.matecat.converter.server.JSONResponseFactory;
+import com.matecat.converter.server.StreamingResponseFactory;
+import org.glassfish.jersey.media.multipart.FormDataBodyPart;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +13,6 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 
 
 /**
@@ -32,7 +31,7 @@ public class ExtractOriginalFileResource {
     @POST
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces("application/json")
-    public Response convert(@FormDataParam("file") InputStream fileInputStream) {
+    public Response convert(@FormDataParam("file") FormDataBodyPart filePart) {
 
         // Logging
         LOGGER.info("XLIFF > SOURCE request");
@@ -43,20 +42,19 @@ public class ExtractOriginalFileResource {
         try {
 
             // Check that the input file is not null
-            if (fileInputStream == null)
+            if (filePart == null)
                 throw new IllegalArgumentException("The input file has not been sent");
 
             // Create the project
-            project = ProjectFactory.createProject("to-original.xlf", fileInputStream);
+            project = ConvertToXliffResource.createProjectInflating("to-original.xlf", filePart);
 
             // Retrieve the xlf
             File originalFile = new XliffProcessor(project.getFile()).getOriginalFile();
 
-            // Create response
-            response = Response
-                    .status(Response.Status.OK)
-                    .entity(JSONResponseFactory.getDerivedSuccess(originalFile))
-                    .build();
+            // Create response, streaming the file
+            response = StreamingResponseFactory.getDerivedSuccess(originalFile, project::close);
+            // The project will be closed once the file has been streamed
+            project = null;
 
             everythingOk = true;
             LOGGER.info("Successfully returned source file");
@@ -71,12 +69,8 @@ public class ExtractOriginalFileResource {
             LOGGER.error("Exception extracting source file from XLIFF", e);
         }
 
-        // Close the project and streams
+        // Close the project
         finally {
-            if (fileInputStream != null)
-                try {
-                    fileInputStream.close();
-                } catch (IOException ignored) {}
             if (project != null)
                 // Delete folder only if everything went well
                 project.close(everythingOk);
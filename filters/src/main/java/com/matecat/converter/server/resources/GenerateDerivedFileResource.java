@@ -1,9 +1,10 @@
 package com.matecat.converter.server.resources;
 
 import com.matecat.converter.core.project.Project;
-import com.matecat.converter.core.project.ProjectFactory;
 import com.matecat.converter.server.JSONResponseFactory;
+import com.matecat.converter.server.StreamingResponseFactory;
 import com.matecat.filters.basefilters.FiltersRouter;
+import org.glassfish.jersey.media.multipart.FormDataBodyPart;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,8 +16,6 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 
 
 /**
@@ -35,7 +34,7 @@ public class GenerateDerivedFileResource {
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces("application/json")
     public Response convert(
-            @FormDataParam("xliffContent") InputStream fileInputStream) {
+            @FormDataParam("xliffContent") FormDataBodyPart filePart) {
 
         // Logging
         LOGGER.info("XLIFF > TARGET request");
@@ -46,20 +45,19 @@ public class GenerateDerivedFileResource {
         try {
 
             // Check that the input file is not null
-            if (fileInputStream == null)
+            if (filePart == null)
                 throw new IllegalArgumentException("The input file has not been sent");
 
             // Create the project
-            project = ProjectFactory.createProject("to-derived.xlf", fileInputStream);
+            project = ConvertToXliffResource.createProjectInflating("to-derived.xlf", filePart);
 
             // Retrieve the xlf
             File derivedFile = new FiltersRouter().merge(project.getFile());
 
-            // Create response
-            response = Response
-                    .status(Response.Status.OK)
-                    .entity(JSONResponseFactory.getDerivedSuccess(derivedFile))
-                    .build();
+            // Create response, streaming the file
+            response = StreamingResponseFactory.getDerivedSuccess(derivedFile, project::close);
+            // The project will be closed once the file has been streamed
+            project = null;
 
             everythingOk = true;
             LOGGER.info("Successfully returned target file");
@@ -74,12 +72,8 @@ public class GenerateDerivedFileResource {
             LOGGER.error("Exception converting XLIFF to target", e);
         }
 
-        // Close the project and streams
+        // Close the project
         finally {
-            if (fileInputStream != null)
-                try {
-                    fileInputStream.close();
-                } catch (IOException ignored) {}
             if (project != null)
                 // Delete folder only if everything went well
                 project.close(everythingOk);
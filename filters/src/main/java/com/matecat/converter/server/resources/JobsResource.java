@@ -0,0 +1,277 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.core.project.Project;
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.server.JSONResponseFactory;
+import com.matecat.converter.server.StreamingResponseFactory;
+import com.matecat.converter.server.jobs.ConversionJob;
+import com.matecat.converter.server.jobs.JobManager;
+import com.matecat.filters.basefilters.FiltersRouter;
+import org.glassfish.jersey.media.multipart.FormDataBodyPart;
+import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
+import org.glassfish.jersey.media.multipart.FormDataParam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import java.io.File;
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Resource taking care of the asynchronous conversions
+ *
+ * Conversions are submitted as jobs and run on the JobManager workers: the submission returns immediately the id
+ * of the job, which can be used to poll (or long-poll) its status and finally to retrieve its result. Results have
+ * the same format of the synchronous resources.
+ *
+ * @see JobManager
+ */
+@Path("/AutomationService/jobs")
+public class JobsResource {
+
+    // Logger
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobsResource.class);
+
+    @Context
+    private UriInfo uriInfo;
+
+
+    /**
+     * Submit the conversion of a file into XLF
+     */
+    @POST
+    @Path("/original2xliff")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces("application/json")
+    public Response submitConversion(
+            @FormDataParam("documentContent") FormDataBodyPart filePart,
+            @FormDataParam("documentContent") FormDataContentDisposition contentDispositionHeader,
+            @FormDataParam("fileName") String filename,
+            @FormDataParam("sourceLocale") String sourceLanguageCode,
+            @FormDataParam("targetLocale") String targetLanguageCode,
+            @FormDataParam("segmentation") String segmentation) {
+
+        filename = ConvertToXliffResource.normalizeFilename(filename, contentDispositionHeader);
+
+        LOGGER.info("SOURCE > XLIFF job request: file=<{}> source=<{}> target=<{}>", filename, sourceLanguageCode, targetLanguageCode);
+
+        Project project = null;
+        try {
+
+            // Check that the input file is not null
+            if (filePart == null)
+                throw new IllegalArgumentException("The input file has not been sent");
+
+            // Parse the codes
+            Locale sourceLanguage = ConvertToXliffResource.parseLanguage(sourceLanguageCode);
+            Locale targetLanguage = ConvertToXliffResource.parseLanguage(targetLanguageCode);
+
+            // Create the project
+            project = ConvertToXliffResource.createProject(filename, filePart);
+            File file = project.getFile();
+
+            return submit(new ConversionJob(ConversionJob.Type.ORIGINAL2XLIFF, project),
+                    () -> new FiltersRouter().extract(file, sourceLanguage, targetLanguage, segmentation));
+        }
+
+        // If there is any error, return it
+        catch (Exception e) {
+            if (project != null)
+                project.close(false);
+            LOGGER.error("Exception submitting conversion job", e);
+            return error(Response.Status.BAD_REQUEST, ConvertToXliffResource.getErrorMessage(e));
+        }
+    }
+
+
+    /**
+     * Submit the generation of the derived file from the xlf
+     */
+    @POST
+    @Path("/xliff2original")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces("application/json")
+    public Response submitDerivation(
+            @FormDataParam("xliffContent") FormDataBodyPart filePart) {
+
+        LOGGER.info("XLIFF > TARGET job request");
+
+        Project project = null;
+        try {
+
+            // Check that the input file is not null
+            if (filePart == null)
+                throw new IllegalArgumentException("The input file has not been sent");
+
+            // Create the project
+            project = ConvertToXliffResource.createProjectInflating("to-derived.xlf", filePart);
+            File file = project.getFile();
+
+            return submit(new ConversionJob(ConversionJob.Type.XLIFF2ORIGINAL, project),
+                    () -> new FiltersRouter().merge(file));
+        }
+
+        // If there is any error, return it
+        catch (Exception e) {
+            if (project != null)
+                project.close(false);
+            LOGGER.error("Exception submitting derivation job", e);
+            return error(Response.Status.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+
+    /**
+     * Get the status of a job
+     *
+     * If the 'wait' param is provided, and the job is still running, the response is delayed until the job
+     * finishes or the given seconds pass (capped by Config.jobsMaxWait). The request thread is released meanwhile.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces("application/json")
+    public void getStatus(
+            @PathParam("id") String id,
+            @QueryParam("wait") @DefaultValue("0") int wait,
+            @Suspended AsyncResponse asyncResponse) {
+
+        ConversionJob job = JobManager.get(id);
+        if (job == null) {
+            asyncResponse.resume(notFound(id));
+            return;
+        }
+
+        int timeout = Math.min(Math.max(wait, 0), Config.jobsMaxWait);
+        if (timeout == 0 || job.getStatus().isFinished()) {
+            asyncResponse.resume(status(job));
+            return;
+        }
+
+        // Long polling: answer at the job completion or at the timeout, whichever comes first
+        asyncResponse.setTimeoutHandler(response -> response.resume(status(job)));
+        asyncResponse.setTimeout(timeout, TimeUnit.SECONDS);
+        job.getCompletion().thenAccept(completedJob -> asyncResponse.resume(status(completedJob)));
+    }
+
+
+    /**
+     * Get the result of a job
+     *
+     * Once the result of a finished job is returned, the job is removed and its files deleted.
+     */
+    @GET
+    @Path("/{id}/result")
+    @Produces("application/json")
+    public Response getResult(@PathParam("id") String id) {
+
+        ConversionJob job = JobManager.get(id);
+        if (job == null)
+            return notFound(id);
+
+        switch (job.getStatus()) {
+
+            case SUCCEEDED:
+                LOGGER.info("Returning result of job {}", id);
+                if (job.getType() == ConversionJob.Type.XLIFF2ORIGINAL) {
+                    // The job is removed once the file has been streamed
+                    return StreamingResponseFactory.getDerivedSuccess(job.getResult(), success -> JobManager.remove(id));
+                }
+                try {
+                    return Response
+                            .status(Response.Status.OK)
+                            .entity(JSONResponseFactory.getConvertSuccess(job.getResult()))
+                            .build();
+                } finally {
+                    JobManager.remove(id);
+                }
+
+            case FAILED:
+                JobManager.remove(id);
+                return error(Response.Status.BAD_REQUEST, getErrorMessage(job));
+
+            default:
+                // Not finished yet
+                return Response
+                        .status(Response.Status.ACCEPTED)
+                        .entity(JSONResponseFactory.getJobStatus(job, null))
+                        .build();
+        }
+    }
+
+
+    /**
+     * Cancel a job, or discard its result
+     */
+    @DELETE
+    @Path("/{id}")
+    @Produces("application/json")
+    public Response delete(@PathParam("id") String id) {
+        ConversionJob job = JobManager.remove(id);
+        if (job == null)
+            return notFound(id);
+        LOGGER.info("Job {} deleted", id);
+        return status(job);
+    }
+
+
+    /**
+     * Submit a job to the manager, and build the response for the client
+     */
+    private Response submit(ConversionJob job, Callable<File> conversion) {
+        try {
+            JobManager.submit(job, conversion);
+        } catch (RejectedExecutionException e) {
+            job.getProject().close(true);
+            LOGGER.warn("Job rejected: too many jobs waiting");
+            return error(Response.Status.SERVICE_UNAVAILABLE, "Too many conversions in progress, retry later");
+        }
+        URI location = uriInfo.getBaseUriBuilder().path(JobsResource.class).path(job.getId()).build();
+        return Response
+                .status(Response.Status.ACCEPTED)
+                .location(location)
+                .entity(JSONResponseFactory.getJobStatus(job, null))
+                .build();
+    }
+
+
+    private static Response status(ConversionJob job) {
+        return Response
+                .status(Response.Status.OK)
+                .entity(JSONResponseFactory.getJobStatus(job, getErrorMessage(job)))
+                .build();
+    }
+
+
+    private static String getErrorMessage(ConversionJob job) {
+        if (job.getStatus() != ConversionJob.Status.FAILED)
+            return null;
+        if (job.getType() == ConversionJob.Type.ORIGINAL2XLIFF)
+            return ConvertToXliffResource.getErrorMessage(job.getError());
+        return job.getError().getMessage();
+    }
+
+
+    private static Response notFound(String id) {
+        return error(Response.Status.NOT_FOUND, "Job not found: " + id);
+    }
+
+
+    private static Response error(Response.Status status, String errorMessage) {
+        return Response
+                .status(status)
+                .entity(JSONResponseFactory.getError(errorMessage))
+                .build();
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.core.metrics.Metrics;
+import com.matecat.converter.server.MatecatConverterServer;
+import com.matecat.converter.server.admission.AdmissionController;
+import com.matecat.converter.server.admission.EndpointLimiter;
+import com.matecat.converter.server.jobs.JobManager;
+import org.eclipse.jetty.io.ConnectionStatistics;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import javax.servlet.ServletContext;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+
+
+/**
+ * Resource exporting the metrics in the Prometheus text format
+ *
+ * Besides the durations of the conversion stages (see Metrics), it reports the queues where the requests wait:
+ * the admission control, the jobs workers and the http thread pool, plus the bytes moved by the connectors.
+ */
+@Path("/metrics")
+public class MetricsResource {
+
+    // Content type of the Prometheus text format
+    public static final String PROMETHEUS_MEDIA_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Context
+    private ServletContext servletContext;
+
+    /**
+     * Return the metrics
+     */
+    @GET
+    @Produces(PROMETHEUS_MEDIA_TYPE)
+    public Response metrics() {
+        StringBuilder out = new StringBuilder();
+        Metrics.write(out);
+        writeAdmissionMetrics(out);
+        writeJobsMetrics(out);
+        Server server = (Server) servletContext.getAttribute(MatecatConverterServer.SERVER_ATTRIBUTE);
+        if (server != null) {
+            writeThreadPoolMetrics(out, server.getThreadPool());
+            writeConnectorsMetrics(out, server.getConnectors());
+        }
+        return Response
+                .status(Response.Status.OK)
+                .entity(out.toString())
+                .build();
+    }
+
+
+    private static void writeAdmissionMetrics(StringBuilder out) {
+        Metrics.writeHeader(out, "matecat_admission_active", "gauge", "Requests being served, by endpoint");
+        for (EndpointLimiter limiter : AdmissionController.getLimiters())
+            Metrics.writeSample(out, "matecat_admission_active", getEndpointLabel(limiter), limiter.getActiveCount());
+        Metrics.writeHeader(out, "matecat_admission_queue_depth", "gauge", "Requests waiting to be served, by endpoint");
+        for (EndpointLimiter limiter : AdmissionController.getLimiters())
+            Metrics.writeSample(out, "matecat_admission_queue_depth", getEndpointLabel(limiter), limiter.getQueueSize());
+        Metrics.writeHeader(out, "matecat_admission_rejected_total", "counter", "Requests rejected because the server was saturated, by endpoint");
+        for (EndpointLimiter limiter : AdmissionController.getLimiters())
+            Metrics.writeSample(out, "matecat_admission_rejected_total", getEndpointLabel(limiter), limiter.getRejectedCount());
+    }
+
+
+    private static void writeJobsMetrics(StringBuilder out) {
+        Metrics.writeHeader(out, "matecat_jobs_active", "gauge", "Jobs being converted by the workers");
+        Metrics.writeSample(out, "matecat_jobs_active", null, JobManager.getActiveCount());
+        Metrics.writeHeader(out, "matecat_jobs_queue_depth", "gauge", "Jobs waiting for a worker");
+        Metrics.writeSample(out, "matecat_jobs_queue_depth", null, JobManager.getQueueSize());
+    }
+
+
+    private static void writeThreadPoolMetrics(StringBuilder out, ThreadPool threadPool) {
+        Metrics.writeHeader(out, "matecat_http_threads", "gauge", "Threads of the http pool");
+        Metrics.writeSample(out, "matecat_http_threads", null, threadPool.getThreads());
+        if (threadPool instanceof QueuedThreadPool) {
+            QueuedThreadPool queuedThreadPool = (QueuedThreadPool) threadPool;
+            Metrics.writeHeader(out, "matecat_http_busy_threads", "gauge", "Busy threads of the http pool");
+            Metrics.writeSample(out, "matecat_http_busy_threads", null, queuedThreadPool.getBusyThreads());
+            Metrics.writeHeader(out, "matecat_http_queue_depth", "gauge", "Tasks waiting for a thread of the http pool");
+            Metrics.writeSample(out, "matecat_http_queue_depth", null, queuedThreadPool.getQueueSize());
+        }
+    }
+
+
+    private static void writeConnectorsMetrics(StringBuilder out, Connector[] connectors) {
+        Metrics.writeHeader(out, "matecat_http_received_bytes_total", "counter", "Bytes received by the connectors");
+        for (Connector connector : connectors) {
+            ConnectionStatistics statistics = connector.getBean(ConnectionStatistics.class);
+            if (statistics != null)
+                Metrics.writeSample(out, "matecat_http_received_bytes_total", getConnectorLabel(connector), statistics.getReceivedBytes());
+        }
+        Metrics.writeHeader(out, "matecat_http_sent_bytes_total", "counter", "Bytes sent by the connectors");
+        for (Connector connector : connectors) {
+            ConnectionStatistics statistics = connector.getBean(ConnectionStatistics.class);
+            if (statistics != null)
+                Metrics.writeSample(out, "matecat_http_sent_bytes_total", getConnectorLabel(connector), statistics.getSentBytes());
+        }
+    }
+
+
+    private static String getEndpointLabel(EndpointLimiter limiter) {
+        return "endpoint=\"" + limiter.getName() + "\"";
+    }
+
+
+    private static String getConnectorLabel(Connector connector) {
+        return "connector=\"" + connector.getName() + "\"";
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.core.MemoryAdmission;
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.server.MatecatConverterServer;
+import com.matecat.converter.server.admission.AdmissionController;
+import com.matecat.converter.server.admission.EndpointLimiter;
+import com.matecat.converter.server.jobs.JobManager;
+import org.eclipse.jetty.io.ConnectionStatistics;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.StatisticsHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import javax.servlet.ServletContext;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+
+
+/**
+ * Resource reporting the statistics of the http server, to tune its configuration
+ *
+ * It includes the thread pool, the connectors, the requests served, and the state of the admission control and
+ * of the jobs workers.
+ */
+@Path("/stats")
+public class StatsResource {
+
+    @Context
+    private ServletContext servletContext;
+
+    /**
+     * Return the statistics as JSON
+     */
+    @GET
+    @Produces("application/json")
+    public Response stats() {
+        Server server = (Server) servletContext.getAttribute(MatecatConverterServer.SERVER_ATTRIBUTE);
+        JSONObject stats = new JSONObject();
+        stats.put("threadPool", getThreadPoolStats(server.getThreadPool()));
+        stats.put("connectors", getConnectorsStats(server.getConnectors()));
+        stats.put("requests", getRequestsStats(server.getChildHandlerByClass(StatisticsHandler.class)));
+        stats.put("admission", getAdmissionStats());
+        stats.put("jobs", getJobsStats());
+        stats.put("memoryAdmission", getMemoryAdmissionStats());
+        return Response
+                .status(Response.Status.OK)
+                .entity(stats.toJSONString())
+                .build();
+    }
+
+
+    private static JSONObject getThreadPoolStats(ThreadPool threadPool) {
+        JSONObject stats = new JSONObject();
+        stats.put("threads", threadPool.getThreads());
+        stats.put("idleThreads", threadPool.getIdleThreads());
+        if (threadPool instanceof QueuedThreadPool) {
+            QueuedThreadPool queuedThreadPool = (QueuedThreadPool) threadPool;
+            stats.put("minThreads", queuedThreadPool.getMinThreads());
+            stats.put("maxThreads", queuedThreadPool.getMaxThreads());
+            stats.put("busyThreads", queuedThreadPool.getBusyThreads());
+            stats.put("queueSize", queuedThreadPool.getQueueSize());
+        }
+        return stats;
+    }
+
+
+    private static JSONArray getConnectorsStats(Connector[] connectors) {
+        JSONArray connectorsStats = new JSONArray();
+        for (Connector connector : connectors) {
+            JSONObject stats = new JSONObject();
+            stats.put("name", connector.getName());
+            if (connector instanceof ServerConnector) {
+                ServerConnector serverConnector = (ServerConnector) connector;
+                stats.put("acceptors", serverConnector.getAcceptors());
+                stats.put("selectors", serverConnector.getSelectorManager().getSelectorCount());
+                stats.put("acceptQueueSize", serverConnector.getAcceptQueueSize());
+                stats.put("idleTimeout", serverConnector.getIdleTimeout());
+            }
+            ConnectionStatistics connectionStatistics = connector.getBean(ConnectionStatistics.class);
+            if (connectionStatistics != null) {
+                stats.put("connections", connectionStatistics.getConnections());
+                stats.put("connectionsMax", connectionStatistics.getConnectionsMax());
+                stats.put("connectionsTotal", connectionStatistics.getConnectionsTotal());
+                stats.put("connectionDurationMean", connectionStatistics.getConnectionDurationMean());
+                stats.put("receivedBytes", connectionStatistics.getReceivedBytes());
+                stats.put("sentBytes", connectionStatistics.getSentBytes());
+            }
+            connectorsStats.add(stats);
+        }
+        return connectorsStats;
+    }
+
+
+    private static JSONObject getRequestsStats(StatisticsHandler statisticsHandler) {
+        JSONObject stats = new JSONObject();
+        if (statisticsHandler == null)
+            return stats;
+        stats.put("requests", statisticsHandler.getRequests());
+        stats.put("requestsActive", statisticsHandler.getRequestsActive());
+        stats.put("requestsActiveMax", statisticsHandler.getRequestsActiveMax());
+        stats.put("requestTimeMean", statisticsHandler.getRequestTimeMean());
+        stats.put("requestTimeMax", statisticsHandler.getRequestTimeMax());
+        stats.put("asyncRequestsWaiting", statisticsHandler.getAsyncRequestsWaiting());
+        stats.put("responses2xx", statisticsHandler.getResponses2xx());
+        stats.put("responses4xx", statisticsHandler.getResponses4xx());
+        stats.put("responses5xx", statisticsHandler.getResponses5xx());
+        stats.put("statsOnMs", statisticsHandler.getStatsOnMs());
+        return stats;
+    }
+
+
+    private static JSONObject getAdmissionStats() {
+        JSONObject stats = new JSONObject();
+        for (EndpointLimiter limiter : AdmissionController.getLimiters()) {
+            JSONObject limiterStats = new JSONObject();
+            limiterStats.put("maxConcurrent", limiter.getMaxConcurrent());
+            limiterStats.put("active", limiter.getActiveCount());
+            limiterStats.put("waiting", limiter.getQueueSize());
+            limiterStats.put("rejected", limiter.getRejectedCount());
+            limiterStats.put("averageServiceTime", limiter.getAverageServiceTime());
+            stats.put(limiter.getName(), limiterStats);
+        }
+        return stats;
+    }
+
+
+    private static JSONObject getMemoryAdmissionStats() {
+        JSONObject stats = new JSONObject();
+        stats.put("enabled", Config.memoryAdmission);
+        stats.put("budget", MemoryAdmission.getBudget());
+        stats.put("reserved", MemoryAdmission.getReserved());
+        stats.put("waiting", MemoryAdmission.getQueueLength());
+        return stats;
+    }
+
+
+    private static JSONObject getJobsStats() {
+        JSONObject stats = new JSONObject();
+        stats.put("active", JobManager.getActiveCount());
+        stats.put("queueSize", JobManager.getQueueSize());
+        return stats;
+    }
+
+}
@@ -1,16 +1,23 @@
 package com.matecat.converter.server.resources;
 
+import com.matecat.converter.server.WarmUp;
+import com.matecat.converter.server.admission.AdmissionController;
+import com.matecat.converter.server.admission.EndpointLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 
 /**
  * Simple resource used to test if the server is running
+ *
+ * When the conversions are saturating the server it answers with a 503, so load balancers can route the
+ * requests to other instances. It does the same while the server is warming up after the boot (see WarmUp).
  */
 @Path("/test")
 public class TestConnectionResource {
@@ -18,12 +25,37 @@ public class TestConnectionResource {
     // Logger
     private static final Logger LOGGER = LoggerFactory.getLogger(TestConnectionResource.class);
 
+    // Seconds the clients are asked to wait while the server is warming up
+    private static final long WARM_UP_RETRY_AFTER = 5;
+
     /**
-     * Return a simple ok message
+     * Return a simple ok message, or a 503 if the server is warming up or saturated
      */
     @GET
     public Response test(@Context HttpServletRequest request) {
         LOGGER.info("TEST request from {}", request.getRemoteAddr());
+        if (!WarmUp.isReady()) {
+            return Response
+                    .status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, WARM_UP_RETRY_AFTER)
+                    .entity("Server warming up")
+                    .build();
+        }
+        if (AdmissionController.isSaturated()) {
+            long retryAfter = 1;
+            StringBuilder message = new StringBuilder("Server saturated");
+            for (EndpointLimiter limiter : AdmissionController.getLimiters()) {
+                message.append(String.format("%n%s: %d/%d running, %d waiting",
+                        limiter.getName(), limiter.getActiveCount(), limiter.getMaxConcurrent(), limiter.getQueueSize()));
+                if (limiter.isSaturated())
+                    retryAfter = Math.max(retryAfter, limiter.getRetryAfter());
+            }
+            return Response
+                    .status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfter)
+                    .entity(message.toString())
+                    .build();
+        }
         return Response
                 .status(Response.Status.OK)
                 .entity("Server on")
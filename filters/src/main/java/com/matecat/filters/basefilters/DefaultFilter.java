@@ -5,6 +5,8 @@ import com.matecat.converter.core.XliffBuilder;
 import com.matecat.converter.core.XliffProcessor;
 import com.matecat.converter.core.encoding.Encoding;
 import com.matecat.converter.core.encoding.EncodingDetectorRouter;
+import com.matecat.converter.core.metrics.Metrics;
+import com.matecat.converter.core.okapiclient.ArchiveSplitter;
 import com.matecat.converter.core.okapiclient.OkapiClient;
 import com.matecat.converter.core.okapiclient.OkapiPack;
 import com.matecat.converter.core.util.Config;
@@ -12,6 +14,7 @@ import com.matecat.converter.core.winconverter.WinConverterClient;
 import com.matecat.converter.core.winconverter.WinConverterRouter;
 
 import java.io.File;
+import java.util.List;
 import java.util.Locale;
 
 public class DefaultFilter implements IFilter {
@@ -32,28 +35,67 @@ public class DefaultFilter implements IFilter {
     @Override
     public File extract(File sourceFile, Locale sourceLanguage, Locale targetLanguage, String segmentation) {
         Format originalFormat = Format.getFormat(sourceFile);
+        if (Config.archiveParallelExtraction && ArchiveSplitter.isSplittable(sourceFile)) {
+            // The entries are extracted concurrently, each one with its own encoding
+            List<OkapiPack> entryPacks = Metrics.time(Metrics.PACK_GENERATION, originalFormat,
+                    () -> ArchiveSplitter.generatePacks(sourceLanguage, targetLanguage, sourceFile, segmentation, false));
+            return Metrics.time(Metrics.XLIFF_BUILD, originalFormat,
+                    () -> XliffBuilder.buildFromArchivePacks(sourceFile, entryPacks, originalFormat, this.getClass()));
+        }
+        if (Config.okapiMemoryExtraction) {
+            // The XLIFF is written by Okapi in a single pass, there is no pack to build it from
+            return extract(sourceFile, sourceLanguage, targetLanguage, segmentation, null, false,
+                    (srcLanguage, trgLanguage, encoding, file, fileSegmentation, okapiFilter, segmentBilingual) ->
+                            generateXliff(srcLanguage, trgLanguage, encoding, file, fileSegmentation, originalFormat));
+        }
+
         OkapiPack okapiPack = extractOkapiPack(sourceFile, sourceLanguage, targetLanguage, segmentation, null, false);
 
-        return XliffBuilder.build(okapiPack, originalFormat, this.getClass());
+        return Metrics.time(Metrics.XLIFF_BUILD, originalFormat,
+                () -> XliffBuilder.build(okapiPack, originalFormat, this.getClass()));
+    }
+
+    private File generateXliff(Locale sourceLanguage, Locale targetLanguage, Encoding encoding, File file, String segmentation, Format originalFormat) {
+        File output = new File(file.getParentFile(), file.getName() + ".xlf");
+        // Building the xliff is now just embedding the original file and the manifest
+        return OkapiClient.generateXliff(sourceLanguage, targetLanguage, encoding, file, segmentation, null, false, output,
+                (xliffOutput, manifest, sourceLocale, targetLocale) -> Metrics.time(Metrics.XLIFF_BUILD, originalFormat, () -> {
+                    XliffBuilder.writeFileElements(xliffOutput, file, manifest,
+                            originalFormat, this.getClass(), sourceLocale.toBCP47(), targetLocale.toBCP47());
+                    return output;
+                }));
     }
 
     public static OkapiPack extractOkapiPack(File sourceFile, Locale sourceLanguage, Locale targetLanguage, String segmentation, net.sf.okapi.common.filters.IFilter okapiFilter, Boolean segmentBilingual) {
+        return extract(sourceFile, sourceLanguage, targetLanguage, segmentation, okapiFilter, segmentBilingual, OkapiClient::generatePack);
+    }
+
+    private static <P> P extract(File sourceFile, Locale sourceLanguage, Locale targetLanguage, String segmentation, net.sf.okapi.common.filters.IFilter okapiFilter, Boolean segmentBilingual, PackGenerator<P> generator) {
         Format originalFormat = Format.getFormat(sourceFile);
 
         // 1. If the file it's not supported, convert it
         if (Config.winConvEnabled && !OkapiClient.isSupported(originalFormat)) {
             try {
-                sourceFile = WinConverterRouter.convert(sourceFile);
+                File inputFile = sourceFile;
+                sourceFile = Metrics.time(Metrics.WIN_CONVERSION, originalFormat, () -> WinConverterRouter.convert(inputFile));
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
         }
 
         // 2. Detect the encoding
-        Encoding encoding = new EncodingDetectorRouter().detect(sourceFile);
+        File convertedFile = sourceFile;
+        Encoding encoding = Metrics.time(Metrics.ENCODING_DETECTION, originalFormat,
+                () -> new EncodingDetectorRouter().detect(convertedFile));
 
         // 3. Send to Okapi
-        return OkapiClient.generatePack(sourceLanguage, targetLanguage, encoding, sourceFile, segmentation, okapiFilter, segmentBilingual);
+        return Metrics.time(Metrics.PACK_GENERATION, originalFormat,
+                () -> generator.generate(sourceLanguage, targetLanguage, encoding, convertedFile, segmentation, okapiFilter, segmentBilingual));
+    }
+
+    @FunctionalInterface
+    private interface PackGenerator<P> {
+        P generate(Locale sourceLanguage, Locale targetLanguage, Encoding encoding, File file, String segmentation, net.sf.okapi.common.filters.IFilter okapiFilter, Boolean segmentBilingual);
     }
 
     @Override
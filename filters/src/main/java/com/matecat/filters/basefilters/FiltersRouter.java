@@ -1,6 +1,9 @@
 package com.matecat.filters.basefilters;
 
+import com.matecat.converter.core.ConversionCoalescer;
+import com.matecat.converter.core.MemoryAdmission;
 import com.matecat.converter.core.XliffProcessor;
+import com.matecat.converter.core.metrics.Metrics;
 import com.matecat.converter.core.util.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,12 +36,33 @@ public class FiltersRouter {
                 if (!(filter instanceof DefaultFilter)) {
                     LOGGER.info("Using custom filter: " + filter.getClass().getCanonicalName());
                 }
-                return filter.extract(sourceFile, sourceLanguage, targetLanguage, segmentation);
+                Metrics.conversionStarted();
+                try {
+                    return extract(filter, sourceFile, sourceLanguage, targetLanguage, segmentation);
+                } finally {
+                    Metrics.conversionFinished();
+                }
             }
         }
         throw new IllegalStateException("No registered filter supports the source file");
     }
 
+    /**
+     * Extract with the given filter, sharing the result with the identical conversions running at the same time
+     */
+    private static File extract(IFilter filter, File sourceFile, Locale sourceLanguage, Locale targetLanguage, String segmentation) {
+        try {
+            String key = ConversionCoalescer.getKey(sourceFile, sourceLanguage.toLanguageTag(), targetLanguage.toLanguageTag(),
+                    segmentation, filter.getClass().getName());
+            return ConversionCoalescer.run(key, sourceFile.getParentFile(), () -> MemoryAdmission.run(sourceFile,
+                    () -> filter.extract(sourceFile, sourceLanguage, targetLanguage, segmentation)));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Exception extracting " + sourceFile.getName(), e);
+        }
+    }
+
     public File merge(File xliff) {
         XliffProcessor processor = new XliffProcessor(xliff);
         String filterName = processor.getFilter();
@@ -56,7 +80,12 @@ public class FiltersRouter {
         } catch (Exception e) {
             throw new RuntimeException("Exception while loading filter class "+ filterName, e);
         }
-        return filter.merge(processor);
+        Metrics.conversionStarted();
+        try {
+            return MemoryAdmission.run(xliff, () -> filter.merge(processor));
+        } finally {
+            Metrics.conversionFinished();
+        }
     }
 
 }
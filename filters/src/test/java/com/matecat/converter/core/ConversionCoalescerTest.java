@@ -0,0 +1,105 @@
+package com.matecat.converter.core;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+
+public class ConversionCoalescerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testKey() throws Exception {
+        File file = folder.newFile("test.txt");
+        FileUtils.writeStringToFile(file, "contents", StandardCharsets.UTF_8);
+        File sameContents = new File(folder.newFolder(), "test.txt");
+        FileUtils.copyFile(file, sameContents);
+        File otherName = new File(folder.newFolder(), "other.txt");
+        FileUtils.copyFile(file, otherName);
+
+        String key = ConversionCoalescer.getKey(file, "en-US", "it-IT");
+        assertEquals(key, ConversionCoalescer.getKey(sameContents, "en-US", "it-IT"));
+        assertNotEquals(key, ConversionCoalescer.getKey(otherName, "en-US", "it-IT"));
+        assertNotEquals(key, ConversionCoalescer.getKey(file, "en-US", "fr-FR"));
+    }
+
+    @Test
+    public void testIdenticalConversionsRunOnce() throws Exception {
+        File leaderFolder = folder.newFolder();
+        File followerFolder = folder.newFolder();
+        String key = "testIdenticalConversionsRunOnce";
+
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<File> conversion = () -> {
+            runs.incrementAndGet();
+            release.await();
+            File result = new File(leaderFolder, "result.xlf");
+            FileUtils.writeStringToFile(result, "xliff", StandardCharsets.UTF_8);
+            return result;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<File> leader = executor.submit(() -> ConversionCoalescer.run(key, leaderFolder, conversion));
+            while (ConversionCoalescer.getWaitingCount(key) != 0)
+                Thread.sleep(10);
+            Future<File> follower = executor.submit(() -> ConversionCoalescer.run(key, followerFolder, conversion));
+            while (ConversionCoalescer.getWaitingCount(key) != 1)
+                Thread.sleep(10);
+            release.countDown();
+
+            assertEquals(new File(leaderFolder, "result.xlf"), leader.get(10, TimeUnit.SECONDS));
+            File followerResult = follower.get(10, TimeUnit.SECONDS);
+            assertEquals(new File(followerFolder, "result.xlf"), followerResult);
+            assertEquals("xliff", FileUtils.readFileToString(followerResult, StandardCharsets.UTF_8));
+            assertEquals(1, runs.get());
+            assertEquals(-1, ConversionCoalescer.getWaitingCount(key));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testErrorShared() throws Exception {
+        String key = "testErrorShared";
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<File> conversion = () -> {
+            release.await();
+            throw new IllegalArgumentException("Broken file");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<File> leader = executor.submit(() -> ConversionCoalescer.run(key, folder.getRoot(), conversion));
+            while (ConversionCoalescer.getWaitingCount(key) != 0)
+                Thread.sleep(10);
+            Future<File> follower = executor.submit(() -> ConversionCoalescer.run(key, folder.getRoot(), conversion));
+            while (ConversionCoalescer.getWaitingCount(key) != 1)
+                Thread.sleep(10);
+            release.countDown();
+
+            for (Future<File> future : new Future[]{leader, follower}) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                    fail();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalArgumentException);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
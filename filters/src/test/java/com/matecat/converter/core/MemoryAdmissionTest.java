@@ -0,0 +1,105 @@
+package com.matecat.converter.core;
+
+import com.matecat.filters.basefilters.DefaultFilter;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MemoryAdmissionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File createFile(String filename, long size) throws Exception {
+        File file = folder.newFile(filename);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(size);
+        }
+        return file;
+    }
+
+    @Test
+    public void testCost() throws Exception {
+        assertTrue(MemoryAdmission.getHeapPerByte(Format.XLSX) > MemoryAdmission.getHeapPerByte(Format.TXT));
+        assertEquals(MemoryAdmission.BASE_COST + (long) (1000 * MemoryAdmission.getHeapPerByte(Format.TXT)),
+                MemoryAdmission.getCost(Format.TXT, 1000));
+        assertEquals(MemoryAdmission.BASE_COST, MemoryAdmission.getCost(null, 0));
+    }
+
+    @Test
+    public void testMeasure() throws Exception {
+        MemoryAdmission.measure(Format.STRINGS, 1000, 50000);
+        assertEquals(50, MemoryAdmission.getHeapPerByte(Format.STRINGS), 0.001);
+
+        // Measures are averaged, and bounded
+        MemoryAdmission.measure(Format.STRINGS, 1, Long.MAX_VALUE);
+        double heapPerByte = MemoryAdmission.getHeapPerByte(Format.STRINGS);
+        assertTrue(heapPerByte > 50 && heapPerByte < 1000);
+        MemoryAdmission.measure(Format.STRINGS, 1000, 0);
+        assertEquals(heapPerByte, MemoryAdmission.getHeapPerByte(Format.STRINGS), 0.001);
+    }
+
+    @Test
+    public void testLearnFromConversion() throws Exception {
+        File txt = folder.newFile("learn.txt");
+        FileUtils.writeStringToFile(txt, StringUtils.repeat("This is a sentence to translate. ", 10000), StandardCharsets.UTF_8);
+        assertTrue(txt.length() >= MemoryAdmission.MIN_MEASURED_SIZE);
+
+        // The garbage of the conversion must not be counted: the factor stays far from the limit
+        for (int i = 0; i < 3; i++) {
+            File xlf = MemoryAdmission.run(txt, () -> {
+                File result = new DefaultFilter().extract(txt, Locale.ENGLISH, Locale.ITALIAN, null);
+                System.gc();
+                return result;
+            }, true);
+            assertTrue(xlf.exists());
+        }
+        assertTrue(MemoryAdmission.HEAP_PER_BYTE.containsKey(Format.TXT));
+        double heapPerByte = MemoryAdmission.getHeapPerByte(Format.TXT);
+        assertTrue("Learned " + heapPerByte + " bytes of heap per byte", heapPerByte < 100);
+    }
+
+    @Test
+    public void testWaitForMemory() throws Exception {
+        // A document bigger than the whole budget runs alone
+        File big = createFile("big.txt", MemoryAdmission.getBudget());
+        File small = createFile("small.txt", 10);
+        CountDownLatch bigStarted = new CountDownLatch(1);
+        CountDownLatch bigRelease = new CountDownLatch(1);
+
+        CompletableFuture<String> bigConversion = CompletableFuture.supplyAsync(() -> MemoryAdmission.run(big, () -> {
+            bigStarted.countDown();
+            try {
+                assertTrue(bigRelease.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return "big";
+        }));
+        assertTrue(bigStarted.await(10, TimeUnit.SECONDS));
+        assertEquals(MemoryAdmission.getBudget(), MemoryAdmission.getReserved());
+
+        CompletableFuture<String> smallConversion = CompletableFuture.supplyAsync(() -> MemoryAdmission.run(small, () -> "small"));
+        Thread.sleep(200);
+        assertFalse(smallConversion.isDone());
+        assertEquals(1, MemoryAdmission.getQueueLength());
+
+        bigRelease.countDown();
+        assertEquals("big", bigConversion.get(10, TimeUnit.SECONDS));
+        assertEquals("small", smallConversion.get(10, TimeUnit.SECONDS));
+        assertEquals(0, MemoryAdmission.getReserved());
+    }
+
+}
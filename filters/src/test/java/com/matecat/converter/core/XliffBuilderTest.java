@@ -1,21 +1,35 @@
 package com.matecat.converter.core;
 
+import com.matecat.converter.core.encoding.Encoding;
+import com.matecat.converter.core.okapiclient.OkapiClient;
 import com.matecat.converter.core.okapiclient.OkapiPack;
 import com.matecat.filters.basefilters.DefaultFilter;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Base64;
+import java.util.Locale;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Xliff Builder Test
@@ -24,6 +38,9 @@ public class XliffBuilderTest {
 
     OkapiPack pack;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void setUp() throws Exception {
 
@@ -83,4 +100,86 @@ public class XliffBuilderTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBuildMatchesDomSerialization() throws Exception {
+
+        // Xliff with comments, CDATA sections, namespaces and references, and ex elements
+        File packFolder = folder.newFolder("pack");
+        FileUtils.copyDirectory(pack.getPackFolder(), packFolder);
+        OkapiPack torturePack = new OkapiPack(packFolder);
+        String xlf = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- generated -->\n"
+                + "<xliff xmlns:okp=\"okapi-framework:xliff-extensions\" version=\"1.2\" xmlns=\"urn:oasis:names:tc:xliff:document:1.2\">\n"
+                + "<file original=\"test.txt\" source-language=\"en-US\" target-language=\"it-IT\" datatype=\"x-text\">\n"
+                + "<body><trans-unit id=\"1\" okp:note=\"a&#9;b &quot;c&quot;\"><source><bx id=\"1\"/>&lt;a&gt; &amp; \u00e8 \ud83d\ude00"
+                + "<ex id=\"1\"></ex><ex/><![CDATA[<b>]]></source></trans-unit></body>\n</file>\n</xliff>\n";
+        Files.write(torturePack.getXlf().toPath(), xlf.getBytes(StandardCharsets.UTF_8));
+
+        File xliff = XliffBuilder.build(torturePack, Format.TXT, DefaultFilter.class);
+
+        // Written the same way the DOM is serialized
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        TransformerFactory.newInstance().newTransformer().transform(new DOMSource(parse(xliff)), new StreamResult(serialized));
+        assertArrayEquals(serialized.toByteArray(), Files.readAllBytes(xliff.toPath()));
+
+        NodeList exElements = parse(xliff).getElementsByTagName("ex");
+        assertEquals("_1", ((Element) exElements.item(0)).getAttribute("id"));
+        assertEquals("_", ((Element) exElements.item(1)).getAttribute("id"));
+
+    }
+
+    @Test
+    public void testSinglePassMatchesBuild() throws Exception {
+
+        File file = folder.newFile("test.docx");
+        FileUtils.copyFile(new File(getClass().getResource("/generation/test.docx").getPath()), file);
+
+        // Xliff built from the pack
+        OkapiPack pack = OkapiClient.generatePack(Locale.ENGLISH, Locale.ITALIAN, Encoding.getDefault(), file, null, null, false);
+        File builtXliff = XliffBuilder.build(pack, Format.DOCX, DefaultFilter.class);
+        pack.delete();
+        Document built = parse(builtXliff);
+
+        // Xliff written by Okapi in a single pass
+        File output = new File(folder.getRoot(), "single-pass.xlf");
+        File singlePassXliff = OkapiClient.generateXliff(Locale.ENGLISH, Locale.ITALIAN, Encoding.getDefault(), file, null, null, false, output,
+                (xliffOutput, manifest, sourceLocale, targetLocale) -> XliffBuilder.writeFileElements(xliffOutput, file, manifest,
+                        Format.DOCX, DefaultFilter.class, sourceLocale.toBCP47(), targetLocale.toBCP47()));
+        Document singlePass = parse(singlePassXliff);
+
+        NodeList builtFiles = built.getElementsByTagName("file");
+        NodeList singlePassFiles = singlePass.getElementsByTagName("file");
+        assertEquals(builtFiles.getLength(), singlePassFiles.getLength());
+
+        // Original file
+        assertTrue(builtFiles.item(0).isEqualNode(singlePassFiles.item(0)));
+
+        // Manifest, generated at different times
+        Element builtManifest = (Element) builtFiles.item(1);
+        Element singlePassManifest = (Element) singlePassFiles.item(1);
+        assertEquals(builtManifest.getAttribute("original"), singlePassManifest.getAttribute("original"));
+        assertEquals(builtManifest.getAttribute("source-language"), singlePassManifest.getAttribute("source-language"));
+        assertEquals(builtManifest.getAttribute("target-language"), singlePassManifest.getAttribute("target-language"));
+        assertEquals(decodeManifest(builtManifest), decodeManifest(singlePassManifest));
+
+        // Translatable files, with the prefixed ex ids
+        for (int i = 2; i < builtFiles.getLength(); i++)
+            assertTrue(builtFiles.item(i).isEqualNode(singlePassFiles.item(i)));
+        NodeList exElements = singlePass.getElementsByTagName("ex");
+        assertTrue(exElements.getLength() > 0);
+        for (int i = 0; i < exElements.getLength(); i++)
+            assertTrue(((Element) exElements.item(i)).getAttribute("id").startsWith("_"));
+
+    }
+
+    private static Document parse(File xliff) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(xliff);
+    }
+
+    private static String decodeManifest(Element manifestElement) {
+        String encoded = manifestElement.getElementsByTagName("internal-file").item(0).getTextContent();
+        String manifest = new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+        return manifest.replaceAll("(projectId|packageId|date)=\"[^\"]*\"", "$1=\"\"");
+    }
+
+}
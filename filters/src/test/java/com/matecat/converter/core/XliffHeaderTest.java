@@ -0,0 +1,59 @@
+package com.matecat.converter.core;
+
+import com.matecat.filters.basefilters.DefaultFilter;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class XliffHeaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRead() throws Exception {
+        XliffHeader header = XliffHeader.read(new File(getClass().getResource("/extraction/test.docx.xlf").getPath()));
+        assertNull(header.getFilter());
+        assertEquals("matecat-converter", header.getToolId());
+        assertTrue(header.isProducedByConverter());
+        assertNull(header.getProducerVersion());
+        assertEquals(new Locale("en"), header.getSourceLanguage());
+        assertEquals(new Locale("en"), header.getTargetLanguage());
+        assertEquals("Oviedo.docx", header.getOriginal());
+        assertEquals("x-docx", header.getDatatype());
+    }
+
+    @Test
+    public void testReadAttributes() throws Exception {
+        File xlf = folder.newFile("test.xlf");
+        FileUtils.writeStringToFile(xlf, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><xliff version=\"1.2\">"
+                + "<file filter=\"" + DefaultFilter.class.getCanonicalName() + "\" tool-id=\"matecat-converter 1.2.3\""
+                + " source-language=\"en-US\" target-language=\"it-IT\" original=\"a.txt\" datatype=\"x-txt\"><body/></file>"
+                + "<file original=\"b.txt\"><body/></file></xliff>", StandardCharsets.UTF_8);
+
+        XliffHeader header = XliffHeader.read(xlf);
+        assertEquals(DefaultFilter.class.getCanonicalName(), header.getFilter());
+        assertEquals("1.2.3", header.getProducerVersion());
+        assertEquals("en-us", header.getSourceLanguage().toString());
+        assertEquals("it-it", header.getTargetLanguage().toString());
+        assertEquals("a.txt", header.getOriginal());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testFileElementBeyondPrefix() throws Exception {
+        // Only the beginning of the xliff is read
+        File xlf = folder.newFile("test.xlf");
+        FileUtils.writeStringToFile(xlf, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><xliff version=\"1.2\"><!--"
+                + StringUtils.repeat(' ', XliffHeader.MAX_PREFIX_SIZE) + "--><file original=\"a.txt\"/></xliff>", StandardCharsets.UTF_8);
+        XliffHeader.read(xlf);
+    }
+
+}
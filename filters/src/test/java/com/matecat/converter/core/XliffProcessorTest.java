@@ -3,13 +3,23 @@ package com.matecat.converter.core;
 import com.matecat.converter.core.okapiclient.OkapiPack;
 import com.matecat.filters.basefilters.DefaultFilter;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Locale;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -17,6 +27,9 @@ import static org.junit.Assert.assertEquals;
  */
 public class XliffProcessorTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
 
     /**
      * Test the extraction of the original file without problems
@@ -29,6 +42,40 @@ public class XliffProcessorTest {
     }
 
 
+    /**
+     * Test the reconstruction of the pack from an xliff whose target language has been changed, and whose
+     * original file is wrapped on several lines
+     * @throws Exception
+     */
+    @Test
+    public void testReconstructPack() throws Exception {
+        File xlf = new File(folder.getRoot(), "test.docx.xlf");
+        String xlfContent = FileUtils.readFileToString(new File(getClass().getResource("/extraction/test.docx.xlf").getPath()), "UTF-8");
+        xlfContent = xlfContent.replace("target-language=\"en\"", "target-language=\"it-IT\"");
+        int start = xlfContent.indexOf("<internal-file form=\"base64\">") + "<internal-file form=\"base64\">".length();
+        int end = xlfContent.indexOf("</internal-file>", start);
+        String encodedFile = xlfContent.substring(start, end);
+        String wrappedFile = encodedFile.replaceAll("(.{76})", "$1\n");
+        FileUtils.writeStringToFile(xlf, xlfContent.substring(0, start) + wrappedFile + xlfContent.substring(end), StandardCharsets.UTF_8);
+
+        File originalFile = new XliffProcessor(xlf).getOriginalFile();
+        assertEquals("Oviedo.docx", originalFile.getName());
+        assertArrayEquals(Base64.getDecoder().decode(encodedFile), FileUtils.readFileToByteArray(originalFile));
+
+        // The manifest targets the language of the xliff
+        File packFolder = new File(folder.getRoot(), OkapiPack.PACK_FILENAME);
+        String manifest = FileUtils.readFileToString(new File(packFolder, OkapiPack.MANIFEST_FILENAME), StandardCharsets.UTF_8);
+        assertTrue(manifest.matches("(?s).*<manifest [^>]*target=\"it-IT\".*"));
+
+        // The work xlf is made of the other file elements
+        File workXlf = new File(packFolder, OkapiPack.WORK_DIRECTORY_NAME + File.separator + "Oviedo.docx.xlf");
+        String work = FileUtils.readFileToString(workXlf, StandardCharsets.UTF_8);
+        assertTrue(work.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?><xliff "));
+        assertFalse(work.contains("internal-file"));
+        assertTrue(work.contains("<file "));
+    }
+
+
     /**
      * Test that the file is derived and, in special, that it is translated
      * @throws Exception
@@ -65,4 +112,27 @@ public class XliffProcessorTest {
 
     }
 
-}
\ No newline at end of file
+    private static String writeManifest(byte[] manifest, int split) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OutputStream stream = new XliffProcessor.ManifestTargetOutputStream(output, "it-IT")) {
+            stream.write(manifest, 0, split);
+            stream.write(manifest, split, manifest.length - split);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testManifestTargetMultiByteCharacters() throws Exception {
+        String head = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<manifest version=\"2\" projectId=\"é\" source=\"en\" target=\"fr-FR\">";
+        String body = "<doc name=\"àèé\">" + StringUtils.repeat("é", 3000) + "</doc></manifest>";
+        byte[] manifest = (head + body).getBytes(StandardCharsets.UTF_8);
+        String expected = head.replace("fr-FR", "it-IT") + body;
+
+        // Every write boundary, including the ones in the middle of a character
+        for (int split = 0; split < 200; split++)
+            assertEquals(expected, writeManifest(manifest, split));
+        assertEquals(expected, writeManifest(manifest, 4096));
+        assertEquals(expected, writeManifest(manifest, 4097));
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.matecat.converter.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class XmlSerializerTest {
+
+    private static String writeBase64(byte[] contents, int lineLength) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (XmlSerializer serializer = new XmlSerializer(output)) {
+            serializer.writeBase64(Channels.newChannel(new ByteArrayInputStream(contents)), lineLength);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testBase64() throws Exception {
+        // Bigger than the buffers, and not a multiple of 3
+        byte[] contents = new byte[100 * 1024 + 1];
+        new Random(42).nextBytes(contents);
+
+        assertEquals(Base64.getEncoder().encodeToString(contents), writeBase64(contents, 0));
+        assertEquals("", writeBase64(new byte[0], 0));
+    }
+
+    @Test
+    public void testBase64LineWrapping() throws Exception {
+        byte[] contents = new byte[100 * 1024 + 1];
+        new Random(42).nextBytes(contents);
+
+        String wrapped = writeBase64(contents, 76);
+        assertEquals(Base64.getMimeEncoder(76, new byte[]{'\n'}).encodeToString(contents), wrapped);
+        assertEquals(76, wrapped.indexOf('\n'));
+        assertEquals(76 + 1 + 76, wrapped.indexOf('\n', 77));
+
+        // Rounded down to a multiple of 4
+        assertEquals(Base64.getMimeEncoder(76, new byte[]{'\n'}).encodeToString(contents), writeBase64(contents, 78));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.matecat.converter.core.metrics;
+
+import com.matecat.converter.core.Format;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class MetricsTest {
+
+    @Test
+    public void testHistogramBuckets() {
+        Histogram histogram = new Histogram();
+        histogram.observe(0.001);
+        histogram.observe(0.3);
+        histogram.observe(1000);
+        long[] counts = histogram.getCumulativeCounts();
+        assertEquals(1, counts[0]);
+        // 0.3 falls into the 0.5 bucket
+        assertEquals(1, counts[5]);
+        assertEquals(2, counts[6]);
+        assertEquals(2, counts[Histogram.BUCKETS.length - 1]);
+        assertEquals(3, counts[Histogram.BUCKETS.length]);
+        assertEquals(1000.301, histogram.getSum(), 1e-9);
+    }
+
+    @Test
+    public void testTimeRecordsErrors() {
+        try {
+            Metrics.time("test_stage", Format.DOCX, () -> {
+                throw new IllegalStateException("Failure");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        StringBuilder out = new StringBuilder();
+        Metrics.write(out);
+        assertTrue(out.toString().contains("matecat_stage_duration_seconds_count{stage=\"test_stage\",format=\"docx\",outcome=\"error\"} 1\n"));
+    }
+
+    @Test
+    public void testGetFormat() {
+        assertEquals(Format.DOCX, Metrics.getFormat("file.docx"));
+        assertEquals(Format.DOCX, Metrics.getFormat("file.docx.xlf"));
+        assertEquals(Format.XLF, Metrics.getFormat("file.xlf"));
+        assertNull(Metrics.getFormat("file.unknown"));
+    }
+
+}
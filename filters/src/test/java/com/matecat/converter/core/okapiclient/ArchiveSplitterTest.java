@@ -0,0 +1,117 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.XliffBuilder;
+import com.matecat.converter.core.XliffProcessor;
+import com.matecat.filters.basefilters.DefaultFilter;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArchiveSplitterTest {
+
+    private static final String README = "Not translatable";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String xliff(String original, String source, String target) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<xliff version=\"1.2\" xmlns=\"urn:oasis:names:tc:xliff:document:1.2\">\n"
+                + "<file original=\"" + original + "\" source-language=\"en-US\" target-language=\"it-IT\" datatype=\"plaintext\">\n"
+                + "<body>\n"
+                + "<trans-unit id=\"1\"><source>" + source + "</source><target>" + target + "</target></trans-unit>\n"
+                + "</body>\n"
+                + "</file>\n"
+                + "</xliff>\n";
+    }
+
+    private File createArchive(String... entries) throws IOException {
+        File archive = new File(folder.newFolder(), "kit.archive");
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                output.putNextEntry(new ZipEntry(entries[i]));
+                output.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                output.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    private File createKit() throws IOException {
+        return createArchive(
+                "docs/b.xlf", xliff("b.txt", "Second document.", "Secondo documento."),
+                "readme.txt", README,
+                "a.xlf", xliff("a.txt", "First document.", "Primo documento."));
+    }
+
+    @Test
+    public void testIsSplittable() throws Exception {
+        File kit = createKit();
+        assertTrue(ArchiveSplitter.isSplittable(kit));
+        assertEquals(Arrays.asList("docs/b.xlf", "a.xlf"), ArchiveSplitter.getEntries(kit));
+
+        // Entries whose format is not supported are left to the archive filter
+        assertFalse(ArchiveSplitter.isSplittable(createArchive("a.xlf", xliff("a.txt", "A.", "A."), "memory.tmx", "<tmx/>")));
+        assertFalse(ArchiveSplitter.isSplittable(createArchive("readme.txt", README)));
+
+        File notArchive = folder.newFile("test.archive");
+        Files.write(notArchive.toPath(), README.getBytes(StandardCharsets.UTF_8));
+        assertFalse(ArchiveSplitter.isSplittable(notArchive));
+    }
+
+    @Test
+    public void testExtractionAndMerge() throws Exception {
+        File kit = createKit();
+        List<OkapiPack> packs = ArchiveSplitter.generatePacks(Locale.ENGLISH, Locale.ITALIAN, kit, null, false);
+        assertEquals(2, packs.size());
+        File xlf = XliffBuilder.buildFromArchivePacks(kit, packs, null, DefaultFilter.class);
+
+        // The archive, then the manifest and the work file of every entry, in the order of the archive
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(xlf);
+        NodeList fileElements = document.getElementsByTagName("file");
+        List<String> originals = new ArrayList<>();
+        for (int i = 0; i < fileElements.getLength(); i++)
+            originals.add(((Element) fileElements.item(i)).getAttribute("original"));
+        assertEquals(Arrays.asList("kit.archive", OkapiPack.MANIFEST_FILENAME, "b.txt", OkapiPack.MANIFEST_FILENAME, "a.txt"), originals);
+
+        XliffProcessor processor = new XliffProcessor(xlf);
+        assertArrayEquals(Files.readAllBytes(kit.toPath()), Files.readAllBytes(processor.getOriginalFile().toPath()));
+
+        File derivedFile = processor.getDerivedFile();
+        List<String> names = new ArrayList<>();
+        try (ZipFile derived = new ZipFile(derivedFile)) {
+            Enumeration<? extends ZipEntry> entries = derived.entries();
+            while (entries.hasMoreElements())
+                names.add(entries.nextElement().getName());
+            assertEquals(README, IOUtils.toString(derived.getInputStream(derived.getEntry("readme.txt")), StandardCharsets.UTF_8));
+            assertTrue(IOUtils.toString(derived.getInputStream(derived.getEntry("a.xlf")), StandardCharsets.UTF_8).contains("Primo documento."));
+            assertTrue(IOUtils.toString(derived.getInputStream(derived.getEntry("docs/b.xlf")), StandardCharsets.UTF_8).contains("Secondo documento."));
+        }
+        assertEquals(Arrays.asList("docs/b.xlf", "readme.txt", "a.xlf"), names);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.util.Config;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConversionBudgetTest {
+
+    @Test
+    public void testWithinBudget() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ConversionBudget.run("test", 10, runs::incrementAndGet);
+        assertEquals(1, runs.get());
+
+        // No budget outside the pipelines
+        ConversionBudget.checkCurrent();
+    }
+
+    @Test
+    public void testCooperativeCancellation() throws Exception {
+        long start = System.currentTimeMillis();
+        try {
+            ConversionBudget.run("test", 1, () -> {
+                while (true)
+                    ConversionBudget.checkCurrent();
+            });
+            fail("The pipeline should have been cancelled");
+        } catch (ConversionTimeoutException e) {
+            assertEquals("Conversion timed out: the test exceeded its time budget of 1 seconds", e.getMessage());
+        }
+        assertTrue(System.currentTimeMillis() - start < (1 + ConversionBudget.INTERRUPT_DELAY) * 1000);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testInterruption() throws Exception {
+        try {
+            ConversionBudget.run("test", 1, () -> {
+                try {
+                    Thread.sleep(60000);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            fail("The pipeline should have been interrupted");
+        } catch (ConversionTimeoutException e) {
+            assertTrue(e.getCause().getCause() instanceof InterruptedException);
+        }
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testStageTimeout() throws Exception {
+        assertEquals(Config.extractionTimeout, ConversionBudget.Stage.EXTRACTION.getTimeout(Format.XLSX));
+        assertEquals(Config.mergeTimeout, ConversionBudget.Stage.MERGE.getTimeout(null));
+    }
+
+}
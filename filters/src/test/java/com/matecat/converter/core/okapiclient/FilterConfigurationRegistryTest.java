@@ -0,0 +1,45 @@
+package com.matecat.converter.core.okapiclient;
+
+import net.sf.okapi.common.MimeTypeMapper;
+import net.sf.okapi.common.filters.FilterConfiguration;
+import net.sf.okapi.common.filters.IFilterConfigurationMapper;
+import net.sf.okapi.filters.openxml.OpenXMLFilter;
+import net.sf.okapi.filters.plaintext.PlainTextFilter;
+import net.sf.okapi.filters.xmlstream.XmlStreamFilter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class FilterConfigurationRegistryTest {
+
+    @Test
+    public void testSharedMapper() throws Exception {
+        IFilterConfigurationMapper mapper = FilterConfigurationRegistry.getMapper(OpenXMLFilter.class);
+        assertSame(mapper, FilterConfigurationRegistry.getMapper(OpenXMLFilter.class));
+        assertNotSame(mapper, FilterConfigurationRegistry.getMapper(XmlStreamFilter.class));
+
+        // Filter, common and custom configurations
+        assertNotNull(mapper.getConfiguration("okf_openxml"));
+        assertNotNull(mapper.getConfiguration("okf_rainbowkit-noprompt"));
+        assertNotNull(mapper.getConfiguration("okf_table_csv"));
+        assertNotNull(mapper.getConfiguration(FilterConfigurationRegistry.HTML_CUSTOM_CONFIGURATION.configId));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() throws Exception {
+        FilterConfigurationRegistry.getMapper(OpenXMLFilter.class).removeConfiguration("okf_openxml");
+    }
+
+    @Test
+    public void testAddConfiguration() throws Exception {
+        IFilterConfigurationMapper before = FilterConfigurationRegistry.getMapper(PlainTextFilter.class);
+        FilterConfiguration configuration = new FilterConfiguration("okf_plaintext-test", MimeTypeMapper.PLAIN_TEXT_MIME_TYPE,
+                PlainTextFilter.class.getName(), "Test", "Test configuration");
+        FilterConfigurationRegistry.addConfiguration(configuration);
+        IFilterConfigurationMapper after = FilterConfigurationRegistry.getMapper(PlainTextFilter.class);
+        assertNull(before.getConfiguration("okf_plaintext-test"));
+        assertNotNull(after.getConfiguration("okf_plaintext-test"));
+    }
+
+}
@@ -1,11 +1,15 @@
 package com.matecat.converter.core.okapiclient;
 
 import com.matecat.converter.core.encoding.Encoding;
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.core.util.VirtualThreads;
 import org.junit.Test;
 
 import java.io.File;
 import java.util.Locale;
 
+import static org.junit.Assert.assertEquals;
+
 public class OkapiClientTest {
 
     private void testFile(String filename) {
@@ -15,6 +19,14 @@ public class OkapiClientTest {
         pack.delete();
     }
 
+    @Test
+    public void testPipelinePermitsOnlyWithVirtualThreads() {
+        // Platform threads are already bounded by their pools
+        assertEquals(VirtualThreads.isEnabled(), OkapiClient.PIPELINE_PERMITS != null);
+        if (OkapiClient.PIPELINE_PERMITS != null)
+            assertEquals(Config.okapiMaxConcurrent, OkapiClient.PIPELINE_PERMITS.availablePermits());
+    }
+
     @Test
     public void testDOCX() {
         testFile("test.docx");
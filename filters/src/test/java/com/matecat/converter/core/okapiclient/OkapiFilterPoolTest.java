@@ -0,0 +1,47 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.Format;
+import net.sf.okapi.common.filters.IFilter;
+import net.sf.okapi.filters.html.HtmlFilter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class OkapiFilterPoolTest {
+
+    @Test
+    public void testReuse() throws Exception {
+        IFilter filter = OkapiFilterPool.borrow(Format.HTML);
+        assertTrue(filter instanceof HtmlFilter);
+
+        // While borrowed, other conversions get another filter
+        IFilter other = OkapiFilterPool.borrow(Format.HTML);
+        assertNotSame(filter, other);
+        OkapiFilterPool.release(Format.HTML, other, false);
+
+        OkapiFilterPool.release(Format.HTML, filter, true);
+        assertSame(filter, OkapiFilterPool.borrow(Format.HTML));
+        OkapiFilterPool.release(Format.HTML, filter, true);
+    }
+
+    @Test
+    public void testFailedFiltersDiscarded() throws Exception {
+        IFilter filter = OkapiFilterPool.borrow(Format.SRT);
+        int idle = OkapiFilterPool.getIdleCount(Format.SRT);
+        OkapiFilterPool.release(Format.SRT, filter, false);
+        assertEquals(idle, OkapiFilterPool.getIdleCount(Format.SRT));
+        assertNotSame(filter, OkapiFilterPool.borrow(Format.SRT));
+    }
+
+    @Test
+    public void testCustomConfigurationApplied() throws Exception {
+        // The cached configuration gives the same parameters of the classpath file
+        IFilter filter = OkapiFilterFactory.getFilter(Format.STRINGS);
+        IFilter expected = new net.sf.okapi.filters.regex.RegexFilter();
+        expected.getParameters().fromString(org.apache.commons.io.IOUtils.toString(
+                getClass().getResourceAsStream(OkapiFilterFactory.OKAPI_CUSTOM_CONFIGS_PATH + OkapiFilterFactory.STRINGS_CONFIG_FILENAME), "UTF-8"));
+        assertEquals(expected.getParameters().toString(), filter.getParameters().toString());
+    }
+
+}
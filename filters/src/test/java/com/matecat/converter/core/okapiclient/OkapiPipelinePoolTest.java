@@ -0,0 +1,94 @@
+package com.matecat.converter.core.okapiclient;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.encoding.Encoding;
+import net.sf.okapi.steps.rainbowkit.creation.ExtractionStep;
+import net.sf.okapi.steps.rainbowkit.postprocess.MergingStep;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+
+public class OkapiPipelinePoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File copy(String filename) throws Exception {
+        File file = new File(folder.newFolder(), filename);
+        FileUtils.copyURLToFile(getClass().getResource("/okapi/" + filename), file);
+        return file;
+    }
+
+    private static byte[] getXlf(OkapiPack pack) throws Exception {
+        return Files.readAllBytes(pack.getXlf().toPath());
+    }
+
+    @Test
+    public void testReusedPipelineGivesSameResult() throws Exception {
+        OkapiPipelinePool.Key key = new OkapiPipelinePool.Key(ExtractionStep.class.getName(), Format.HTML,
+                OkapiClient.SRX_FILE.getPath());
+
+        // A custom filter gets a pipeline of its own
+        byte[] expected = getXlf(OkapiClient.generatePack(Locale.ENGLISH, Locale.ITALIAN, Encoding.getDefault(), copy("test.html"), null,
+                OkapiFilterFactory.getFilter(Format.HTML), false));
+
+        for (int i = 0; i < 3; i++) {
+            OkapiPack pack = OkapiClient.generatePack(Locale.ENGLISH, Locale.ITALIAN, Encoding.getDefault(), copy("test.html"), null, null, false);
+            assertArrayEquals(expected, getXlf(pack));
+            assertEquals(1, OkapiPipelinePool.getIdleCount(key));
+        }
+    }
+
+    @Test
+    public void testPipelineReusedAcrossLanguages() throws Exception {
+        OkapiPipelinePool.Key key = new OkapiPipelinePool.Key(ExtractionStep.class.getName(), Format.HTML,
+                OkapiClient.SRX_FILE.getPath());
+        OkapiClient.generatePack(Locale.ENGLISH, Locale.ITALIAN, Encoding.getDefault(), copy("test.html"), null, null, false);
+        assertEquals(1, OkapiPipelinePool.getIdleCount(key));
+
+        // The pooled pipeline segments like a new one built for the other language
+        Locale german = Locale.GERMAN;
+        OkapiPack expected = OkapiClient.generatePack(german, Locale.ITALIAN, Encoding.getDefault(), copy("test.html"), null,
+                OkapiFilterFactory.getFilter(Format.HTML), false);
+        OkapiPack pack = OkapiClient.generatePack(german, Locale.ITALIAN, Encoding.getDefault(), copy("test.html"), null, null, false);
+        assertArrayEquals(getXlf(expected), getXlf(pack));
+        assertEquals(1, OkapiPipelinePool.getIdleCount(key));
+    }
+
+    @Test
+    public void testReusedMergingPipeline() throws Exception {
+        OkapiPipelinePool.Key key = new OkapiPipelinePool.Key(MergingStep.class.getName(), Format.TXT, null);
+        byte[] expected = null;
+        for (int i = 0; i < 3; i++) {
+            File file = copy("test.txt");
+            OkapiPack pack = OkapiClient.generatePack(Locale.ENGLISH, Locale.ITALIAN, Encoding.getDefault(), file, null, null, false);
+            byte[] derived = Files.readAllBytes(OkapiClient.generateDerivedFile(pack).toPath());
+            if (expected == null)
+                expected = derived;
+            assertArrayEquals(expected, derived);
+            assertEquals(1, OkapiPipelinePool.getIdleCount(key));
+        }
+    }
+
+    @Test
+    public void testFailedPipelinesDiscarded() throws Exception {
+        OkapiPipelinePool.Key key = new OkapiPipelinePool.Key("test", Format.JSON, null);
+        OkapiPipelinePool.Pipeline pipeline = OkapiPipelinePool.borrow(key, () -> new OkapiPipelinePool.Pipeline(
+                new net.sf.okapi.common.pipelinedriver.PipelineDriver(), null, null, null, null));
+        OkapiPipelinePool.release(key, pipeline, false);
+        assertEquals(0, OkapiPipelinePool.getIdleCount(key));
+
+        OkapiPipelinePool.release(key, pipeline, true);
+        assertEquals(1, OkapiPipelinePool.getIdleCount(key));
+        assertSame(pipeline, OkapiPipelinePool.borrow(key, () -> null));
+    }
+
+}
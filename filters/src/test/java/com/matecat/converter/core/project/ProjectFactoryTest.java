@@ -1,11 +1,14 @@
 package com.matecat.converter.core.project;
 
+import com.matecat.converter.core.winconverter.FileTooBigException;
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.InputStream;
 
 import static org.junit.Assert.*;
 
@@ -42,4 +45,40 @@ public class ProjectFactoryTest {
         assertNotSame(project.getFile().getPath(), project2.getFile().getPath());
     }
 
+    @Test
+    public void testCreationBounded() throws Exception {
+        Project boundedProject = ProjectFactory.createProject(file.getName(), new FileInputStream(file), file.length());
+        try {
+            assertTrue(FileUtils.contentEquals(file, boundedProject.getFile()));
+        } finally {
+            boundedProject.close(true);
+        }
+    }
+
+    @Test(expected = FileTooBigException.class)
+    public void testCreationStoppedOverMaxSize() throws Exception {
+        // Endless contents, like an inflating bomb: the copy must stop anyway
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return 0;
+            }
+        };
+        ProjectFactory.createProject("bomb.txt", endless, 1024 * 1024);
+    }
+
+    @Test
+    public void testCreationFromFile() throws Exception {
+        File upload = File.createTempFile("upload", ".tmp");
+        FileUtils.copyFile(file, upload);
+        Project movedProject = ProjectFactory.createProject(file.getName(), upload);
+        try {
+            assertFalse(upload.exists());
+            assertEquals(file.getName(), movedProject.getFile().getName());
+            assertTrue(FileUtils.contentEquals(file, movedProject.getFile()));
+        } finally {
+            movedProject.close(true);
+        }
+    }
+
 }
\ No newline at end of file
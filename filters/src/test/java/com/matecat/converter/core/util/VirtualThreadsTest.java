@@ -0,0 +1,40 @@
+package com.matecat.converter.core.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void testEnabledOnlyIfConfiguredAndSupported() throws Exception {
+        assertEquals(Config.virtualThreads && VirtualThreads.isSupported(), VirtualThreads.isEnabled());
+    }
+
+    @Test
+    public void testSupportedFromJava21() throws Exception {
+        String version = System.getProperty("java.specification.version");
+        int major = Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+        assertEquals(major >= 21, VirtualThreads.isSupported());
+    }
+
+    @Test
+    public void testPlatformThreadsFallback() throws Exception {
+        assumeFalse(VirtualThreads.isEnabled());
+
+        ThreadFactory factory = VirtualThreads.newThreadFactory("test");
+        Thread first = factory.newThread(() -> {});
+        Thread second = factory.newThread(() -> {});
+        assertEquals("test-1", first.getName());
+        assertEquals("test-2", second.getName());
+        assertTrue(first.isDaemon());
+        assertTrue(second.isDaemon());
+
+        // Every factory has its own counter
+        assertEquals("other-1", VirtualThreads.newThreadFactory("other").newThread(() -> {}).getName());
+    }
+
+}
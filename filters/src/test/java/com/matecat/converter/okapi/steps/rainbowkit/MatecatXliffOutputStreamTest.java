@@ -0,0 +1,60 @@
+package com.matecat.converter.okapi.steps.rainbowkit;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class MatecatXliffOutputStreamTest {
+
+    private static final String XLIFF = "<?xml version=\"1.0\"?><xliff version=\"1.2\">\n"
+            + "<file original=\"a.xml\"><body><trans-unit id=\"1\"><source>&lt;ex id=\"1\"/> <bx id=\"1\"/>é<ex id=\"1\"/></source></trans-unit></body></file>\n"
+            + "<file original=\"b.xml\"><body><trans-unit id=\"1\"><source><<ex id=\"2\"/></source></trans-unit></body></file>\n"
+            + "</xliff>";
+
+    private static final String EXPECTED = "<?xml version=\"1.0\"?><xliff version=\"1.2\">\n"
+            + "<file original=\"original\"/><file original=\"a.xml\"><body><trans-unit id=\"1\"><source>&lt;ex id=\"1\"/> <bx id=\"1\"/>é<ex id=\"_1\"/></source></trans-unit></body></file>\n"
+            + "<file original=\"b.xml\"><body><trans-unit id=\"1\"><source><<ex id=\"_2\"/></source></trans-unit></body></file>\n"
+            + "</xliff>";
+
+    private static String rewrite(int chunkSize) throws IOException {
+        return rewrite(XLIFF, chunkSize);
+    }
+
+    private static String rewrite(String input, int chunkSize) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] xliff = input.getBytes(StandardCharsets.UTF_8);
+        try (MatecatXliffOutputStream stream = new MatecatXliffOutputStream(output,
+                out -> out.write("<file original=\"original\"/>".getBytes(StandardCharsets.UTF_8)))) {
+            for (int i = 0; i < xliff.length; i += chunkSize)
+                stream.write(xliff, i, Math.min(chunkSize, xliff.length - i));
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRewrite() throws Exception {
+        assertEquals(EXPECTED, rewrite(XLIFF.length() * 2));
+    }
+
+    @Test
+    public void testRewriteSplitWrites() throws Exception {
+        for (int chunkSize = 1; chunkSize < 10; chunkSize++)
+            assertEquals(EXPECTED, rewrite(chunkSize));
+    }
+
+    @Test
+    public void testExTagsAnyAttributes() throws Exception {
+        // Same ids of XliffBuilder, whatever the order of the attributes and the quotes
+        String xliff = "<file original=\"a.xml\"><source><ex equiv-text=\"a>b\" id='3'/><ex\n id=\"4\"/>"
+                + "<ex/><ex equiv-text=\"id\"></ex><extra id=\"5\"/><ex id = \"é\"/></source></file>";
+        String expected = "<file original=\"original\"/><file original=\"a.xml\"><source><ex equiv-text=\"a>b\" id='_3'/><ex\n id=\"_4\"/>"
+                + "<ex id=\"_\"/><ex id=\"_\" equiv-text=\"id\"></ex><extra id=\"5\"/><ex id = \"_é\"/></source></file>";
+        for (int chunkSize = 1; chunkSize < 10; chunkSize++)
+            assertEquals(expected, rewrite(xliff, chunkSize));
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.matecat.converter.okapi.steps.segmentation;
+
+import com.matecat.converter.core.okapiclient.OkapiClient;
+import net.sf.okapi.common.ISegmenter;
+import net.sf.okapi.common.LocaleId;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+import static org.junit.Assert.*;
+
+
+public class SegmenterCacheTest {
+
+    @Test
+    public void testReuse() throws Exception {
+        SegmenterCache.Lease lease = SegmenterCache.borrow(OkapiClient.SRX_FILE, LocaleId.ENGLISH);
+        ISegmenter segmenter = lease.getSegmenter();
+        // The default rules break on the hints of the AddIcuHintsStep
+        assertEquals(2, segmenter.computeSegments("First sentence." + AddIcuHintsStep.SENTENCE_BOUNDARY_PLACEHOLDER + " Second sentence."));
+
+        // While borrowed, other pipelines get another segmenter
+        SegmenterCache.Lease other = SegmenterCache.borrow(OkapiClient.SRX_FILE, LocaleId.ENGLISH);
+        assertNotSame(segmenter, other.getSegmenter());
+        other.release();
+
+        lease.release();
+        SegmenterCache.Lease reused = SegmenterCache.borrow(OkapiClient.SRX_FILE, LocaleId.ENGLISH);
+        assertTrue(reused.getSegmenter() == segmenter || reused.getSegmenter() == other.getSegmenter());
+        assertEquals(1, reused.getSegmenter().computeSegments("One sentence only."));
+        reused.release();
+    }
+
+    @Test
+    public void testReloadOnChange() throws Exception {
+        File srxFile = File.createTempFile("segmenter-cache-", ".srx");
+        srxFile.deleteOnExit();
+        FileUtils.copyFile(OkapiClient.SRX_FILE, srxFile);
+        srxFile.setLastModified(1000000000000L);
+
+        SegmenterCache.Lease lease = SegmenterCache.borrow(srxFile, LocaleId.ENGLISH);
+        lease.release();
+        assertSame(lease.getSegmenter(), SegmenterCache.borrow(srxFile, LocaleId.ENGLISH).getSegmenter());
+
+        // The rules file changed: segmenters compiled from the old rules are not used anymore
+        srxFile.setLastModified(2000000000000L);
+        lease.release();
+        assertNotSame(lease.getSegmenter(), SegmenterCache.borrow(srxFile, LocaleId.ENGLISH).getSegmenter());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testMissingFile() throws Exception {
+        SegmenterCache.borrow(new File("/non/existing/rules.srx"), LocaleId.ENGLISH);
+    }
+
+}
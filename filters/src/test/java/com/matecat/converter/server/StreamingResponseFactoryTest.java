@@ -0,0 +1,79 @@
+package com.matecat.converter.server;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.ws.rs.core.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+
+public class StreamingResponseFactoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDerivedSuccessSameAsJSON() throws Exception {
+        File file = new File(getClass().getResource("/server/test.docx").getPath());
+        assertSameAsJSON(file);
+    }
+
+    @Test
+    public void testDerivedSuccessSpecialFilename() throws Exception {
+        // Bigger than a chunk, with a size not multiple of 3
+        byte[] contents = new byte[200 * 1024 + 1];
+        new Random(42).nextBytes(contents);
+        File file = folder.newFile("quoted \"name\".bin");
+        FileUtils.writeByteArrayToFile(file, contents);
+        assertSameAsJSON(file);
+    }
+
+    @Test
+    public void testDerivedSuccessEmptyFile() throws Exception {
+        assertSameAsJSON(folder.newFile("empty.txt"));
+    }
+
+    @Test
+    public void testRawRequested() throws Exception {
+        assertTrue(StreamingResponseFactory.isRawRequested("raw", accept()));
+        assertTrue(StreamingResponseFactory.isRawRequested(null, accept("application/xliff+xml")));
+        assertTrue(StreamingResponseFactory.isRawRequested(null, accept("application/x-xliff+xml;q=0.5")));
+        assertTrue(StreamingResponseFactory.isRawRequested(null, accept("application/json;q=0.9", "Application/XLIFF+XML;q=0.1")));
+        assertFalse(StreamingResponseFactory.isRawRequested(null, accept()));
+        assertFalse(StreamingResponseFactory.isRawRequested(null, accept("*/*")));
+        assertFalse(StreamingResponseFactory.isRawRequested(null, accept("application/*", "application/json")));
+    }
+
+    @Test
+    public void testRawRefused() throws Exception {
+        assertFalse(StreamingResponseFactory.isRawRequested(null, accept("application/xliff+xml;q=0")));
+        assertFalse(StreamingResponseFactory.isRawRequested(null, accept("application/x-xliff+xml;q=0.000", "*/*")));
+        assertFalse(StreamingResponseFactory.isRawRequested(null, accept("application/xliff+xml;q=high")));
+        assertFalse(StreamingResponseFactory.isRawRequested(null, accept("application/json", "application/xliff-extra+xml")));
+    }
+
+    private static List<MediaType> accept(String... types) {
+        List<MediaType> acceptableTypes = new ArrayList<>();
+        for (String type : types)
+            acceptableTypes.add(MediaType.valueOf(type));
+        return acceptableTypes;
+    }
+
+    private static void assertSameAsJSON(File file) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingResponseFactory.writeDerivedSuccess(file, output);
+        String expected = JSONResponseFactory.getDerivedSuccess(file);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), output.toByteArray());
+    }
+
+}
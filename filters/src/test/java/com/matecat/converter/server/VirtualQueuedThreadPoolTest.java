@@ -0,0 +1,30 @@
+package com.matecat.converter.server;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualQueuedThreadPoolTest {
+
+    @Test
+    public void testRunsJobs() throws Exception {
+        VirtualQueuedThreadPool pool = new VirtualQueuedThreadPool(4, 1, 60000, new LinkedBlockingQueue<>());
+        pool.start();
+        try {
+            CompletableFuture<Thread> thread = new CompletableFuture<>();
+            pool.execute(() -> thread.complete(Thread.currentThread()));
+            Thread worker = thread.get(10, TimeUnit.SECONDS);
+            // Jetty names the threads after the pool
+            assertNotSame(Thread.currentThread(), worker);
+            assertTrue(worker.isDaemon());
+        } finally {
+            pool.stop();
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.matecat.converter.server;
+
+import com.matecat.converter.core.Format;
+import com.matecat.converter.core.okapiclient.OkapiClient;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WarmUpTest {
+
+    @Test
+    public void testAllSamplesConverted() throws Exception {
+        List<Format> warmedUp = WarmUp.run();
+        for (Format format : OkapiClient.getSupportedFormats()) {
+            boolean hasSample = WarmUp.class.getResource("/warmup/sample." + format) != null;
+            assertEquals("Sample of " + format, hasSample, warmedUp.contains(format));
+        }
+        assertTrue(warmedUp.contains(Format.DOCX));
+        assertTrue(WarmUp.isReady());
+    }
+
+}
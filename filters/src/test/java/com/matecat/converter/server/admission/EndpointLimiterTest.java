@@ -0,0 +1,73 @@
+package com.matecat.converter.server.admission;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+
+public class EndpointLimiterTest {
+
+    @Test
+    public void testRejectWithoutQueue() throws Exception {
+        EndpointLimiter limiter = new EndpointLimiter("test", 2, 0, 1000);
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.isSaturated());
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.isSaturated());
+        assertFalse(limiter.acquire());
+        assertEquals(1, limiter.getRejectedCount());
+        limiter.release(0);
+        assertTrue(limiter.acquire());
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        EndpointLimiter limiter = new EndpointLimiter("test", 1, 1, 50);
+        assertTrue(limiter.acquire());
+        long start = System.currentTimeMillis();
+        assertFalse(limiter.acquire());
+        assertTrue(System.currentTimeMillis() - start >= 50);
+        assertEquals(0, limiter.getQueueSize());
+    }
+
+    @Test
+    public void testQueuedRequestAdmitted() throws Exception {
+        EndpointLimiter limiter = new EndpointLimiter("test", 1, 1, 10000);
+        assertTrue(limiter.acquire());
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean admitted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            started.countDown();
+            try {
+                admitted.set(limiter.acquire());
+            } catch (InterruptedException ignored) {}
+        });
+        waiter.start();
+        started.await();
+        while (limiter.getQueueSize() == 0)
+            Thread.sleep(10);
+
+        // The queue is full
+        assertFalse(limiter.acquire());
+
+        limiter.release(0);
+        waiter.join(5000);
+        assertTrue(admitted.get());
+    }
+
+    @Test
+    public void testRetryAfter() throws Exception {
+        EndpointLimiter limiter = new EndpointLimiter("test", 2, 0, 0);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.acquire());
+            limiter.release(10000);
+        }
+        // Almost 10 seconds per request, on two slots
+        assertEquals(5, limiter.getRetryAfter());
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.matecat.converter.server.jobs;
+
+import com.matecat.converter.core.project.Project;
+import com.matecat.converter.core.project.ProjectFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class JobManagerTest {
+
+    private static Project createProject() {
+        return ProjectFactory.createProject("test.txt", new ByteArrayInputStream("Some text.".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testRemoveRunningJob() throws Exception {
+        Project project = createProject();
+        File folder = project.getFolder();
+        ConversionJob job = new ConversionJob(ConversionJob.Type.ORIGINAL2XLIFF, project);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // A conversion ignoring the interrupts, like Okapi does
+        JobManager.submit(job, () -> {
+            started.countDown();
+            while (true) {
+                try {
+                    if (release.await(10, TimeUnit.SECONDS))
+                        return project.getFile();
+                } catch (InterruptedException e) {
+                    // Go on
+                }
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // The files are kept while the worker uses them
+        assertSame(job, JobManager.remove(job.getId()));
+        assertNull(JobManager.get(job.getId()));
+        assertTrue(folder.exists());
+
+        release.countDown();
+        job.getCompletion().get(10, TimeUnit.SECONDS);
+        assertEquals(ConversionJob.Status.SUCCEEDED, job.getStatus());
+        // Closed by the worker once finished
+        for (int i = 0; i < 100 && folder.exists(); i++)
+            Thread.sleep(100);
+        assertFalse(folder.exists());
+    }
+
+    @Test
+    public void testCancelQueuedJob() throws Exception {
+        Project project = createProject();
+        ConversionJob job = new ConversionJob(ConversionJob.Type.ORIGINAL2XLIFF, project);
+        job.cancel();
+        assertFalse(job.markRunning());
+        assertEquals(ConversionJob.Status.QUEUED, job.getStatus());
+        project.close(true);
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.server.JSONResponseFactory;
+import com.matecat.converter.server.MatecatConverterServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.ByteArrayBody;
+import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.StringBody;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.Path;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+
+public class BatchResourceTest {
+
+    private static MatecatConverterServer server;
+    private static final int PORT = 8090;
+    private static final String url = "http://localhost:" + PORT + BatchResource.class.getAnnotation(Path.class).value();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MatecatConverterServer(PORT);
+        while ( !server.isStarted() )
+            Thread.sleep(100);
+    }
+
+    @Test
+    public void testConvertBatch() throws Exception {
+
+        File fileToUpload = new File(getClass().getResource("/server/test.docx").getPath());
+
+        // Send two valid files and a broken one
+        HttpClient httpclient = HttpClientBuilder.create().build();
+        HttpPost httpPost = new HttpPost(url + "/original2xliff");
+        MultipartEntityBuilder reqEntity = MultipartEntityBuilder.create();
+        reqEntity.addPart("documentContent", new FileBody(fileToUpload));
+        reqEntity.addPart("documentContent", new FileBody(fileToUpload, ContentType.DEFAULT_BINARY, "copy.docx"));
+        reqEntity.addPart("documentContent", new ByteArrayBody("not a docx".getBytes(StandardCharsets.UTF_8), "broken.docx"));
+        reqEntity.addPart("sourceLocale", new StringBody("en-US", ContentType.TEXT_PLAIN));
+        reqEntity.addPart("targetLocale", new StringBody("fr-FR", ContentType.TEXT_PLAIN));
+        httpPost.setEntity(reqEntity.build());
+        HttpResponse response = httpclient.execute(httpPost);
+
+        // Check OK status code
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertEquals(BatchResource.ZIP_MEDIA_TYPE, response.getEntity().getContentType().getValue());
+
+        // Read the zip
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(response.getEntity().getContent())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null)
+                entries.put(entry.getName(), IOUtils.toByteArray(zip));
+        }
+        assertEquals(3, entries.size());
+        assertTrue(entries.containsKey("test.docx.xlf"));
+        assertTrue(entries.containsKey("copy.docx.xlf"));
+
+        // Check the manifest, in the order the files were sent
+        JSONObject manifest = (JSONObject) new JSONParser().parse(
+                new String(entries.get(BatchResource.MANIFEST_FILENAME), StandardCharsets.UTF_8));
+        JSONArray files = (JSONArray) manifest.get(BatchResource.MANIFEST_FILES);
+        assertEquals(3, files.size());
+        JSONObject first = (JSONObject) files.get(0);
+        assertEquals("test.docx", first.get(JSONResponseFactory.FILENAME));
+        assertTrue((boolean) first.get(JSONResponseFactory.IS_SUCCESS));
+        assertEquals("test.docx.xlf", first.get(BatchResource.MANIFEST_OUTPUT));
+        JSONObject broken = (JSONObject) files.get(2);
+        assertEquals("broken.docx", broken.get(JSONResponseFactory.FILENAME));
+        assertFalse((boolean) broken.get(JSONResponseFactory.IS_SUCCESS));
+        assertNotNull(broken.get(JSONResponseFactory.ERROR_MESSAGE));
+
+    }
+
+    @Test
+    public void testNoFiles() throws Exception {
+        HttpClient httpclient = HttpClientBuilder.create().build();
+        HttpPost httpPost = new HttpPost(url + "/xliff2original");
+        MultipartEntityBuilder reqEntity = MultipartEntityBuilder.create();
+        reqEntity.addPart("segmentation", new StringBody("", ContentType.TEXT_PLAIN));
+        httpPost.setEntity(reqEntity.build());
+        HttpResponse response = httpclient.execute(httpPost);
+        assertEquals(400, response.getStatusLine().getStatusCode());
+    }
+
+    private static HttpResponse convertArchive(int files) throws Exception {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            for (int i = 0; i < files; i++) {
+                zip.putNextEntry(new ZipEntry("file" + i + ".txt"));
+                zip.write("Some text.".getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+
+        HttpClient httpclient = HttpClientBuilder.create().build();
+        HttpPost httpPost = new HttpPost(url + "/original2xliff");
+        MultipartEntityBuilder reqEntity = MultipartEntityBuilder.create();
+        reqEntity.addPart("archiveContent", new ByteArrayBody(archive.toByteArray(), "batch.zip"));
+        reqEntity.addPart("sourceLocale", new StringBody("en-US", ContentType.TEXT_PLAIN));
+        reqEntity.addPart("targetLocale", new StringBody("fr-FR", ContentType.TEXT_PLAIN));
+        httpPost.setEntity(reqEntity.build());
+        return httpclient.execute(httpPost);
+    }
+
+    @Test
+    public void testTooManyFiles() throws Exception {
+        // One entry more than allowed
+        HttpResponse response = convertArchive(Config.batchMaxFiles + 1);
+        assertEquals(400, response.getStatusLine().getStatusCode());
+    }
+
+    @Test
+    public void testBatchBiggerThanWorkersQueue() throws Exception {
+        // The conversions are submitted progressively, so none of them is rejected
+        int files = Math.min(Config.batchMaxFiles, Config.jobsQueueSize + Config.jobsPoolSize + 1);
+        HttpResponse response = convertArchive(files);
+        assertEquals(200, response.getStatusLine().getStatusCode());
+
+        byte[] manifestBytes = null;
+        try (ZipInputStream zip = new ZipInputStream(response.getEntity().getContent())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null)
+                if (entry.getName().equals(BatchResource.MANIFEST_FILENAME))
+                    manifestBytes = IOUtils.toByteArray(zip);
+        }
+        JSONObject manifest = (JSONObject) new JSONParser().parse(new String(manifestBytes, StandardCharsets.UTF_8));
+        JSONArray manifestFiles = (JSONArray) manifest.get(BatchResource.MANIFEST_FILES);
+        assertEquals(files, manifestFiles.size());
+        for (Object file : manifestFiles)
+            assertTrue(file.toString(), (boolean) ((JSONObject) file).get(JSONResponseFactory.IS_SUCCESS));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+        while (!server.isStopped())
+            Thread.sleep(100);
+    }
+}
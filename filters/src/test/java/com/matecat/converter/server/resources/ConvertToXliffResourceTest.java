@@ -2,6 +2,7 @@ package com.matecat.converter.server.resources;
 
 import com.matecat.converter.server.JSONResponseFactory;
 import com.matecat.converter.server.MatecatConverterServer;
+import com.matecat.converter.server.StreamingResponseFactory;
 import org.apache.commons.io.FileUtils;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
@@ -11,6 +12,7 @@ import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.FileBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.junit.After;
@@ -79,6 +81,34 @@ public class ConvertToXliffResourceTest {
 
     }
 
+    @Test
+    public void testConvertRawSuccess() throws Exception {
+
+        File fileToUpload = new File(getClass().getResource("/server/test.docx").getPath());
+
+        // Send request
+        HttpClient httpclient = HttpClientBuilder.create().build();
+        HttpPost httpPost = new HttpPost(url + "?output=raw");
+        MultipartEntityBuilder reqEntity = MultipartEntityBuilder.create();
+        reqEntity.addPart("documentContent", new FileBody(fileToUpload));
+        reqEntity.addPart("sourceLocale", new StringBody("en-US", ContentType.TEXT_PLAIN));
+        reqEntity.addPart("targetLocale", new StringBody("fr-FR", ContentType.TEXT_PLAIN));
+        httpPost.setEntity(reqEntity.build());
+        HttpResponse response = httpclient.execute(httpPost);
+
+        // Check OK status code and headers
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertEquals(StreamingResponseFactory.STATUS_SUCCESS, response.getFirstHeader(StreamingResponseFactory.STATUS_HEADER).getValue());
+        assertTrue(response.getFirstHeader("Content-Disposition").getValue().contains("test.docx.xlf"));
+        assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith(StreamingResponseFactory.XLIFF_MEDIA_TYPE));
+
+        // Check body: the XLIFF itself
+        String body = EntityUtils.toString(response.getEntity(), "UTF-8");
+        assertTrue(body.startsWith("<?xml"));
+        assertTrue(body.contains("<xliff"));
+
+    }
+
     @After
     public void tearDown() throws Exception {
         server.stop();
@@ -6,6 +6,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.FileBody;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.json.simple.JSONObject;
@@ -16,8 +17,12 @@ import org.junit.Test;
 
 import javax.ws.rs.Path;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.*;
 
@@ -70,6 +75,36 @@ public class GenerateDerivedFileResourceTest {
 
     }
 
+    @Test
+    public void testDeriveGzippedSuccess() throws Exception {
+
+        File xliff = new File(getClass().getResource("/server/test.docx.xlf").getPath());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            Files.copy(xliff.toPath(), gzip);
+        }
+
+        // Send request, accepting a compressed response
+        HttpClient httpclient = HttpClientBuilder.create().disableContentCompression().build();
+        HttpPost httpPost = new HttpPost(url);
+        httpPost.setHeader("Accept-Encoding", "gzip");
+        MultipartEntityBuilder reqEntity = MultipartEntityBuilder.create();
+        reqEntity.addPart("xliffContent", new ByteArrayBody(compressed.toByteArray(), "test.docx.xlf.gz"));
+        httpPost.setEntity(reqEntity.build());
+        HttpResponse response = httpclient.execute(httpPost);
+
+        // Check OK status code and compression
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertEquals("gzip", response.getFirstHeader("Content-Encoding").getValue());
+
+        // Check body
+        String body = new BufferedReader(new InputStreamReader(new GZIPInputStream(response.getEntity().getContent()))).readLine();
+        JSONObject json = (JSONObject) new JSONParser().parse(body);
+        assertTrue((boolean) json.get(JSONResponseFactory.IS_SUCCESS));
+        assertNotSame("", json.get(JSONResponseFactory.DOCUMENT_CONTENT));
+
+    }
+
     @After
     public void tearDown() throws Exception {
         server.stop();
@@ -0,0 +1,97 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.server.JSONResponseFactory;
+import com.matecat.converter.server.MatecatConverterServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.StringBody;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.Path;
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+
+public class JobsResourceTest {
+
+    private static MatecatConverterServer server;
+    private static final int PORT = 8090;
+    private static final String url = "http://localhost:" + PORT + JobsResource.class.getAnnotation(Path.class).value();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MatecatConverterServer(PORT);
+        while ( !server.isStarted() )
+            Thread.sleep(100);
+    }
+
+    @Test
+    public void testConvertJob() throws Exception {
+
+        File fileToUpload = new File(getClass().getResource("/server/test.docx").getPath());
+        HttpClient httpclient = HttpClientBuilder.create().build();
+
+        // Submit the job
+        HttpPost httpPost = new HttpPost(url + "/original2xliff");
+        MultipartEntityBuilder reqEntity = MultipartEntityBuilder.create();
+        reqEntity.addPart("documentContent", new FileBody(fileToUpload));
+        reqEntity.addPart("sourceLocale", new StringBody("en-US", ContentType.TEXT_PLAIN));
+        reqEntity.addPart("targetLocale", new StringBody("fr-FR", ContentType.TEXT_PLAIN));
+        httpPost.setEntity(reqEntity.build());
+        HttpResponse response = httpclient.execute(httpPost);
+        assertEquals(202, response.getStatusLine().getStatusCode());
+        JSONObject json = parse(response);
+        String jobId = (String) json.get(JSONResponseFactory.JOB_ID);
+        assertNotNull(jobId);
+
+        // Wait for its completion
+        response = httpclient.execute(new HttpGet(url + "/" + jobId + "?wait=60"));
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        json = parse(response);
+        assertEquals("SUCCEEDED", json.get(JSONResponseFactory.JOB_STATUS));
+
+        // Retrieve the result
+        response = httpclient.execute(new HttpGet(url + "/" + jobId + "/result"));
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        json = parse(response);
+        assertTrue((boolean) json.get(JSONResponseFactory.IS_SUCCESS));
+        assertNotSame("", json.get(JSONResponseFactory.XLIFF_CONTENT));
+
+        // Once retrieved, the job is gone
+        response = httpclient.execute(new HttpGet(url + "/" + jobId));
+        assertEquals(404, response.getStatusLine().getStatusCode());
+        EntityUtils.consume(response.getEntity());
+
+    }
+
+    @Test
+    public void testUnknownJob() throws Exception {
+        HttpClient httpclient = HttpClientBuilder.create().build();
+        HttpResponse response = httpclient.execute(new HttpGet(url + "/unknown/result"));
+        assertEquals(404, response.getStatusLine().getStatusCode());
+        assertFalse((boolean) parse(response).get(JSONResponseFactory.IS_SUCCESS));
+    }
+
+    private static JSONObject parse(HttpResponse response) throws Exception {
+        return (JSONObject) new JSONParser().parse(EntityUtils.toString(response.getEntity()));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+        while (!server.isStopped())
+            Thread.sleep(100);
+    }
+}
@@ -0,0 +1,74 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.server.MatecatConverterServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.StringBody;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.Path;
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+
+public class MetricsResourceTest {
+
+    private static MatecatConverterServer server;
+    private static final int PORT = 8090;
+    private static final String url = "http://localhost:" + PORT + MetricsResource.class.getAnnotation(Path.class).value();
+    private static final String convertUrl = "http://localhost:" + PORT + ConvertToXliffResource.class.getAnnotation(Path.class).value();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MatecatConverterServer(PORT);
+        while ( !server.isStarted() )
+            Thread.sleep(100);
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+
+        // Convert a file, to record its stages
+        File fileToUpload = new File(getClass().getResource("/server/test.docx").getPath());
+        HttpPost httpPost = new HttpPost(convertUrl);
+        MultipartEntityBuilder reqEntity = MultipartEntityBuilder.create();
+        reqEntity.addPart("documentContent", new FileBody(fileToUpload));
+        reqEntity.addPart("sourceLocale", new StringBody("en-US", ContentType.TEXT_PLAIN));
+        reqEntity.addPart("targetLocale", new StringBody("fr-FR", ContentType.TEXT_PLAIN));
+        httpPost.setEntity(reqEntity.build());
+        HttpResponse conversion = HttpClientBuilder.create().build().execute(httpPost);
+        assertEquals(200, conversion.getStatusLine().getStatusCode());
+        EntityUtils.consume(conversion.getEntity());
+
+        // Check the metrics
+        HttpResponse response = HttpClientBuilder.create().build().execute(new HttpGet(url));
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertTrue(response.getEntity().getContentType().getValue().startsWith("text/plain"));
+        String metrics = EntityUtils.toString(response.getEntity());
+
+        assertTrue(metrics.contains("# TYPE matecat_stage_duration_seconds histogram"));
+        for (String stage : new String[]{"ingestion", "encoding_detection", "pack_generation", "xliff_build", "serialization"})
+            assertTrue(stage, metrics.contains("matecat_stage_duration_seconds_count{stage=\"" + stage + "\",format=\"docx\",outcome=\"success\"}"));
+        assertTrue(metrics.contains("matecat_stage_duration_seconds_bucket{stage=\"xliff_build\",format=\"docx\",outcome=\"success\",le=\"+Inf\"}"));
+        assertTrue(metrics.contains("matecat_active_conversions 0"));
+        assertTrue(metrics.contains("matecat_admission_queue_depth{endpoint=\"original2xliff\"}"));
+        assertTrue(metrics.contains("matecat_jobs_queue_depth"));
+        assertFalse(metrics.contains("matecat_ingested_bytes_total 0\n"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+        while (!server.isStopped())
+            Thread.sleep(100);
+    }
+}
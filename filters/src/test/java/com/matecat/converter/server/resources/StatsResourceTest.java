@@ -0,0 +1,58 @@
+package com.matecat.converter.server.resources;
+
+import com.matecat.converter.core.util.Config;
+import com.matecat.converter.server.MatecatConverterServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.Path;
+
+import static org.junit.Assert.*;
+
+
+public class StatsResourceTest {
+
+    private static MatecatConverterServer server;
+    private static final int PORT = 8090;
+    private static final String url = "http://localhost:" + PORT + StatsResource.class.getAnnotation(Path.class).value();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MatecatConverterServer(PORT);
+        while ( !server.isStarted() )
+            Thread.sleep(100);
+    }
+
+    @Test
+    public void testStats() throws Exception {
+        HttpResponse response = HttpClientBuilder.create().build().execute(new HttpGet(url));
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        JSONObject stats = (JSONObject) new JSONParser().parse(EntityUtils.toString(response.getEntity()));
+
+        JSONObject threadPool = (JSONObject) stats.get("threadPool");
+        assertEquals((long) Config.serverMaxThreads, threadPool.get("maxThreads"));
+
+        JSONArray connectors = (JSONArray) stats.get("connectors");
+        assertEquals(1, connectors.size());
+        assertTrue((long) ((JSONObject) connectors.get(0)).get("connections") >= 1);
+
+        assertNotNull(stats.get("requests"));
+        assertNotNull(((JSONObject) stats.get("admission")).get("original2xliff"));
+        assertTrue((long) ((JSONObject) stats.get("memoryAdmission")).get("budget") > 0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+        while (!server.isStopped())
+            Thread.sleep(100);
+    }
+}